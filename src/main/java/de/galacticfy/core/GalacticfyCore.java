@@ -7,6 +7,7 @@ import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
 import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Plugin;
+import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.messages.ChannelIdentifier;
 import com.velocitypowered.api.proxy.messages.MinecraftChannelIdentifier;
@@ -17,9 +18,12 @@ import de.galacticfy.core.listener.*;
 import de.galacticfy.core.motd.GalacticfyMotdProvider;
 import de.galacticfy.core.permission.GalacticfyPermissionService;
 import de.galacticfy.core.service.*;
+import de.galacticfy.core.sync.ChangeLogInvalidationBus;
+import de.galacticfy.core.sync.InvalidationBus;
 import de.galacticfy.core.util.DiscordWebhookNotifier;
 import org.slf4j.Logger;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.UUID;
 import java.util.function.BiConsumer;
@@ -34,6 +38,7 @@ public class GalacticfyCore {
 
     private final ProxyServer proxy;
     private final Logger logger;
+    private final Path dataDirectory;
 
     private ServerTeleportService teleportService;
     private MaintenanceService maintenanceService;
@@ -50,13 +55,23 @@ public class GalacticfyCore {
     private QuestService questService;
     private MessageService messageService;
     private AutoBroadcastService autoBroadcastService;
+    private TablistPrefixListener tablistListener;
 
     // Identity Cache (Name<->UUID)
     private PlayerIdentityCacheService identityCacheService;
 
+    // Tab-Completion (bekannte / gebannte / gemutete Namen)
+    private final NameCompletionIndex nameIndex = new NameCompletionIndex();
+
     // Report Cooldown
     private ReportCooldownService reportCooldownService;
 
+    // Worker-Pool für Commands mit DB-Zugriff
+    private AsyncCommandExecutor commandExecutor;
+
+    // Cache-Invalidierung zwischen mehreren Proxies (gf_change_log)
+    private InvalidationBus invalidationBus;
+
     // Plugin-Message-Channel für Quest-GUI (Proxy -> Spigot UND CLAIM zurück)
     private static final ChannelIdentifier QUESTS_CHANNEL =
             MinecraftChannelIdentifier.create("galacticfy", "quests");
@@ -66,10 +81,14 @@ public class GalacticfyCore {
 
     private QuestGuiMessenger questGuiMessenger;
 
+    // Login: Rolle, Economy, Session, Quests über eine Connection vorladen
+    private PlayerProfileLoader profileLoader;
+
     @Inject
-    public GalacticfyCore(ProxyServer proxy, Logger logger) {
+    public GalacticfyCore(ProxyServer proxy, Logger logger, @DataDirectory Path dataDirectory) {
         this.proxy = proxy;
         this.logger = logger;
+        this.dataDirectory = dataDirectory;
     }
 
     @Subscribe
@@ -82,6 +101,7 @@ public class GalacticfyCore {
         this.databaseManager = new DatabaseManager(logger);
         this.databaseManager.init();
         new DatabaseMigrationService(databaseManager, logger).runMigrations();
+        this.commandExecutor = new AsyncCommandExecutor(logger, databaseManager.getMaximumPoolSize());
 
         this.sessionService = new SessionService(databaseManager, logger);
         this.economyService = new EconomyService(databaseManager, logger);
@@ -95,17 +115,23 @@ public class GalacticfyCore {
         this.freezeService = new FreezeService(proxy);
         this.chatFilterService = new ChatFilterService();
         this.permissionService = new GalacticfyPermissionService(databaseManager, logger);
-        this.punishmentService = new PunishmentService(databaseManager, logger);
+        this.punishmentService = new PunishmentService(databaseManager, logger, nameIndex);
         this.reportService = new ReportService(databaseManager, logger);
         this.messageService = new MessageService(proxy, logger);
 
+        // Änderungen an Rollen / Punishments / Maintenance an andere Proxies melden
+        this.invalidationBus = new ChangeLogInvalidationBus(databaseManager, logger);
+        permissionService.setInvalidationBus(invalidationBus);
+        punishmentService.setInvalidationBus(invalidationBus);
+        maintenanceService.setInvalidationBus(invalidationBus);
+
         this.autoBroadcastService = new AutoBroadcastService(proxy, messageService, logger, this);
         autoBroadcastService.start();
 
         // ==============================
         // Identity Cache + Report Cooldown
         // ==============================
-        this.identityCacheService = new PlayerIdentityCacheService(databaseManager, logger);
+        this.identityCacheService = new PlayerIdentityCacheService(databaseManager, logger, nameIndex);
         this.reportCooldownService = new ReportCooldownService(logger);
 
         // ==============================
@@ -117,6 +143,9 @@ public class GalacticfyCore {
         // Live-Updates aktivieren (Proxy → Spigot)
         this.questService.setUpdateHook(uuid -> questGuiMessenger.pushUpdate(uuid));
 
+        this.profileLoader = new PlayerProfileLoader(databaseManager, logger, permissionService,
+                economyService, sessionService, questService, punishmentService);
+
         // Quest-Playtime-Timer: jede Minute allen Online-Spielern 1 Minute gutschreiben
         proxy.getScheduler()
                 .buildTask(this, () -> {
@@ -199,18 +228,22 @@ public class GalacticfyCore {
         CommandMeta rankMeta = commandManager.metaBuilder("rank").build();
         commandManager.register(rankMeta, new RankCommand(permissionService, proxy));
 
+        // Ping-/Login-Limits aus plugins/galacticfycore/ratelimit.properties
+        ConnectionRateLimiter rateLimiter = new ConnectionRateLimiter(logger,
+                ConnectionRateLimiter.Settings.load(dataDirectory.resolve("ratelimit.properties"), logger));
+
         CommandMeta proxyInfoMeta = commandManager.metaBuilder("proxyinfo")
                 .aliases("tps")
                 .build();
-        commandManager.register(proxyInfoMeta, new ProxyInfoCommand(proxy));
+        commandManager.register(proxyInfoMeta, new ProxyInfoCommand(proxy, commandExecutor, rateLimiter, permissionService));
 
         // Reports GUI/Staff Command (dein /reports)
         CommandMeta reportsMeta = commandManager.metaBuilder("reports").build();
-        commandManager.register(reportsMeta, new ReportsCommand(proxy, permissionService, reportService, teleportService));
+        commandManager.register(reportsMeta, new ReportsCommand(proxy, permissionService, reportService, teleportService, commandExecutor));
 
         // UPDATED: /seen kann jetzt offline
         CommandMeta seenMeta = commandManager.metaBuilder("seen").build();
-        commandManager.register(seenMeta, new SeenCommand(proxy, permissionService, sessionService, identityCacheService));
+        commandManager.register(seenMeta, new SeenCommand(proxy, permissionService, sessionService, identityCacheService, commandExecutor));
 
         // ==============================
         // Punishment-Commands
@@ -234,13 +267,13 @@ public class GalacticfyCore {
         commandManager.register(kickMeta, new KickCommand(proxy, permissionService, punishmentService, discordNotifier));
 
         CommandMeta historyMeta = commandManager.metaBuilder("history").build();
-        commandManager.register(historyMeta, new HistoryCommand(proxy, punishmentService, permissionService, identityCacheService));
+        commandManager.register(historyMeta, new HistoryCommand(proxy, punishmentService, permissionService, identityCacheService, commandExecutor));
 
         CommandMeta checkMeta = commandManager.metaBuilder("check").build();
-        commandManager.register(checkMeta, new CheckCommand(proxy, permissionService, punishmentService, identityCacheService));
+        commandManager.register(checkMeta, new CheckCommand(proxy, permissionService, punishmentService, identityCacheService, commandExecutor));
 
         CommandMeta warningsMeta = commandManager.metaBuilder("warnings").build();
-        commandManager.register(warningsMeta, new WarningsCommand(proxy, punishmentService, permissionService, identityCacheService));
+        commandManager.register(warningsMeta, new WarningsCommand(proxy, punishmentService, permissionService, identityCacheService, commandExecutor));
 
         CommandMeta warnMeta = commandManager.metaBuilder("warn").build();
         commandManager.register(warnMeta, new WarnCommand(proxy, permissionService, punishmentService, discordNotifier, identityCacheService));
@@ -305,7 +338,7 @@ public class GalacticfyCore {
         commandManager.register(ecoMeta, new EcoCommand(proxy, economyService, permissionService));
 
         CommandMeta baltopMeta = commandManager.metaBuilder("baltop").build();
-        commandManager.register(baltopMeta, new BaltopCommand(economyService));
+        commandManager.register(baltopMeta, new BaltopCommand(economyService, commandExecutor));
 
         // ==============================
         // Daily-Reward-Command
@@ -318,13 +351,18 @@ public class GalacticfyCore {
         // ==============================
         // Listener
         // ==============================
+        proxy.getEventManager().register(this, profileLoader); // LoginEvent (EARLY): Profil vorladen
         proxy.getEventManager().register(this, new EconomyListener(economyService));
-        proxy.getEventManager().register(this, new ConnectionProtectionListener(logger, proxy, maintenanceService));
-        proxy.getEventManager().register(this, new GalacticfyMotdProvider(maintenanceService));
+        proxy.getEventManager().register(this, new ConnectionProtectionListener(logger, proxy, maintenanceService, rateLimiter));
+        proxy.getEventManager().register(this, new GalacticfyMotdProvider(maintenanceService, rateLimiter));
         proxy.getEventManager().register(this, new FreezeListener(freezeService));
         proxy.getEventManager().register(this, new MaintenanceListener(maintenanceService, logger, permissionService));
         proxy.getEventManager().register(this, new PermissionsSetupListener(permissionService, logger));
-        proxy.getEventManager().register(this, new TablistPrefixListener(proxy, permissionService, logger));
+        this.tablistListener = new TablistPrefixListener(proxy, permissionService, logger);
+        proxy.getEventManager().register(this, tablistListener);
+
+        // abgelaufene Ränge: nur die Einträge der betroffenen Spieler neu rendern
+        permissionService.setRankExpiryHook(demoted -> tablistListener.refreshPlayers(demoted));
         proxy.getEventManager().register(this, new PunishmentLoginListener(punishmentService, logger, proxy, permissionService));
         proxy.getEventManager().register(this, new ChatFilterListener(chatFilterService));
         proxy.getEventManager().register(this, new ReportJoinNotifyListener(reportService, permissionService));
@@ -334,6 +372,7 @@ public class GalacticfyCore {
 
         // Quest-Stat-Listener (für Fischen, Blöcke, etc.)
         proxy.getEventManager().register(this, new QuestEventListener(questService, QUESTS_STATS_CHANNEL, proxy, logger));
+        proxy.getEventManager().register(this, questGuiMessenger); // GUI-Stand beim Disconnect verwerfen
 
         logger.info("GalacticfyCore: Commands, Listener, Punishment-, Report-, Economy-, Daily- & Questsystem registriert (ohne Community-Quests).");
     }
@@ -345,8 +384,17 @@ public class GalacticfyCore {
         if (autoBroadcastService != null) autoBroadcastService.shutdown();
         if (maintenanceService != null) maintenanceService.shutdown();
         if (discordNotifier != null) discordNotifier.shutdown();
+        if (tablistListener != null) tablistListener.shutdown();
+        if (commandExecutor != null) commandExecutor.shutdown(); // laufende Command-Queries vor dem Pool beenden
+        if (questGuiMessenger != null) questGuiMessenger.shutdown();
+        if (questService != null) questService.shutdown(); // Quest-Progress flushen, solange der Pool noch offen ist
+        if (economyService != null) economyService.shutdown(); // Ledger flushen (Quest-Payouts laufen vorher)
+        if (sessionService != null) sessionService.shutdown(); // offene Sessions schließen + ein Batch-Upsert
+        if (identityCacheService != null) identityCacheService.shutdown(); // ausstehende Identity-Upserts schreiben
+        if (permissionService != null) permissionService.shutdown();
+        if (invalidationBus != null) invalidationBus.shutdown(); // ausstehende Change-Log-Einträge schreiben
+        if (punishmentService != null) punishmentService.shutdown(); // Index-Scheduler (Sweep/Reload) vor dem Pool stoppen
         if (databaseManager != null) databaseManager.shutdown();
-        if (punishmentService != null) punishmentService.shutdown();
 
         logger.info("GalacticfyCore: Shutdown abgeschlossen.");
     }
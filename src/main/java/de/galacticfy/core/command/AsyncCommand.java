@@ -0,0 +1,58 @@
+package de.galacticfy.core.command;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.command.SimpleCommand;
+
+import java.time.Duration;
+
+/**
+ * Basis für Commands, die auf die Datenbank gehen.
+ *
+ * execute() kehrt sofort zurück, die eigentliche Arbeit läuft in
+ * executeAsync() auf dem {@link AsyncCommandExecutor}. Antworten gehen wie
+ * gewohnt über invocation.source().sendMessage(...); nach einem Timeout
+ * werden sie verworfen.
+ */
+public abstract class AsyncCommand implements SimpleCommand {
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    private static final int DEFAULT_MAX_CONCURRENT = 4;
+
+    private final AsyncCommandExecutor executor;
+    private final AsyncCommandExecutor.CommandStats stats;
+    private final long timeoutMs;
+
+    protected AsyncCommand(AsyncCommandExecutor executor, String name) {
+        this(executor, name, DEFAULT_TIMEOUT, DEFAULT_MAX_CONCURRENT);
+    }
+
+    /**
+     * @param executor      gemeinsamer Pool; null = synchron ausführen (z.B. ohne DB)
+     * @param name          Command-Name für Stats/Logs
+     * @param timeout       danach bekommt der Spieler eine Meldung und der Task wird unterbrochen
+     * @param maxConcurrent wie viele Ausführungen dieses Commands gleichzeitig laufen dürfen
+     */
+    protected AsyncCommand(AsyncCommandExecutor executor, String name, Duration timeout, int maxConcurrent) {
+        this.executor = executor;
+        this.stats = executor != null ? executor.register(name, maxConcurrent) : null;
+        this.timeoutMs = Math.max(1L, timeout.toMillis());
+    }
+
+    @Override
+    public final void execute(Invocation invocation) {
+        if (executor == null) {
+            executeAsync(invocation);
+            return;
+        }
+        executor.execute(stats, invocation.source(), timeoutMs,
+                source -> executeAsync(new GuardedInvocation(source, invocation.arguments(), invocation.alias())));
+    }
+
+    private record GuardedInvocation(CommandSource source, String[] arguments, String alias) implements Invocation {
+    }
+
+    /**
+     * Läuft auf einem Worker-Thread – darf blockieren (JDBC).
+     */
+    protected abstract void executeAsync(Invocation invocation);
+}
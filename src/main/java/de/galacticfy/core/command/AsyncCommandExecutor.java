@@ -0,0 +1,318 @@
+package de.galacticfy.core.command;
+
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
+import de.galacticfy.core.database.DatabaseManager;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import org.slf4j.Logger;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Gemeinsamer Worker-Pool für Commands mit DB-Zugriff (siehe {@link AsyncCommand}).
+ *
+ * - Feste Anzahl Threads, abgeleitet von der Hikari-Poolgröße, damit Commands
+ *   nie alle Connections belegen (Write-Behind, Listener brauchen auch welche)
+ * - Begrenzte Queue: ist sie voll, bekommt der Spieler sofort eine Antwort
+ * - Pro Command: Timeout, Parallelitäts-Limit und Latenz-Histogramm
+ * - Timeout gilt auch für die Queries des Tasks (Netzwerk-Timeout der Connection),
+ *   Antworten nach dem Timeout werden verworfen
+ */
+public class AsyncCommandExecutor {
+
+    private static final Component BUSY = Component.text(
+            "§8[§bGalacticfy§8] §cDieser Befehl wird gerade zu oft genutzt. Bitte versuche es gleich nochmal.");
+    private static final Component OVERLOADED = Component.text(
+            "§8[§bGalacticfy§8] §cDer Server ist gerade ausgelastet. Bitte versuche es gleich nochmal.");
+    private static final Component TIMEOUT = Component.text(
+            "§8[§bGalacticfy§8] §cDie Anfrage hat zu lange gedauert und wurde abgebrochen.");
+    private static final Component ERROR = Component.text(
+            "§8[§bGalacticfy§8] §cBeim Ausführen des Befehls ist ein Fehler aufgetreten.");
+
+    // Status eines Auftrags
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int FINISHED = 2;
+    private static final int TIMED_OUT = 3;
+
+    private final Logger logger;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService timeouts;
+    private final Map<String, CommandStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @param dbPoolSize maximale Größe des Hikari-Pools
+     */
+    public AsyncCommandExecutor(Logger logger, int dbPoolSize) {
+        this.logger = logger;
+
+        // höchstens die Hälfte der Connections für Commands
+        int threads = Math.max(2, dbPoolSize / 2);
+        AtomicInteger threadId = new AtomicInteger();
+
+        this.workers = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                r -> {
+                    Thread t = new Thread(r, "GalacticfyCore-Command-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.workers.allowCoreThreadTimeOut(true);
+
+        this.timeouts = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "GalacticfyCore-CommandTimeout");
+            t.setDaemon(true);
+            return t;
+        });
+
+        logger.info("GalacticfyCore: Async-Command-Pool mit {} Threads (DB-Pool: {}).", threads, dbPoolSize);
+    }
+
+    /**
+     * Registriert einen Command (oder liefert die vorhandenen Stats).
+     */
+    public CommandStats register(String name, int maxConcurrent) {
+        return stats.computeIfAbsent(name, n -> new CommandStats(n, maxConcurrent));
+    }
+
+    /**
+     * Führt task im Worker-Pool aus. Antworten schickt der Task selbst an die
+     * übergebene Source; Überlast, Timeout und Fehler meldet der Executor.
+     * Nach einem Timeout schluckt diese Source alle weiteren Nachrichten.
+     */
+    public void execute(CommandStats command, CommandSource source, long timeoutMs, Consumer<CommandSource> task) {
+        if (!command.permits.tryAcquire()) {
+            command.rejected.increment();
+            source.sendMessage(BUSY);
+            return;
+        }
+
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        long queuedAt = System.nanoTime();
+        long deadline = queuedAt + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        CommandSource guarded = guard(source, () -> state.get() == TIMED_OUT);
+
+        Future<?> future;
+        try {
+            future = workers.submit(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) {
+                    return; // schon per Timeout abgebrochen, bevor er dran war
+                }
+                try {
+                    DatabaseManager.runWithDeadline(deadline, () -> task.accept(guarded));
+                } catch (Exception e) {
+                    if (state.get() == TIMED_OUT) {
+                        logger.debug("/{} nach Timeout abgebrochen", command.name, e);
+                    } else {
+                        logger.error("Fehler beim Ausführen von /{}", command.name, e);
+                        guarded.sendMessage(ERROR);
+                    }
+                } finally {
+                    state.compareAndSet(RUNNING, FINISHED);
+                    command.permits.release();
+                    command.record(System.nanoTime() - queuedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            command.permits.release();
+            command.rejected.increment();
+            source.sendMessage(OVERLOADED);
+            return;
+        }
+
+        try {
+            timeouts.schedule(() -> {
+                if (state.compareAndSet(QUEUED, FINISHED)) {
+                    // lag noch in der Queue → Permit hier freigeben
+                    future.cancel(false);
+                    command.permits.release();
+                    command.record(System.nanoTime() - queuedAt);
+                } else if (state.compareAndSet(RUNNING, TIMED_OUT)) {
+                    // späte Antworten des Tasks werden ab jetzt verworfen
+                    future.cancel(true);
+                } else {
+                    return;
+                }
+                command.timeouts.increment();
+                source.sendMessage(TIMEOUT);
+                logger.warn("[Commands] /{} nach {} ms abgebrochen (Timeout).", command.name, timeoutMs);
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // Shutdown läuft
+        }
+    }
+
+    /**
+     * Source, die Nachrichten (Audience) verwirft, sobald suppressed true liefert.
+     * Ein Proxy statt Wrapper-Klasse, damit {@code instanceof Player} in den Commands weiter greift.
+     */
+    private static CommandSource guard(CommandSource source, BooleanSupplier suppressed) {
+        Class<?> type = source instanceof Player ? Player.class : CommandSource.class;
+        return (CommandSource) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (isMessage(method) && suppressed.getAsBoolean()) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(source, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static boolean isMessage(Method method) {
+        return method.getDeclaringClass() == Audience.class && method.getReturnType() == void.class;
+    }
+
+    public Map<String, CommandStats> getStats() {
+        return stats;
+    }
+
+    public String formatMetrics() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("queue=").append(workers.getQueue().size())
+                .append(", aktiv=").append(workers.getActiveCount());
+
+        stats.values().stream()
+                .sorted((a, b) -> a.name.compareToIgnoreCase(b.name))
+                .forEach(s -> sb.append('\n').append(s.format()));
+        return sb.toString();
+    }
+
+    public void shutdown() {
+        timeouts.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =====================================================================
+    // STATS
+    // =====================================================================
+
+    /**
+     * Limit + Zähler + Latenz-Histogramm (Queue-Wartezeit + Ausführung) eines Commands.
+     */
+    public static final class CommandStats {
+
+        // Obergrenzen der Buckets in ms, letzter Bucket = alles darüber
+        private static final long[] BUCKET_BOUNDS_MS = {
+                1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000
+        };
+
+        private final String name;
+        private final Semaphore permits;
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        CommandStats(String name, int maxConcurrent) {
+            this.name = name;
+            this.permits = new Semaphore(Math.max(1, maxConcurrent));
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int i = 0;
+            while (i < BUCKET_BOUNDS_MS.length && ms > BUCKET_BOUNDS_MS[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            count.increment();
+            totalNanos.add(nanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getRejected() {
+            return rejected.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public double getAverageMillis() {
+            long c = count.sum();
+            return c == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / c;
+        }
+
+        /**
+         * @param percentile 0..100
+         * @return Obergrenze des Buckets in ms (-1 = über dem größten Bucket, 0 = keine Daten)
+         */
+        public long getPercentileMillis(double percentile) {
+            long total = 0;
+            long[] snapshot = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                snapshot[i] = buckets[i].sum();
+                total += snapshot[i];
+            }
+            if (total == 0) return 0L;
+
+            long threshold = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= threshold) {
+                    return i < BUCKET_BOUNDS_MS.length ? BUCKET_BOUNDS_MS[i] : -1L;
+                }
+            }
+            return -1L;
+        }
+
+        public String format() {
+            return "/" + name
+                    + " n=" + getCount()
+                    + " avg=" + String.format(Locale.ROOT, "%.1f", getAverageMillis()) + "ms"
+                    + " p50<=" + formatBound(getPercentileMillis(50))
+                    + " p95<=" + formatBound(getPercentileMillis(95))
+                    + " p99<=" + formatBound(getPercentileMillis(99))
+                    + " abgelehnt=" + getRejected()
+                    + " timeouts=" + getTimeouts();
+        }
+
+        private static String formatBound(long ms) {
+            return ms < 0 ? ">" + BUCKET_BOUNDS_MS[BUCKET_BOUNDS_MS.length - 1] + "ms" : ms + "ms";
+        }
+    }
+}
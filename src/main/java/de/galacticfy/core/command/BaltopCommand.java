@@ -1,6 +1,7 @@
 package de.galacticfy.core.command;
 
-import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
 import de.galacticfy.core.service.EconomyService;
 import de.galacticfy.core.service.EconomyService.Account;
 import net.kyori.adventure.text.Component;
@@ -9,11 +10,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.stream.Stream;
 
-public class BaltopCommand implements SimpleCommand {
+public class BaltopCommand extends AsyncCommand {
 
     private final EconomyService economy;
 
-    public BaltopCommand(EconomyService economy) {
+    public BaltopCommand(EconomyService economy, AsyncCommandExecutor executor) {
+        super(executor, "baltop");
         this.economy = economy;
     }
 
@@ -22,10 +24,16 @@ public class BaltopCommand implements SimpleCommand {
     }
 
     @Override
-    public void execute(Invocation invocation) {
+    protected void executeAsync(Invocation invocation) {
         String[] args = invocation.arguments();
         var src = invocation.source();
 
+        // /baltop me → eigener Platz (Galas + Stardust)
+        if (args.length >= 1 && args[0].equalsIgnoreCase("me")) {
+            showOwnRank(src);
+            return;
+        }
+
         boolean stardustMode = false;
         int page = 1;
 
@@ -101,19 +109,51 @@ public class BaltopCommand implements SimpleCommand {
         src.sendMessage(Component.text(" "));
     }
 
+    private void showOwnRank(CommandSource src) {
+        if (!(src instanceof Player player)) {
+            src.sendMessage(prefix().append(Component.text("§cDieser Befehl ist nur für Spieler.")));
+            return;
+        }
+
+        var uuid = player.getUniqueId();
+        int total = economy.getRankedAccountCount();
+        int galasRank = economy.getBalanceRank(uuid);
+        int dustRank = economy.getStardustRank(uuid);
+
+        src.sendMessage(Component.text(" "));
+        src.sendMessage(prefix().append(Component.text("§7Deine Platzierung §8(§b" + total + " §7Spieler§8)")));
+        src.sendMessage(Component.text(" "));
+
+        if (galasRank < 0 && dustRank < 0) {
+            src.sendMessage(Component.text("§7Für dich sind noch keine Kontodaten vorhanden."));
+            src.sendMessage(Component.text(" "));
+            return;
+        }
+
+        src.sendMessage(Component.text(
+                "§eGalas ⛃ §8» §8#§e" + galasRank + " §7mit §e" + economy.getBalance(uuid) + "⛃"
+                        + " §8(§7Seite §b" + ((galasRank - 1) / 10 + 1) + "§8)"
+        ));
+        src.sendMessage(Component.text(
+                "§dStardust ✧ §8» §8#§d" + dustRank + " §7mit §d" + economy.getStardust(uuid) + "✧"
+                        + " §8(§7Seite §b" + ((dustRank - 1) / 10 + 1) + "§8)"
+        ));
+        src.sendMessage(Component.text(" "));
+    }
+
     @Override
     public List<String> suggest(Invocation invocation) {
         String[] args = invocation.arguments();
 
         // /baltop <TAB>
         if (args.length == 0) {
-            return List.of("1", "stardust");
+            return List.of("1", "stardust", "me");
         }
 
         // /baltop <arg1>
         if (args.length == 1) {
             String s = args[0].toLowerCase(Locale.ROOT);
-            return Stream.of("1", "2", "3", "stardust")
+            return Stream.of("1", "2", "3", "stardust", "me")
                     .filter(x -> x.toLowerCase(Locale.ROOT).startsWith(s))
                     .toList();
         }
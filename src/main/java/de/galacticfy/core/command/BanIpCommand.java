@@ -363,10 +363,8 @@ public class BanIpCommand implements SimpleCommand {
             if (n != null && n.toLowerCase(Locale.ROOT).startsWith(prefix)) out.add(n);
         });
 
-        // bekannte Namen aus DB (wie /check)
-        try {
-            out.addAll(punishmentService.findKnownNames(prefix, 25));
-        } catch (Throwable ignored) {}
+        // bekannte Namen (In-Memory-Index, keine DB)
+        out.addAll(punishmentService.findKnownNames(prefix, 25));
 
         // Hinweis: IPs tabben wir bewusst nicht aus DB (zu sensibel + unnötig)
 
@@ -1,7 +1,6 @@
 package de.galacticfy.core.command;
 
 import com.velocitypowered.api.command.CommandSource;
-import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import de.galacticfy.core.permission.GalacticfyPermissionService;
@@ -17,7 +16,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class CheckCommand implements SimpleCommand {
+public class CheckCommand extends AsyncCommand {
 
     private static final String PERM_CHECK = "galacticfy.punish.check";
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
@@ -30,7 +29,9 @@ public class CheckCommand implements SimpleCommand {
     public CheckCommand(ProxyServer proxy,
                         GalacticfyPermissionService perms,
                         PunishmentService punishmentService,
-                        PlayerIdentityCacheService identityCache) {
+                        PlayerIdentityCacheService identityCache,
+                        AsyncCommandExecutor executor) {
+        super(executor, "check");
         this.proxy = proxy;
         this.perms = perms;
         this.punishmentService = punishmentService;
@@ -52,7 +53,7 @@ public class CheckCommand implements SimpleCommand {
     }
 
     @Override
-    public void execute(Invocation invocation) {
+    protected void executeAsync(Invocation invocation) {
         CommandSource src = invocation.source();
         String[] args = invocation.arguments();
 
@@ -1,7 +1,6 @@
 package de.galacticfy.core.command;
 
 import com.velocitypowered.api.command.CommandSource;
-import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import de.galacticfy.core.permission.GalacticfyPermissionService;
@@ -17,7 +16,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class HistoryCommand implements SimpleCommand {
+public class HistoryCommand extends AsyncCommand {
 
     private final ProxyServer proxy;
     private final PunishmentService punishmentService;
@@ -30,7 +29,9 @@ public class HistoryCommand implements SimpleCommand {
     public HistoryCommand(ProxyServer proxy,
                           PunishmentService punishmentService,
                           GalacticfyPermissionService perms,
-                          PlayerIdentityCacheService identityCache) {
+                          PlayerIdentityCacheService identityCache,
+                          AsyncCommandExecutor executor) {
+        super(executor, "history");
         this.proxy = proxy;
         this.punishmentService = punishmentService;
         this.perms = perms;
@@ -52,7 +53,7 @@ public class HistoryCommand implements SimpleCommand {
     }
 
     @Override
-    public void execute(Invocation invocation) {
+    protected void executeAsync(Invocation invocation) {
         CommandSource src = invocation.source();
         String[] args = invocation.arguments();
 
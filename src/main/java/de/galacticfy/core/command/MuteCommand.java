@@ -293,10 +293,8 @@ public class MuteCommand implements SimpleCommand {
             if (n != null && n.toLowerCase(Locale.ROOT).startsWith(prefix)) out.add(n);
         });
 
-        // DB bekannte Namen (wie bei /check)
-        try {
-            out.addAll(punishmentService.findKnownNames(prefix, 30));
-        } catch (Throwable ignored) {}
+        // bekannte Namen (In-Memory-Index, keine DB)
+        out.addAll(punishmentService.findKnownNames(prefix, 30));
 
         return out.stream()
                 .sorted(String.CASE_INSENSITIVE_ORDER)
@@ -3,6 +3,8 @@ package de.galacticfy.core.command;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.ProxyServer;
+import de.galacticfy.core.listener.ConnectionRateLimiter;
+import de.galacticfy.core.permission.GalacticfyPermissionService;
 import net.kyori.adventure.text.Component;
 
 import java.util.List;
@@ -13,9 +15,26 @@ public class ProxyInfoCommand implements SimpleCommand {
     private static final String PERM_PROXYINFO = "galacticfy.core.proxyinfo";
 
     private final ProxyServer proxy;
+    private final AsyncCommandExecutor commandExecutor; // optional, kann null sein
+    private final ConnectionRateLimiter rateLimiter;     // optional, kann null sein
+    private final GalacticfyPermissionService perms;     // optional, kann null sein
 
     public ProxyInfoCommand(ProxyServer proxy) {
+        this(proxy, null, null, null);
+    }
+
+    public ProxyInfoCommand(ProxyServer proxy, AsyncCommandExecutor commandExecutor) {
+        this(proxy, commandExecutor, null, null);
+    }
+
+    public ProxyInfoCommand(ProxyServer proxy,
+                            AsyncCommandExecutor commandExecutor,
+                            ConnectionRateLimiter rateLimiter,
+                            GalacticfyPermissionService perms) {
         this.proxy = proxy;
+        this.commandExecutor = commandExecutor;
+        this.rateLimiter = rateLimiter;
+        this.perms = perms;
     }
 
     private Component prefix() {
@@ -54,6 +73,26 @@ public class ProxyInfoCommand implements SimpleCommand {
             source.sendMessage(Component.text("§8» §7Java-Version: §b" + System.getProperty("java.version")));
             source.sendMessage(Component.text("§8» §7OS: §b" + System.getProperty("os.name") +
                     " " + System.getProperty("os.arch")));
+
+            if (commandExecutor != null) {
+                source.sendMessage(Component.text("§8» §7DB-Commands:"));
+                for (String line : commandExecutor.formatMetrics().split("\n")) {
+                    source.sendMessage(Component.text("§8  §7" + line));
+                }
+            }
+
+            if (rateLimiter != null) {
+                source.sendMessage(Component.text("§8» §7Rate-Limit: §b" + rateLimiter.formatMetrics()));
+            }
+
+            if (perms != null) {
+                long hits = perms.getPermissionCacheHits();
+                long misses = perms.getPermissionCacheMisses();
+                long total = hits + misses;
+                String rate = total == 0 ? "-" : String.format(Locale.ROOT, "%.1f%%", hits * 100.0 / total);
+                source.sendMessage(Component.text("§8» §7Permission-Cache: §b" + hits + " §7Treffer, §b"
+                        + misses + " §7Fehlgriffe §8(§b" + rate + "§8)"));
+            }
         }
     }
 
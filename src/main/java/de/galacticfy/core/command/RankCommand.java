@@ -60,9 +60,13 @@ public class RankCommand implements SimpleCommand {
             return;
         }
 
-        // /rank reload
+        // /rank reload [rolle]
         if (first.equals("reload")) {
-            handleReload(src);
+            if (args.length >= 2) {
+                handleReloadRole(src, args[1]);
+            } else {
+                handleReload(src);
+            }
             return;
         }
 
@@ -143,6 +147,26 @@ public class RankCommand implements SimpleCommand {
         src.sendMessage(prefix().append(Component.text("§aRank-System & Tablist wurden neu geladen.")));
     }
 
+    /**
+     * /rank reload <rolle> – nur eine Rolle (inkl. Permissions + Vererbung) neu laden,
+     * betroffene Spieler bekommen ihre Tablist-Einträge über den Rank-Hook neu.
+     */
+    private void handleReloadRole(CommandSource src, String roleName) {
+        if (!perms.hasPluginPermission(src, ADMIN_PERMISSION)) {
+            src.sendMessage(prefix().append(Component.text("§cDazu hast du keine Berechtigung.")));
+            return;
+        }
+
+        var role = perms.getRoleByName(roleName);
+        if (role == null) {
+            src.sendMessage(prefix().append(Component.text("§cGruppe §b" + roleName + " §cexistiert nicht.")));
+            return;
+        }
+
+        perms.reloadRole(role.id);
+        src.sendMessage(prefix().append(Component.text("§aGruppe §b" + role.name + " §awurde neu geladen.")));
+    }
+
     // ============================================================
     // GROUP SUBCOMMANDS
     // ============================================================
@@ -651,7 +675,7 @@ public class RankCommand implements SimpleCommand {
         src.sendMessage(Component.text("§7Verwalte Gruppen, Prefixe und temporäre Ränge."));
         src.sendMessage(Component.text(" "));
         src.sendMessage(Component.text("§8» §b/rank help §7– zeigt alle Befehle"));
-        src.sendMessage(Component.text("§8» §b/rank reload §7– lädt Rollen & Permissions neu"));
+        src.sendMessage(Component.text("§8» §b/rank reload [gruppe] §7– lädt Rollen & Permissions neu"));
         src.sendMessage(Component.text(" "));
         src.sendMessage(Component.text("§8§m────────────────────────────────"));
         src.sendMessage(Component.text(" "));
@@ -687,6 +711,7 @@ public class RankCommand implements SimpleCommand {
         src.sendMessage(Component.text("§bAllgemein"));
         src.sendMessage(Component.text("§8» §b/rank help §7– diese Hilfe"));
         src.sendMessage(Component.text("§8» §b/rank reload §7– Rollen & Permissions neu laden"));
+        src.sendMessage(Component.text("§8» §b/rank reload <gruppe> §7– nur eine Gruppe neu laden"));
         src.sendMessage(Component.text("§8» §b/rank group ... §7– Gruppen verwalten"));
         src.sendMessage(Component.text("§8» §b/rank user ... §7– Spieler-Ränge verwalten (auch temporär)"));
         src.sendMessage(Component.text(" "));
@@ -809,9 +834,16 @@ public class RankCommand implements SimpleCommand {
 
         String first = args[0].toLowerCase(Locale.ROOT);
 
-        // reload hat keine weiteren Argumente
+        // reload [gruppe]
         if (first.equals("reload")) {
-            return List.of();
+            if (args.length != 2) return List.of();
+
+            String second = args[1].toLowerCase(Locale.ROOT);
+            List<String> out = new ArrayList<>();
+            for (String roleName : perms.getAllRoleNames()) {
+                if (roleName.toLowerCase(Locale.ROOT).startsWith(second)) out.add(roleName);
+            }
+            return out;
         }
 
         if (first.equals("group")) {
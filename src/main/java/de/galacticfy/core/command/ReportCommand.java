@@ -562,57 +562,27 @@ public class ReportCommand implements SimpleCommand {
             }
         }
 
-        // 3) Offline via IdentityCache (per Reflection, damit du nicht wieder rot bekommst)
+        // 3) Offline via IdentityCache
         return identityCacheResolveName(input);
     }
 
     // =====================================================================================
-    // REFLECTION: IdentityCache (damit Methodennamen bei dir variieren dürfen)
+    // IdentityCache
     // =====================================================================================
 
     private String identityCacheResolveName(String inputName) {
         if (identityCache == null) return null;
 
-        try {
-            // findUuidByName(String) -> Optional<UUID>
-            Method findUuidByName = identityCache.getClass().getMethod("findUuidByName", String.class);
-            Object optUuid = findUuidByName.invoke(identityCache, inputName);
-
-            if (!(optUuid instanceof Optional<?> optional) || optional.isEmpty()) return null;
-            Object uuidObj = optional.get();
-            if (!(uuidObj instanceof UUID uuid)) return null;
-
-            // findNameByUuid(UUID) -> Optional<String>
-            Method findNameByUuid = identityCache.getClass().getMethod("findNameByUuid", UUID.class);
-            Object optName = findNameByUuid.invoke(identityCache, uuid);
-
-            if (optName instanceof Optional<?> opt && opt.isPresent()) {
-                Object n = opt.get();
-                if (n instanceof String s && !s.isBlank()) return s;
-            }
-        } catch (Throwable ignored) {
-            // Wenn Service anders aufgebaut ist, lassen wir es einfach.
-        }
-
-        return null;
+        return identityCache.findUuidByName(inputName)
+                .flatMap(identityCache::findNameByUuid)
+                .filter(n -> !n.isBlank())
+                .orElse(null);
     }
 
     private List<String> identityCacheKnownNames(String prefix, int limit) {
         if (identityCache == null) return List.of();
-        try {
-            // getKnownNames(String prefix, int limit) -> List<String>
-            Method m = identityCache.getClass().getMethod("getKnownNames", String.class, int.class);
-            Object res = m.invoke(identityCache, prefix, limit);
-            if (res instanceof List<?> list) {
-                List<String> out = new ArrayList<>();
-                for (Object o : list) {
-                    if (o instanceof String s && !s.isBlank()) out.add(s);
-                }
-                return out;
-            }
-        } catch (Throwable ignored) {
-        }
-        return List.of();
+        // In-Memory-Index, keine DB pro Tastendruck
+        return identityCache.getKnownNames(prefix, limit);
     }
 
     // =====================================================================================
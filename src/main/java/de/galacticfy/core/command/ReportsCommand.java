@@ -1,7 +1,6 @@
 package de.galacticfy.core.command;
 
 import com.velocitypowered.api.command.CommandSource;
-import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import de.galacticfy.core.permission.GalacticfyPermissionService;
@@ -16,7 +15,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class ReportsCommand implements SimpleCommand {
+public class ReportsCommand extends AsyncCommand {
 
     private static final String PERM_REPORTS = "galacticfy.report.staff";
     private static final String PERM_REPORTS_ADMIN = "galacticfy.report.admin";
@@ -32,7 +31,9 @@ public class ReportsCommand implements SimpleCommand {
     public ReportsCommand(ProxyServer proxy,
                           GalacticfyPermissionService perms,
                           ReportService reportService,
-                          ServerTeleportService teleportService) {
+                          ServerTeleportService teleportService,
+                          AsyncCommandExecutor executor) {
+        super(executor, "reports");
         this.proxy = proxy;
         this.perms = perms;
         this.reportService = reportService;
@@ -71,7 +72,7 @@ public class ReportsCommand implements SimpleCommand {
     // ============================================================
 
     @Override
-    public void execute(Invocation invocation) {
+    protected void executeAsync(Invocation invocation) {
         CommandSource src = invocation.source();
         String[] args = invocation.arguments();
 
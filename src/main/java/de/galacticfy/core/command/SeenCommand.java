@@ -1,7 +1,6 @@
 package de.galacticfy.core.command;
 
 import com.velocitypowered.api.command.CommandSource;
-import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.Player;
 import de.galacticfy.core.permission.GalacticfyPermissionService;
@@ -17,7 +16,7 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
-public class SeenCommand implements SimpleCommand {
+public class SeenCommand extends AsyncCommand {
 
     private static final String PERM_SEEN = "galacticfy.core.seen";
 
@@ -33,7 +32,9 @@ public class SeenCommand implements SimpleCommand {
     public SeenCommand(ProxyServer proxy,
                        GalacticfyPermissionService perms,
                        SessionService sessions,
-                       PlayerIdentityCacheService identityCache) {
+                       PlayerIdentityCacheService identityCache,
+                       AsyncCommandExecutor executor) {
+        super(executor, "seen");
         this.proxy = proxy;
         this.perms = perms;
         this.sessions = sessions;
@@ -45,7 +46,7 @@ public class SeenCommand implements SimpleCommand {
     }
 
     @Override
-    public void execute(Invocation invocation) {
+    protected void executeAsync(Invocation invocation) {
         CommandSource src = invocation.source();
         String[] args = invocation.arguments();
 
@@ -107,6 +108,9 @@ public class SeenCommand implements SimpleCommand {
         src.sendMessage(Component.text("§8» §7Letzter Logout: §f" + (info.lastLogout() != null ? fmt.format(info.lastLogout()) : "unbekannt")));
         src.sendMessage(Component.text("§8» §7Gesamtspielzeit: §f" + SessionService.formatDuration(info.totalPlaySeconds())));
         src.sendMessage(Component.text("§8» §7Letzter Server: §f" + (info.lastServer() != null ? info.lastServer() : "unbekannt")));
+        if (sessions.isOnline(uuid)) {
+            src.sendMessage(Component.text("§8» §7Aktuelle Session: §a" + SessionService.formatDuration(sessions.getCurrentSessionSeconds(uuid))));
+        }
         src.sendMessage(Component.text(" "));
     }
 
@@ -202,11 +202,11 @@ public class UnbanCommand implements SimpleCommand {
             });
         }
 
-        // 2) Aktiv gebannte Namen (falls Service sowas hat)
-        out.addAll(tryGetActiveBannedNames(prefix, 25));
+        // 2) Aktiv gebannte Namen (In-Memory-Index)
+        out.addAll(punishmentService.findActiveBannedNames(prefix, 25));
 
-        // 3) Fallback: bekannte Namen aus DB (die du schon bei /check nutzt)
-        out.addAll(tryFindKnownNames(prefix, 25));
+        // 3) Bekannte Namen (In-Memory-Index)
+        out.addAll(punishmentService.findKnownNames(prefix, 25));
 
         // Sortiert zurückgeben
         return out.stream()
@@ -215,62 +215,6 @@ public class UnbanCommand implements SimpleCommand {
                 .collect(Collectors.toList());
     }
 
-    private List<String> tryGetActiveBannedNames(String prefix, int limit) {
-        // Wir versuchen verschiedene Methodennamen:
-        // - getActiveBannedNames(prefix, limit)
-        // - getActiveBansNames(prefix, limit)
-        // - getBannedNames(prefix, limit)
-        Object r;
-
-        r = tryCallAny(punishmentService, "getActiveBannedNames",
-                new Class[]{String.class, int.class}, new Object[]{prefix, limit});
-        if (r instanceof List list) return toNameList(list);
-
-        r = tryCallAny(punishmentService, "getActiveBanNames",
-                new Class[]{String.class, int.class}, new Object[]{prefix, limit});
-        if (r instanceof List list) return toNameList(list);
-
-        r = tryCallAny(punishmentService, "getBannedNames",
-                new Class[]{String.class, int.class}, new Object[]{prefix, limit});
-        if (r instanceof List list) return toNameList(list);
-
-        return List.of();
-    }
-
-    private List<String> tryFindKnownNames(String prefix, int limit) {
-        Object r = tryCallAny(punishmentService, "findKnownNames",
-                new Class[]{String.class, int.class}, new Object[]{prefix, limit});
-
-        if (r instanceof List list) return toNameList(list);
-
-        // Optionaler Fallback-Name
-        r = tryCallAny(punishmentService, "getKnownNames",
-                new Class[]{String.class, int.class}, new Object[]{prefix, limit});
-
-        if (r instanceof List list2) return toNameList(list2);
-
-        return List.of();
-    }
-
-    private Object tryCallAny(Object target, String method, Class[] sig, Object[] args) {
-        try {
-            Method m = target.getClass().getMethod(method, sig);
-            return m.invoke(target, args);
-        } catch (Throwable ignored) {
-            return null;
-        }
-    }
-
-    private List<String> toNameList(List list) {
-        ArrayList<String> out = new ArrayList<>();
-        for (Object o : list) {
-            if (o == null) continue;
-            String s = String.valueOf(o);
-            if (!s.isBlank()) out.add(s);
-        }
-        return out;
-    }
-
     @Override
     public boolean hasPermission(Invocation invocation) {
         return hasUnbanPermission(invocation.source());
@@ -179,53 +179,13 @@ public class UnmuteCommand implements SimpleCommand {
             if (n != null && n.toLowerCase(Locale.ROOT).startsWith(prefix)) out.add(n);
         });
 
-        // Versuche: aktive mute namen aus Service (falls vorhanden)
-        out.addAll(tryGetActiveMutedNames(prefix, 25));
-
-        // Fallback: bekannte Namen
-        try {
-            out.addAll(punishmentService.findKnownNames(prefix, 25));
-        } catch (Throwable ignored) {}
+        // aktiv gemutete Namen zuerst, dann bekannte Namen (beides In-Memory)
+        out.addAll(punishmentService.findActiveMutedNames(prefix, 25));
+        out.addAll(punishmentService.findKnownNames(prefix, 25));
 
         return out.stream()
                 .sorted(String.CASE_INSENSITIVE_ORDER)
                 .limit(40)
                 .collect(Collectors.toList());
     }
-
-    private List<String> tryGetActiveMutedNames(String prefix, int limit) {
-        // mögliche Methodennamen:
-        // getActiveMutedNames(prefix, limit)
-        // getActiveMuteNames(prefix, limit)
-        Object r;
-
-        r = tryCallAny(punishmentService, "getActiveMutedNames",
-                new Class[]{String.class, int.class}, new Object[]{prefix, limit});
-        if (r instanceof List list) return toNameList(list);
-
-        r = tryCallAny(punishmentService, "getActiveMuteNames",
-                new Class[]{String.class, int.class}, new Object[]{prefix, limit});
-        if (r instanceof List list2) return toNameList(list2);
-
-        return List.of();
-    }
-
-    private Object tryCallAny(Object target, String method, Class[] sig, Object[] args) {
-        try {
-            Method m = target.getClass().getMethod(method, sig);
-            return m.invoke(target, args);
-        } catch (Throwable ignored) {
-            return null;
-        }
-    }
-
-    private List<String> toNameList(List list) {
-        ArrayList<String> out = new ArrayList<>();
-        for (Object o : list) {
-            if (o == null) continue;
-            String s = String.valueOf(o);
-            if (!s.isBlank()) out.add(s);
-        }
-        return out;
-    }
 }
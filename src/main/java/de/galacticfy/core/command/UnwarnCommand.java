@@ -237,9 +237,8 @@ public class UnwarnCommand implements SimpleCommand {
             if (n != null && n.toLowerCase(Locale.ROOT).startsWith(prefix)) out.add(n);
         });
 
-        try {
-            out.addAll(punishmentService.findKnownNames(prefix, 25));
-        } catch (Throwable ignored) {}
+        // bekannte Namen (In-Memory-Index, keine DB)
+        out.addAll(punishmentService.findKnownNames(prefix, 25));
 
         return out.stream().sorted(String.CASE_INSENSITIVE_ORDER).limit(40).collect(Collectors.toList());
     }
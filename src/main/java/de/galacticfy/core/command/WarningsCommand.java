@@ -1,7 +1,6 @@
 package de.galacticfy.core.command;
 
 import com.velocitypowered.api.command.CommandSource;
-import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import de.galacticfy.core.permission.GalacticfyPermissionService;
@@ -17,7 +16,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class WarningsCommand implements SimpleCommand {
+public class WarningsCommand extends AsyncCommand {
 
     private static final String PERM_WARNINGS = "galacticfy.punish.warnings";
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
@@ -30,7 +29,9 @@ public class WarningsCommand implements SimpleCommand {
     public WarningsCommand(ProxyServer proxy,
                            PunishmentService punishmentService,
                            GalacticfyPermissionService perms,
-                           PlayerIdentityCacheService identityCache) {
+                           PlayerIdentityCacheService identityCache,
+                           AsyncCommandExecutor executor) {
+        super(executor, "warnings");
         this.proxy = proxy;
         this.punishmentService = punishmentService;
         this.perms = perms;
@@ -50,7 +51,7 @@ public class WarningsCommand implements SimpleCommand {
     }
 
     @Override
-    public void execute(Invocation invocation) {
+    protected void executeAsync(Invocation invocation) {
         CommandSource src = invocation.source();
         String[] args = invocation.arguments();
 
@@ -6,12 +6,22 @@ import org.slf4j.Logger;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * HikariCP + MariaDB Connection-Pool.
  */
 public class DatabaseManager {
 
+    private static final int MAX_POOL_SIZE = 10;
+
+    // Deadline (System.nanoTime) für Queries des aktuellen Threads, gesetzt vom AsyncCommandExecutor
+    private static final ThreadLocal<Long> QUERY_DEADLINE = new ThreadLocal<>();
+    // MariaDB bricht selbst ab, der Executor wird nur formal gebraucht
+    private static final Executor DIRECT = Runnable::run;
+
     private final Logger logger;
     private HikariDataSource dataSource;
 
@@ -28,7 +38,7 @@ public class DatabaseManager {
         cfg.setPassword("bKdHRouvvx0Gds7nEz4XVAh3zp1C2ldH");
 
         cfg.setDriverClassName("org.mariadb.jdbc.Driver");
-        cfg.setMaximumPoolSize(10);
+        cfg.setMaximumPoolSize(MAX_POOL_SIZE);
         cfg.setMinimumIdle(2);
         cfg.setPoolName("GalacticfyCorePool");
 
@@ -40,9 +50,39 @@ public class DatabaseManager {
         logger.info("GalacticfyCore: Database-Pool initialisiert.");
     }
 
+    public int getMaximumPoolSize() {
+        return MAX_POOL_SIZE;
+    }
+
     public Connection getConnection() throws SQLException {
         if (dataSource == null) throw new IllegalStateException("DatabaseManager.init() nicht aufgerufen.");
-        return dataSource.getConnection();
+        Connection con = dataSource.getConnection();
+
+        Long deadline = QUERY_DEADLINE.get();
+        if (deadline != null) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                con.close();
+                throw new SQLTimeoutException("Zeitlimit der Anfrage bereits abgelaufen");
+            }
+            // Socket-Timeout: hängende Queries enden spätestens zur Deadline
+            // (Hikari setzt den Wert bei Rückgabe in den Pool zurück)
+            con.setNetworkTimeout(DIRECT, (int) Math.min(Integer.MAX_VALUE, remainingMs));
+        }
+        return con;
+    }
+
+    /**
+     * Führt task mit einer Deadline für alle Connections aus, die der Thread
+     * währenddessen über {@link #getConnection()} holt.
+     */
+    public static void runWithDeadline(long deadlineNanos, Runnable task) {
+        QUERY_DEADLINE.set(deadlineNanos);
+        try {
+            task.run();
+        } finally {
+            QUERY_DEADLINE.remove();
+        }
     }
 
     public void shutdown() {
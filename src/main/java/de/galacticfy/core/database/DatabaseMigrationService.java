@@ -109,6 +109,49 @@ public class DatabaseMigrationService {
                     ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
                     """);
 
+            // Eine Zeile pro Spieler (Batch-Upsert im SessionService):
+            // alte Doppel-Einträge erst in die älteste Zeile zusammenführen
+            // (Spielzeit summieren), dann löschen, dann Unique-Key auf uuid
+            con.setAutoCommit(false);
+            try {
+                st.executeUpdate("""
+                        UPDATE gf_sessions s
+                        JOIN (
+                            SELECT uuid,
+                                   MIN(id) AS keep_id,
+                                   SUM(total_play_seconds) AS total_play_seconds,
+                                   MIN(first_login) AS first_login,
+                                   MAX(last_login) AS last_login,
+                                   MAX(last_logout) AS last_logout
+                            FROM gf_sessions
+                            GROUP BY uuid
+                            HAVING COUNT(*) > 1
+                        ) agg ON s.id = agg.keep_id
+                        SET s.total_play_seconds = agg.total_play_seconds,
+                            s.first_login = agg.first_login,
+                            s.last_login = agg.last_login,
+                            s.last_logout = agg.last_logout
+                        """);
+                st.executeUpdate("""
+                        DELETE s1 FROM gf_sessions s1
+                        JOIN gf_sessions s2 ON s1.uuid = s2.uuid AND s1.id > s2.id
+                        """);
+                con.commit();
+            } catch (SQLException e) {
+                con.rollback();
+                logger.error("gf_sessions: Fehler beim Zusammenführen doppelter Einträge", e);
+            } finally {
+                con.setAutoCommit(true);
+            }
+
+            try {
+                st.executeUpdate("""
+                        CREATE UNIQUE INDEX IF NOT EXISTS uq_sessions_uuid ON gf_sessions (uuid)
+                        """);
+            } catch (SQLException e) {
+                logger.debug("gf_sessions: Unique-Key 'uq_sessions_uuid' existiert evtl. bereits.", e);
+            }
+
             // ===========================
             // GLOBAL ECONOMY (Galas + Stardust)
             // ===========================
@@ -132,6 +175,22 @@ public class DatabaseMigrationService {
                 logger.debug("gf_economy: Spalte 'stardust' existiert evtl. bereits.", e);
             }
 
+            // ===========================
+            // ECONOMY LEDGER (append-only)
+            // ===========================
+            st.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS gf_economy_ledger (
+                        id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                        uuid CHAR(36) NOT NULL,
+                        currency VARCHAR(16) NOT NULL, -- BALANCE / STARDUST
+                        delta BIGINT NOT NULL,
+                        amount_after BIGINT NULL,
+                        reason VARCHAR(32) NOT NULL,
+                        created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+                        INDEX idx_ledger_uuid_created (uuid, created_at)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+                    """);
+
             // ===========================
             // DAILY REWARDS
             // ===========================
@@ -284,6 +343,20 @@ public class DatabaseMigrationService {
                 logger.debug("gf_reports: Spalte 'handled_at' existiert evtl. bereits.", e);
             }
 
+            // ===========================
+            // CHANGE-LOG (Cache-Invalidierung zwischen Proxies)
+            // ===========================
+            st.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS gf_change_log (
+                        id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        topic VARCHAR(32) NOT NULL,
+                        change_key VARCHAR(128) NOT NULL,
+                        origin CHAR(36) NOT NULL,
+                        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        INDEX idx_change_log_created (created_at)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+                    """);
+
             // ===========================
             // NPCS (für Lobby-/Spigot-Plugin)
             // Gemeinsames Schema für GalacticfyCore + GalacticfyChat
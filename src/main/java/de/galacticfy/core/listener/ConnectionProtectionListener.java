@@ -1,6 +1,8 @@
 package de.galacticfy.core.listener;
 
+import com.velocitypowered.api.event.PostOrder;
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.PreLoginEvent;
 import com.velocitypowered.api.event.player.ServerPreConnectEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
@@ -18,6 +20,7 @@ public class ConnectionProtectionListener {
     private final Logger logger;
     private final ProxyServer proxy;
     private final MaintenanceService maintenanceService;
+    private final ConnectionRateLimiter rateLimiter;
 
     private final Set<String> restrictedServers = Set.of(
             "dev-1",
@@ -25,9 +28,34 @@ public class ConnectionProtectionListener {
     );
 
     public ConnectionProtectionListener(Logger logger, ProxyServer proxy, MaintenanceService maintenanceService) {
+        this(logger, proxy, maintenanceService, null);
+    }
+
+    public ConnectionProtectionListener(Logger logger,
+                                        ProxyServer proxy,
+                                        MaintenanceService maintenanceService,
+                                        ConnectionRateLimiter rateLimiter) {
         this.logger = logger;
         this.proxy = proxy;
         this.maintenanceService = maintenanceService;
+        this.rateLimiter = rateLimiter;
+    }
+
+    // ============================================================
+    // LOGIN-RATE-LIMIT (pro IP + /24) – vor allen anderen Login-Checks
+    // ============================================================
+    @Subscribe(order = PostOrder.FIRST)
+    public void onPreLogin(PreLoginEvent event) {
+        if (rateLimiter == null) return;
+        if (!event.getResult().isAllowed()) return;
+
+        if (!rateLimiter.tryLogin(event.getConnection().getRemoteAddress())) {
+            event.setResult(PreLoginEvent.PreLoginComponentResult.denied(Component.text(
+                    "§cZu viele Verbindungsversuche.\n§7Bitte warte einen Moment und versuche es erneut."
+            )));
+            logger.debug("[RateLimit] Login von {} ({}) gedrosselt.",
+                    event.getUsername(), event.getConnection().getRemoteAddress());
+        }
     }
 
     @Subscribe
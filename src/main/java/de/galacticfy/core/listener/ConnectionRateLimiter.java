@@ -0,0 +1,377 @@
+package de.galacticfy.core.listener;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-Limit für Pings und Logins (pro IP und pro /24-Netz, IPv6: /48).
+ *
+ * - Token-Buckets liegen in festen AtomicLongArrays (Zeitstempel + Tokens in einem long),
+ *   Updates per CAS → keine Locks, keine Allokation pro Anfrage.
+ * - Speicher ist fest: Adressen werden auf Slots gehasht. Kollisionen teilen sich
+ *   einen Bucket (wird höchstens strenger), egal wie viele verschiedene IPs kommen.
+ * - Werden in einer Sekunde zu viele Pings abgelehnt, gilt das Netzwerk für
+ *   attackHoldSeconds als "unter Angriff" → alle Pings bekommen die billige Antwort.
+ */
+public class ConnectionRateLimiter {
+
+    /**
+     * Was abgelehnte Pings (und alle Pings während eines Angriffs) zurückbekommen.
+     */
+    public enum LimitedPingResponse {
+        /** Velocity-Standard-Ping unverändert durchreichen (keine MOTD bauen). */
+        DEFAULT_PING,
+        /** Minimaler statischer Ping ohne Spielerzahlen. */
+        MINIMAL
+    }
+
+    /**
+     * Limits pro Minute + Burst (maximal 4000 Tokens pro Bucket).
+     */
+    public record Settings(
+            int pingsPerMinutePerIp, int pingBurstPerIp,
+            int pingsPerMinutePerSubnet, int pingBurstPerSubnet,
+            int loginsPerMinutePerIp, int loginBurstPerIp,
+            int loginsPerMinutePerSubnet, int loginBurstPerSubnet,
+            int attackThresholdPerSecond, int attackHoldSeconds,
+            LimitedPingResponse limitedPingResponse,
+            int slotsPerTable
+    ) {
+        public static Settings defaults() {
+            return new Settings(
+                    120, 20,
+                    600, 100,
+                    20, 5,
+                    60, 15,
+                    200, 30,
+                    LimitedPingResponse.MINIMAL,
+                    1 << 15
+            );
+        }
+
+        /**
+         * Liest die Limits aus einer Properties-Datei (z.B. ratelimit.properties im
+         * Plugin-Ordner). Fehlt sie, wird sie mit den Standardwerten angelegt;
+         * fehlende oder ungültige Einträge fallen auf den Standardwert zurück.
+         */
+        public static Settings load(Path file, Logger logger) {
+            Settings d = defaults();
+            Properties props = new Properties();
+
+            if (Files.exists(file)) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    props.load(reader);
+                } catch (IOException e) {
+                    logger.error("Fehler beim Lesen von {}, nutze Standard-Limits", file, e);
+                    return d;
+                }
+            } else {
+                try {
+                    Files.createDirectories(file.getParent());
+                    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                        d.toProperties().store(writer, "GalacticfyCore Rate-Limit (pro Minute + Burst, max. 4000 Tokens)");
+                    }
+                } catch (IOException e) {
+                    logger.warn("{} konnte nicht angelegt werden: {}", file, e.toString());
+                }
+                return d;
+            }
+
+            LimitedPingResponse response = d.limitedPingResponse();
+            String responseValue = props.getProperty("limited-ping-response");
+            if (responseValue != null) {
+                try {
+                    response = LimitedPingResponse.valueOf(responseValue.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("{}: ungültige limited-ping-response '{}', nutze {}", file, responseValue, response);
+                }
+            }
+
+            return new Settings(
+                    intProperty(props, "ping.ip.per-minute", d.pingsPerMinutePerIp(), file, logger),
+                    intProperty(props, "ping.ip.burst", d.pingBurstPerIp(), file, logger),
+                    intProperty(props, "ping.subnet.per-minute", d.pingsPerMinutePerSubnet(), file, logger),
+                    intProperty(props, "ping.subnet.burst", d.pingBurstPerSubnet(), file, logger),
+                    intProperty(props, "login.ip.per-minute", d.loginsPerMinutePerIp(), file, logger),
+                    intProperty(props, "login.ip.burst", d.loginBurstPerIp(), file, logger),
+                    intProperty(props, "login.subnet.per-minute", d.loginsPerMinutePerSubnet(), file, logger),
+                    intProperty(props, "login.subnet.burst", d.loginBurstPerSubnet(), file, logger),
+                    intProperty(props, "attack.threshold-per-second", d.attackThresholdPerSecond(), file, logger),
+                    intProperty(props, "attack.hold-seconds", d.attackHoldSeconds(), file, logger),
+                    response,
+                    intProperty(props, "slots-per-table", d.slotsPerTable(), file, logger)
+            );
+        }
+
+        private Properties toProperties() {
+            Properties props = new Properties();
+            props.setProperty("ping.ip.per-minute", String.valueOf(pingsPerMinutePerIp));
+            props.setProperty("ping.ip.burst", String.valueOf(pingBurstPerIp));
+            props.setProperty("ping.subnet.per-minute", String.valueOf(pingsPerMinutePerSubnet));
+            props.setProperty("ping.subnet.burst", String.valueOf(pingBurstPerSubnet));
+            props.setProperty("login.ip.per-minute", String.valueOf(loginsPerMinutePerIp));
+            props.setProperty("login.ip.burst", String.valueOf(loginBurstPerIp));
+            props.setProperty("login.subnet.per-minute", String.valueOf(loginsPerMinutePerSubnet));
+            props.setProperty("login.subnet.burst", String.valueOf(loginBurstPerSubnet));
+            props.setProperty("attack.threshold-per-second", String.valueOf(attackThresholdPerSecond));
+            props.setProperty("attack.hold-seconds", String.valueOf(attackHoldSeconds));
+            props.setProperty("limited-ping-response", limitedPingResponse.name());
+            props.setProperty("slots-per-table", String.valueOf(slotsPerTable));
+            return props;
+        }
+
+        private static int intProperty(Properties props, String key, int fallback, Path file, Logger logger) {
+            String value = props.getProperty(key);
+            if (value == null) return fallback;
+            try {
+                int parsed = Integer.parseInt(value.trim());
+                if (parsed > 0) return parsed;
+            } catch (NumberFormatException ignored) {
+                // unten geloggt
+            }
+            logger.warn("{}: ungültiger Wert '{}' für {}, nutze {}", file, value, key, fallback);
+            return fallback;
+        }
+    }
+
+    // Layout eines Buckets: [ 42 Bit Millis seit start | 22 Bit Milli-Tokens ]
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1000L;
+    private static final long MAX_CAPACITY = TOKEN_MASK / ONE_TOKEN;
+
+    private final Logger logger;
+    private final Settings settings;
+    private final long startNanos = System.nanoTime();
+    private final int seed = ThreadLocalRandom.current().nextInt();
+    private final int slotMask;
+
+    private final Bucket pingIp;
+    private final Bucket pingSubnet;
+    private final Bucket loginIp;
+    private final Bucket loginSubnet;
+
+    // Metriken
+    private final LongAdder pingsAllowed = new LongAdder();
+    private final LongAdder pingsLimited = new LongAdder();
+    private final LongAdder loginsAllowed = new LongAdder();
+    private final LongAdder loginsLimited = new LongAdder();
+    private final LongAdder attacksDetected = new LongAdder();
+
+    // Angriffserkennung: abgelehnte Pings in der aktuellen Sekunde
+    private volatile long limitWindowSecond = -1;
+    private final LongAdder limitedInWindow = new LongAdder();
+    private volatile long attackUntilNanos = 0L;
+
+    public ConnectionRateLimiter(Logger logger, Settings settings) {
+        this.logger = logger;
+        this.settings = settings;
+
+        int slots = Integer.highestOneBit(Math.max(1024, settings.slotsPerTable()));
+        this.slotMask = slots - 1;
+
+        this.pingIp = new Bucket(slots, settings.pingsPerMinutePerIp(), settings.pingBurstPerIp());
+        this.pingSubnet = new Bucket(slots, settings.pingsPerMinutePerSubnet(), settings.pingBurstPerSubnet());
+        this.loginIp = new Bucket(slots, settings.loginsPerMinutePerIp(), settings.loginBurstPerIp());
+        this.loginSubnet = new Bucket(slots, settings.loginsPerMinutePerSubnet(), settings.loginBurstPerSubnet());
+    }
+
+    // =====================================================================
+    // API
+    // =====================================================================
+
+    /**
+     * @return true, wenn der Ping normal beantwortet werden darf
+     */
+    public boolean tryPing(InetSocketAddress address) {
+        InetAddress ip = address != null ? address.getAddress() : null;
+        if (ip == null) return true;
+
+        long now = nowMillis();
+        byte[] raw = ip.getAddress();
+
+        boolean allowed = pingIp.tryAcquire(slot(raw, raw.length), now)
+                && pingSubnet.tryAcquire(slot(raw, subnetLength(raw)), now);
+
+        if (allowed) {
+            pingsAllowed.increment();
+        } else {
+            pingsLimited.increment();
+            recordLimitedPing();
+        }
+        return allowed;
+    }
+
+    /**
+     * @return true, wenn der Login-Versuch weiterlaufen darf
+     */
+    public boolean tryLogin(InetSocketAddress address) {
+        InetAddress ip = address != null ? address.getAddress() : null;
+        if (ip == null) return true;
+
+        long now = nowMillis();
+        byte[] raw = ip.getAddress();
+
+        boolean allowed = loginIp.tryAcquire(slot(raw, raw.length), now)
+                && loginSubnet.tryAcquire(slot(raw, subnetLength(raw)), now);
+
+        if (allowed) {
+            loginsAllowed.increment();
+        } else {
+            loginsLimited.increment();
+        }
+        return allowed;
+    }
+
+    public boolean isUnderAttack() {
+        return System.nanoTime() - attackUntilNanos < 0;
+    }
+
+    public LimitedPingResponse getLimitedPingResponse() {
+        return settings.limitedPingResponse();
+    }
+
+    /** Slots pro Tabelle – fest ab Konstruktion, unabhängig von der Zahl der Quell-IPs. */
+    int slotsPerTable() {
+        return slotMask + 1;
+    }
+
+    // =====================================================================
+    // METRIKEN
+    // =====================================================================
+
+    public long getPingsAllowed() {
+        return pingsAllowed.sum();
+    }
+
+    public long getPingsLimited() {
+        return pingsLimited.sum();
+    }
+
+    public long getLoginsAllowed() {
+        return loginsAllowed.sum();
+    }
+
+    public long getLoginsLimited() {
+        return loginsLimited.sum();
+    }
+
+    public long getAttacksDetected() {
+        return attacksDetected.sum();
+    }
+
+    public String formatMetrics() {
+        return "pings=" + getPingsAllowed() + "/" + getPingsLimited() + " (ok/limit)"
+                + ", logins=" + getLoginsAllowed() + "/" + getLoginsLimited() + " (ok/limit)"
+                + ", attacks=" + getAttacksDetected()
+                + (isUnderAttack() ? " [ANGRIFF]" : "");
+    }
+
+    // =====================================================================
+    // INTERN
+    // =====================================================================
+
+    private void recordLimitedPing() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+        if (second != limitWindowSecond) {
+            // neues Fenster – Race beim Zurücksetzen ist egal (nur Schätzung)
+            limitWindowSecond = second;
+            limitedInWindow.reset();
+        }
+        limitedInWindow.increment();
+
+        if (limitedInWindow.sum() >= settings.attackThresholdPerSecond()) {
+            boolean wasUnderAttack = isUnderAttack();
+            attackUntilNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.attackHoldSeconds());
+            if (!wasUnderAttack) {
+                attacksDetected.increment();
+                logger.warn("[RateLimit] Ping-Flood erkannt, liefere {}s lang nur noch die Minimal-Antwort. {}",
+                        settings.attackHoldSeconds(), formatMetrics());
+            }
+        }
+    }
+
+    private long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /** IPv4 → /24, IPv6 → /48 */
+    private static int subnetLength(byte[] raw) {
+        return raw.length == 4 ? 3 : 6;
+    }
+
+    private int slot(byte[] raw, int length) {
+        int h = seed ^ length;
+        for (int i = 0; i < length; i++) {
+            h = h * 31 + raw[i];
+        }
+        // fmix32 (Murmur3) für gleichmäßige Verteilung auf die Slots
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & slotMask;
+    }
+
+    /**
+     * Tabelle von Token-Buckets mit gleichem Limit.
+     */
+    private static final class Bucket {
+        private final AtomicLongArray slots;
+        private final long capacity;      // Milli-Tokens
+        private final long perMinute;     // Tokens pro Minute
+
+        Bucket(int size, int perMinute, int burst) {
+            this.slots = new AtomicLongArray(size);
+            this.capacity = Math.max(1, Math.min(burst, MAX_CAPACITY)) * ONE_TOKEN;
+            this.perMinute = Math.max(1, perMinute);
+        }
+
+        boolean tryAcquire(int slot, long nowMillis) {
+            while (true) {
+                long current = slots.get(slot);
+
+                long last;
+                long tokens;
+                if (current == 0L) {
+                    // unbenutzter Slot → voller Bucket
+                    last = nowMillis;
+                    tokens = capacity;
+                } else {
+                    last = current >>> TOKEN_BITS;
+                    tokens = current & TOKEN_MASK;
+                }
+
+                long elapsed = Math.max(0L, nowMillis - last);
+                // perMinute Tokens / 60_000ms = perMinute Milli-Tokens / 60ms
+                long refill = elapsed * perMinute / 60L;
+                long available = Math.min(capacity, tokens + refill);
+
+                if (available < ONE_TOKEN) {
+                    return false;
+                }
+
+                long next = (nowMillis << TOKEN_BITS) | (available - ONE_TOKEN);
+                if (next == 0L) next = 1L; // 0 bleibt "unbenutzt"
+                if (slots.compareAndSet(slot, current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package de.galacticfy.core.listener;
 
+import com.velocitypowered.api.event.PostOrder;
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.player.PlayerChooseInitialServerEvent;
 import de.galacticfy.core.service.EconomyService;
 
@@ -16,7 +18,21 @@ public class EconomyListener {
     public void onJoin(PlayerChooseInitialServerEvent e) {
         var p = e.getPlayer();
 
+        // schon vom PlayerProfileLoader (LoginEvent) geladen → keine DB-Abfrage
+        if (economy.getCachedAccount(p.getUniqueId()).isPresent()) {
+            return;
+        }
+
         // Spieleraccount automatisch anlegen (falls nicht vorhanden)
         economy.ensureAccount(p.getUniqueId(), p.getUsername());
+
+        // Account in den Cache laden → Kontostand-Abfragen ohne DB
+        economy.loadAccount(p.getUniqueId(), p.getUsername());
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onDisconnect(DisconnectEvent e) {
+        // Cache räumen, offene Ledger-Einträge schreibt der Ledger-Thread
+        economy.unloadAccount(e.getPlayer().getUniqueId());
     }
 }
@@ -1,7 +1,10 @@
 package de.galacticfy.core.listener;
 
+import com.velocitypowered.api.event.PostOrder;
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.permission.PermissionsSetupEvent;
+import com.velocitypowered.api.event.player.ServerPostConnectEvent;
 import com.velocitypowered.api.permission.PermissionFunction;
 import com.velocitypowered.api.permission.PermissionProvider;
 import com.velocitypowered.api.permission.PermissionSubject;
@@ -9,6 +12,7 @@ import com.velocitypowered.api.permission.Tristate;
 import com.velocitypowered.api.proxy.ConsoleCommandSource;
 import com.velocitypowered.api.proxy.Player;
 import de.galacticfy.core.permission.GalacticfyPermissionService;
+import de.galacticfy.core.permission.PlayerPermissionCache;
 import org.slf4j.Logger;
 
 /**
@@ -17,6 +21,8 @@ import org.slf4j.Logger;
  * Ergebnis:
  *  - Alle hasPermission()-Checks laufen über GalacticfyPermissionService.hasRankPermission(..., serverName)
  *  - server_scope aus gf_role_permissions wird berücksichtigt.
+ *  - Ergebnisse werden pro Spieler + Server gemerkt (PlayerPermissionCache),
+ *    Serverwechsel / Rollen-Änderungen verwerfen das Memo.
  */
 public class PermissionsSetupListener {
 
@@ -39,12 +45,11 @@ public class PermissionsSetupListener {
 
                 // === Spieler → Dein Rank-System inkl. server_scope ===
                 if (s instanceof Player player) {
-                    return permission -> {
-                        // aktueller Servername (oder PROXY)
-                        String currentServerName = player.getCurrentServer()
-                                .map(conn -> conn.getServerInfo().getName())
-                                .orElse("PROXY");
+                    PlayerPermissionCache cache = permissionService.registerPermissionCache(player.getUniqueId());
+                    // Fallback: ursprünglicher Provider (falls du ihn noch benutzen willst)
+                    PermissionFunction original = baseProvider.createFunction(s);
 
+                    return permission -> cache.get(permission, currentServerName -> {
                         boolean allowed = permissionService.hasRankPermission(
                                 player.getUniqueId(),
                                 permission,
@@ -54,11 +59,8 @@ public class PermissionsSetupListener {
                         if (allowed) {
                             return Tristate.TRUE;  // "*" aus DB = ALLES
                         }
-
-                        // Fallback: ursprünglicher Provider (falls du ihn noch benutzen willst)
-                        PermissionFunction original = baseProvider.createFunction(s);
                         return original.getPermissionValue(permission);
-                    };
+                    });
                 }
 
                 // === Konsole → alles erlaubt (PROXY-Kontext) ===
@@ -79,4 +81,21 @@ public class PermissionsSetupListener {
                 subject, subject.getClass().getSimpleName()
         );
     }
+
+    @Subscribe
+    public void onServerPostConnect(ServerPostConnectEvent event) {
+        Player player = event.getPlayer();
+        PlayerPermissionCache cache = permissionService.getPermissionCache(player.getUniqueId());
+        if (cache == null) return;
+
+        String serverName = player.getCurrentServer()
+                .map(conn -> conn.getServerInfo().getName())
+                .orElse("PROXY");
+        cache.switchServer(serverName);
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onDisconnect(DisconnectEvent event) {
+        permissionService.unregisterPermissionCache(event.getPlayer().getUniqueId());
+    }
 }
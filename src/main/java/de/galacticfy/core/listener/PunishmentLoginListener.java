@@ -1,5 +1,6 @@
 package de.galacticfy.core.listener;
 
+import com.velocitypowered.api.event.EventTask;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.LoginEvent;
 import com.velocitypowered.api.event.ResultedEvent;
@@ -41,8 +42,21 @@ public class PunishmentLoginListener {
         return Component.text("§8[§bGalacticfy§8] §r");
     }
 
+    /**
+     * Normalfall: Entscheidung komplett aus dem In-Memory-Index von PunishmentService.
+     * Ist der Index (noch) nicht geladen, läuft der DB-Fallback als async EventTask,
+     * damit der Event-Thread nicht blockiert.
+     */
     @Subscribe
-    public void onLogin(LoginEvent event) {
+    public EventTask onLogin(LoginEvent event) {
+        if (punishmentService.isActiveIndexReady()) {
+            checkLogin(event);
+            return null;
+        }
+        return EventTask.async(() -> checkLogin(event));
+    }
+
+    private void checkLogin(LoginEvent event) {
         // Player-Daten
         Player player = event.getPlayer();
         UUID uuid = player.getUniqueId();
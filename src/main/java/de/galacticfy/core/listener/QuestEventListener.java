@@ -9,6 +9,8 @@ import de.galacticfy.core.service.QuestService;
 import net.kyori.adventure.text.Component;
 import org.slf4j.Logger;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
@@ -16,11 +18,21 @@ import java.util.UUID;
  * Empfängt Stat-Updates vom Spigot-Plugin (galacticfy:queststats)
  * und leitet sie an den QuestService weiter.
  *
- * Payload-Format (UTF-8-String, eine Zeile):
+ * Binär-Format (ab Version 1, mehrere Stats pro Message):
+ *   [version:byte] dann beliebig viele Tupel bis Ende der Message:
+ *   [uuidMost:long][uuidLeast:long][statOrdinal:varint][amount:varlong]
+ *   statOrdinal = QuestService.StatType.ordinal() → neue Stats nur HINTEN anhängen!
+ *
+ * Fallback (alte Backends, UTF-8-String, eine Zeile):
  *   TYPE|UUID|NAME|AMOUNT
  */
 public class QuestEventListener {
 
+    /** Aktuelle Version des Binär-Formats (erstes Byte der Message). */
+    public static final byte BINARY_PROTOCOL_VERSION = 1;
+
+    private static final QuestService.StatType[] STAT_TYPES = QuestService.StatType.values();
+
     private final QuestService questService;
     private final ChannelIdentifier statsChannel;
     private final ProxyServer proxy;
@@ -47,6 +59,81 @@ public class QuestEventListener {
             return;
         }
 
+        // Text-Payloads beginnen immer mit einem Buchstaben, Binär-Frames mit der Version
+        if (data[0] == BINARY_PROTOCOL_VERSION) {
+            handleBinary(data);
+            return;
+        }
+        if (data[0] < 0x20) {
+            logger.warn("[Quests] Unbekannte Protokoll-Version {} in Stat-Message ({} Bytes)", data[0], data.length);
+            return;
+        }
+
+        handleText(data);
+    }
+
+    // =====================================================
+    // BINÄR (v1)
+    // =====================================================
+
+    private void handleBinary(byte[] data) {
+        ByteBuffer buf = ByteBuffer.wrap(data, 1, data.length - 1);
+        int handled = 0;
+
+        try {
+            while (buf.hasRemaining()) {
+                UUID uuid = new UUID(buf.getLong(), buf.getLong());
+                int ordinal = readVarInt(buf);
+                long amount = readVarLong(buf);
+
+                if (ordinal < 0 || ordinal >= STAT_TYPES.length) {
+                    logger.debug("[Quests] Unbekannter Stat-Ordinal {} in Binär-Message", ordinal);
+                    continue;
+                }
+
+                // Name steht nicht im Frame → vom Proxy auflösen
+                String name = proxy.getPlayer(uuid)
+                        .map(Player::getUsername)
+                        .orElse(uuid.toString());
+
+                dispatch(STAT_TYPES[ordinal].name(), uuid, name, amount);
+                handled++;
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            logger.warn("[Quests] Abgeschnittene/ungültige Binär-Stat-Message ({} Bytes, {} Stats verarbeitet)",
+                    data.length, handled);
+        }
+    }
+
+    private static int readVarInt(ByteBuffer buf) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buf.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("VarInt zu lang");
+    }
+
+    private static long readVarLong(ByteBuffer buf) {
+        long value = 0L;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buf.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("VarLong zu lang");
+    }
+
+    // =====================================================
+    // TEXT (Fallback)
+    // =====================================================
+
+    private void handleText(byte[] data) {
         String msg = new String(data, StandardCharsets.UTF_8);
         String[] parts = msg.split("\\|");
         if (parts.length < 4) {
@@ -76,7 +163,14 @@ public class QuestEventListener {
             return;
         }
 
-        // jetzt an den QuestService routen
+        dispatch(type, uuid, name, amount);
+    }
+
+    // =====================================================
+    // ROUTING
+    // =====================================================
+
+    private void dispatch(String type, UUID uuid, String name, long amount) {
         switch (type) {
             case "BREAK" -> questService.handleBlocksBroken(uuid, name, amount, this::sendBar);
             case "STONE" -> questService.handleStoneBroken(uuid, name, amount, this::sendBar);
@@ -3,6 +3,7 @@ package de.galacticfy.core.listener;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
 import com.velocitypowered.api.proxy.Player;
 import de.galacticfy.core.service.PlayerIdentityCacheService;
 import de.galacticfy.core.service.QuestService;
@@ -36,7 +37,7 @@ public class SessionListener {
                 .map(conn -> conn.getServerInfo().getName())
                 .orElse("Unbekannt");
 
-        // DB Session updaten
+        // Session im Speicher starten (DB-Write läuft im Hintergrund)
         sessions.onLogin(p.getUniqueId(), p.getUsername(), serverName);
 
         // Cache updaten (Name<->UUID)
@@ -44,7 +45,16 @@ public class SessionListener {
             identityCache.update(p.getUniqueId(), p.getUsername());
         }
 
-        quests.handleLogin(p.getUniqueId(), p.getUsername(), (uuid, msg) -> sendToPlayer(uuid, msg, p));
+        // Quest-Daten asynchron vorladen, Login-Quest erst danach zählen
+        quests.prefetch(p.getUniqueId())
+                .thenRun(() -> quests.handleLogin(p.getUniqueId(), p.getUsername(),
+                        (uuid, msg) -> sendToPlayer(uuid, msg, p)));
+    }
+
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+        sessions.onServerSwitch(event.getPlayer().getUniqueId(),
+                event.getServer().getServerInfo().getName());
     }
 
     @Subscribe
@@ -52,11 +62,14 @@ public class SessionListener {
         Player p = event.getPlayer();
         UUID uuid = p.getUniqueId();
 
-        // SessionService gibt z.B. gespielte Minuten für diese Session zurück
+        // SessionService gibt die gespielten Minuten dieser Session zurück (lokal berechnet)
         long minutes = sessions.onLogout(uuid);
         if (minutes > 0) {
             quests.handlePlaytime(uuid, p.getUsername(), minutes, (u, msg) -> sendToPlayer(u, msg, p));
         }
+
+        // ausstehenden Quest-Fortschritt sofort schreiben, danach aus dem Cache werfen
+        quests.unloadPlayer(uuid);
     }
 
     private void sendToPlayer(UUID uuid, Component msg, Player player) {
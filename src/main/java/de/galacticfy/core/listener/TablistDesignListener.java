@@ -5,8 +5,8 @@ import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
+import de.galacticfy.core.util.ComponentTemplate;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.slf4j.Logger;
 
 import java.util.Locale;
@@ -22,7 +22,21 @@ public class TablistDesignListener {
 
     private final ProxyServer proxy;
     private final Logger logger;
-    private final MiniMessage mm = MiniMessage.miniMessage();
+    private final int maxSlots = 500;
+
+    // statischer Teil einmal geparst, nur Server / Online-Count werden eingesetzt
+    private static final ComponentTemplate HEADER = ComponentTemplate.of(
+            "<gradient:#00E5FF:#C800FF><bold>✦ Galacticfy Netzwerk ✦</bold></gradient>\n" +
+                    "<gray>Zwischen den Sternen beginnt dein Abenteuer.</gray>\n" +
+                    "<dark_gray>➥ <white><server></white>",
+            "server"
+    );
+    private static final ComponentTemplate FOOTER = ComponentTemplate.of(
+            "<gray>Online:</gray> <aqua><online></aqua><gray>/</gray><aqua><max></aqua>\n" +
+                    "<yellow>Website:</yellow> <aqua>galacticfy.de</aqua>\n" +
+                    "<yellow>Discord:</yellow> <aqua>discord.gg/galacticfy</aqua>",
+            "online", "max"
+    );
 
     public TablistDesignListener(ProxyServer proxy, Logger logger) {
         this.proxy = proxy;
@@ -48,8 +62,7 @@ public class TablistDesignListener {
      * Setzt das Tablist-Design für einen Spieler.
      */
     private void applyTabDesign(Player player) {
-        int online = proxy.getAllPlayers().size();
-        int maxSlots = 500;
+        int online = proxy.getPlayerCount();
 
         String serverName = player.getCurrentServer()
                 .map(conn -> conn.getServerInfo().getName())
@@ -57,17 +70,8 @@ public class TablistDesignListener {
 
         String prettyServer = formatServerName(serverName);
 
-        Component header = mm.deserialize(
-                "<gradient:#00E5FF:#C800FF><bold>✦ Galacticfy Netzwerk ✦</bold></gradient>\n" +
-                        "<gray>Zwischen den Sternen beginnt dein Abenteuer.</gray>\n" +
-                        "<dark_gray>➥ <white>" + prettyServer + "</white>"
-        );
-
-        Component footer = mm.deserialize(
-                "<gray>Online:</gray> <aqua>" + online + "</aqua><gray>/</gray><aqua>" + maxSlots + "</aqua>\n" +
-                        "<yellow>Website:</yellow> <aqua>galacticfy.de</aqua>\n" +
-                        "<yellow>Discord:</yellow> <aqua>discord.gg/galacticfy</aqua>"
-        );
+        Component header = HEADER.render(prettyServer);
+        Component footer = FOOTER.render(String.valueOf(online), String.valueOf(maxSlots));
 
         // NEUE Velocity API
         player.getTabList().setHeaderAndFooter(header, footer);
@@ -10,25 +10,74 @@ import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.player.TabList;
 import com.velocitypowered.api.proxy.player.TabListEntry;
 import de.galacticfy.core.permission.GalacticfyPermissionService;
+import de.galacticfy.core.permission.GalacticfyRole;
+import de.galacticfy.core.util.ComponentTemplate;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.slf4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Tablist:
  *  - Header/Footer Design
  *  - Namen mit Prefix aus GalacticfyPermissionService
  *  - pro Viewer werden nur Spieler vom selben Server angezeigt
+ *
+ * Inkrementell:
+ *  - Events markieren Spieler nur als "dirty", pro Tick (50ms) wird einmal abgearbeitet
+ *  - Index Server → Mitglieder, nur Viewer auf altem/neuem Server bekommen das Delta
+ *  - Anzeigename wird pro Spieler gecacht, bis sich seine Rolle ändert
+ *
+ * Alle Tablist-Änderungen laufen auf dem Tablist-Thread, der Index braucht keine Locks.
  */
 public class TablistPrefixListener {
 
+    private static final long TICK_MS = 50L;
+    // Online, aber noch keinem Server zugewiesen
+    private static final String NO_SERVER = "";
+
     private final ProxyServer proxy;
     private final GalacticfyPermissionService permissionService;
     private final Logger logger;
-    private final MiniMessage mm = MiniMessage.miniMessage();
+
+    // Header/Footer sind statisch → einmal parsen
+    private static final ComponentTemplate HEADER = ComponentTemplate.constant(
+            "<gradient:#00E5FF:#C800FF><bold>✦ Galacticfy Netzwerk ✦</bold></gradient>\n" +
+                    "<gray>Zwischen den Sternen beginnt dein Abenteuer.</gray>\n" +
+                    "\n" +
+                    "\n"
+    );
+    private static final ComponentTemplate FOOTER = ComponentTemplate.constant(
+            "\n" +
+                    "<yellow>Website:</yellow> <aqua>galacticfy.de</aqua>\n" +
+                    "<yellow>Discord:</yellow> <aqua>discord.gg/galacticfy</aqua>\n"
+    );
+
+    private record RenderedName(GalacticfyRole role, Component display) {}
+
+    // nur auf dem Tablist-Thread benutzt
+    private final Map<String, Set<UUID>> membersByServer = new HashMap<>();
+    private final Map<UUID, String> serverByPlayer = new HashMap<>();
+    private final Map<UUID, RenderedName> renderedNames = new HashMap<>();
+
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    // Disconnect gesehen → im nächsten Tick als offline behandeln, auch wenn
+    // der Proxy den Spieler noch kurz in getPlayer() liefert
+    private final Set<UUID> leftPlayers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean tickScheduled = new AtomicBoolean(false);
+    private volatile boolean fullResyncRequested = false;
+
+    private final ScheduledExecutorService tablistExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "GalacticfyCore-Tablist");
+        t.setDaemon(true);
+        return t;
+    });
 
     public TablistPrefixListener(ProxyServer proxy,
                                  GalacticfyPermissionService permissionService,
@@ -39,36 +88,178 @@ public class TablistPrefixListener {
     }
 
     // ============================================================
-    // EVENTS → automatischer Reload
+    // EVENTS → Spieler als dirty markieren
     // ============================================================
 
     @Subscribe(order = PostOrder.LAST)
     public void onPostLogin(PostLoginEvent event) {
         Player player = event.getPlayer();
-        logger.info("[Tablist] PostLogin für {}", player.getUsername());
-        refreshAll();
+        logger.debug("[Tablist] PostLogin für {}", player.getUsername());
+        leftPlayers.remove(player.getUniqueId());
+        markDirty(player.getUniqueId());
     }
 
     @Subscribe(order = PostOrder.LAST)
     public void onServerPostConnect(ServerPostConnectEvent event) {
         Player player = event.getPlayer();
-        logger.info("[Tablist] ServerPostConnect für {}", player.getUsername());
-        refreshAll();
+        logger.debug("[Tablist] ServerPostConnect für {}", player.getUsername());
+        markDirty(player.getUniqueId());
     }
 
     @Subscribe(order = PostOrder.LAST)
     public void onDisconnect(DisconnectEvent event) {
         Player player = event.getPlayer();
-        logger.info("[Tablist] Disconnect von {}", player.getUsername());
-        refreshAll();
+        logger.debug("[Tablist] Disconnect von {}", player.getUsername());
+        leftPlayers.add(player.getUniqueId());
+        markDirty(player.getUniqueId());
     }
 
-    // Kann z.B. auch von /rank reload o.Ä. aufgerufen werden
+    /**
+     * Komplett neu aufbauen (z.B. nach /rank reload).
+     */
     public void refreshAll() {
-        Collection<Player> allPlayers = proxy.getAllPlayers();
+        fullResyncRequested = true;
+        scheduleTick();
+    }
+
+    /**
+     * Nur diese Spieler neu prüfen (Serverwechsel / Rangänderung).
+     */
+    public void refreshPlayers(Collection<UUID> uuids) {
+        if (uuids == null || uuids.isEmpty()) return;
+        dirtyPlayers.addAll(uuids);
+        scheduleTick();
+    }
+
+    public void shutdown() {
+        tablistExecutor.shutdownNow();
+    }
+
+    private void markDirty(UUID uuid) {
+        dirtyPlayers.add(uuid);
+        scheduleTick();
+    }
+
+    private void scheduleTick() {
+        if (tickScheduled.compareAndSet(false, true)) {
+            tablistExecutor.schedule(this::tickSafe, TICK_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void tickSafe() {
+        tickScheduled.set(false);
+        try {
+            tick();
+        } catch (Exception e) {
+            logger.error("Fehler beim Aktualisieren der Tablist", e);
+        }
+    }
+
+    // ============================================================
+    // TICK
+    // ============================================================
+
+    private void tick() {
+        List<UUID> batch = new ArrayList<>(dirtyPlayers);
+        dirtyPlayers.removeAll(batch);
+
+        if (fullResyncRequested) {
+            fullResyncRequested = false;
+            fullResync();
+            return;
+        }
+
+        for (UUID uuid : batch) {
+            applyDelta(uuid);
+        }
+    }
+
+    private void applyDelta(UUID uuid) {
+        Optional<Player> online = leftPlayers.remove(uuid)
+                ? Optional.empty()
+                : proxy.getPlayer(uuid);
+        String oldServer = serverByPlayer.get(uuid);
+
+        // === Offline → aus Index + Tablists der alten Mitspieler entfernen ===
+        if (online.isEmpty()) {
+            if (oldServer != null) {
+                leaveServer(uuid, oldServer);
+                serverByPlayer.remove(uuid);
+            }
+            renderedNames.remove(uuid);
+            return;
+        }
+
+        Player player = online.get();
+        String newServer = serverKey(player);
+
+        // === gleicher Server → nur Anzeigename prüfen ===
+        if (newServer.equals(oldServer)) {
+            RenderedName before = renderedNames.get(uuid);
+            Component display = displayFor(player);
+            if (before != null && before.display().equals(display)) {
+                return;
+            }
+            for (Player viewer : viewersOn(newServer, player)) {
+                upsertEntry(viewer.getTabList(), player, display);
+            }
+            return;
+        }
+
+        // === Serverwechsel / Login ===
+        if (oldServer != null) {
+            leaveServer(uuid, oldServer);
+        }
+        serverByPlayer.put(uuid, newServer);
+        membersByServer.computeIfAbsent(newServer, k -> new HashSet<>()).add(uuid);
+
+        Component display = displayFor(player);
+        for (Player viewer : viewersOn(newServer, player)) {
+            if (!viewer.getUniqueId().equals(uuid)) {
+                upsertEntry(viewer.getTabList(), player, display);
+            }
+        }
+
+        // eigene Tablist einmal komplett auf den neuen Server ausrichten
+        updateForViewer(player);
+    }
 
+    private void leaveServer(UUID uuid, String server) {
+        Set<UUID> members = membersByServer.get(server);
+        if (members == null) return;
+
+        members.remove(uuid);
+        if (members.isEmpty()) {
+            membersByServer.remove(server);
+            return;
+        }
+        if (NO_SERVER.equals(server)) return;
+
+        for (UUID memberId : members) {
+            proxy.getPlayer(memberId).ifPresent(viewer -> viewer.getTabList().removeEntry(uuid));
+        }
+    }
+
+    private void fullResync() {
+        membersByServer.clear();
+        serverByPlayer.clear();
+        renderedNames.clear();
+
+        List<Player> allPlayers = new ArrayList<>();
+        for (Player player : proxy.getAllPlayers()) {
+            if (!leftPlayers.contains(player.getUniqueId())) {
+                allPlayers.add(player);
+            }
+        }
+        leftPlayers.clear();
+
+        for (Player player : allPlayers) {
+            String server = serverKey(player);
+            serverByPlayer.put(player.getUniqueId(), server);
+            membersByServer.computeIfAbsent(server, k -> new HashSet<>()).add(player.getUniqueId());
+        }
         for (Player viewer : allPlayers) {
-            updateForViewer(viewer, allPlayers);
+            updateForViewer(viewer);
         }
     }
 
@@ -76,32 +267,24 @@ public class TablistPrefixListener {
     // pro Viewer Tablist aufbauen
     // ============================================================
 
-    private void updateForViewer(Player viewer, Collection<Player> allPlayers) {
+    private void updateForViewer(Player viewer) {
         updateHeaderFooter(viewer);
 
         TabList tabList = viewer.getTabList();
-        String viewerServer = viewer.getCurrentServer()
-                .map(cs -> cs.getServerInfo().getName())
-                .orElse(null);
+        String viewerServer = serverByPlayer.getOrDefault(viewer.getUniqueId(), NO_SERVER);
 
         // Alle Spieler, die in DIESE Tablist gehören
         Set<UUID> shouldShow = new HashSet<>();
 
-        if (viewerServer != null) {
-            for (Player target : allPlayers) {
-                String targetServer = target.getCurrentServer()
-                        .map(cs -> cs.getServerInfo().getName())
-                        .orElse(null);
-
-                if (viewerServer.equalsIgnoreCase(targetServer)) {
-                    shouldShow.add(target.getUniqueId());
-                    updateEntry(tabList, target);
-                }
+        if (!NO_SERVER.equals(viewerServer)) {
+            for (Player target : viewersOn(viewerServer, null)) {
+                shouldShow.add(target.getUniqueId());
+                upsertEntry(tabList, target, displayFor(target));
             }
         } else {
             // Fallback: Viewer ist noch keinem Server zugewiesen → nur sich selbst anzeigen
             shouldShow.add(viewer.getUniqueId());
-            updateEntry(tabList, viewer);
+            upsertEntry(tabList, viewer, displayFor(viewer));
         }
 
         // Alles entfernen, was NICHT mehr auf demselben Server ist
@@ -113,33 +296,54 @@ public class TablistPrefixListener {
         }
     }
 
+    /**
+     * Online-Spieler auf diesem Server. Ohne Server sieht man nur sich selbst.
+     */
+    private List<Player> viewersOn(String server, Player self) {
+        if (NO_SERVER.equals(server)) {
+            return self != null ? List.of(self) : List.of();
+        }
+
+        Set<UUID> members = membersByServer.get(server);
+        if (members == null || members.isEmpty()) return List.of();
+
+        List<Player> out = new ArrayList<>(members.size());
+        for (UUID memberId : members) {
+            proxy.getPlayer(memberId).ifPresent(out::add);
+        }
+        return out;
+    }
+
+    private String serverKey(Player player) {
+        return player.getCurrentServer()
+                .map(cs -> cs.getServerInfo().getName().toLowerCase(Locale.ROOT))
+                .orElse(NO_SERVER);
+    }
+
     // ============================================================
     // Header / Footer
     // ============================================================
 
     private void updateHeaderFooter(Player viewer) {
-        Component header = mm.deserialize(
-                "<gradient:#00E5FF:#C800FF><bold>✦ Galacticfy Netzwerk ✦</bold></gradient>\n" +
-                        "<gray>Zwischen den Sternen beginnt dein Abenteuer.</gray>\n" +
-                        "\n" +
-                        "\n"
-        );
-
-        Component footer = mm.deserialize(
-                "\n" +
-                        "<yellow>Website:</yellow> <aqua>galacticfy.de</aqua>\n" +
-                        "<yellow>Discord:</yellow> <aqua>discord.gg/galacticfy</aqua>\n"
-        );
-
-        viewer.getTabList().setHeaderAndFooter(header, footer);
+        viewer.getTabList().setHeaderAndFooter(HEADER.render(), FOOTER.render());
     }
 
     // ============================================================
     // Eintrag für einen Ziel-Spieler bauen
     // ============================================================
 
-    private void updateEntry(TabList tabList, Player target) {
+    /**
+     * Gecachter Anzeigename; neu gerendert, sobald getRoleFor eine andere Rolle liefert
+     * (Rangwechsel, Ablauf, Prefix-Änderung oder /rank reload).
+     */
+    private Component displayFor(Player target) {
         UUID uuid = target.getUniqueId();
+        GalacticfyRole role = permissionService.getRoleFor(uuid);
+
+        RenderedName cached = renderedNames.get(uuid);
+        if (cached != null && cached.role() == role) {
+            return cached.display();
+        }
 
         // Prefix aus deinem Rank-System
         Component rankComp = permissionService.getPrefixComponent(target);
@@ -156,7 +360,12 @@ public class TablistPrefixListener {
                 .append(starComp)
                 .append(nameComp);
 
-        tabList.getEntry(uuid).ifPresentOrElse(entry -> {
+        renderedNames.put(uuid, new RenderedName(role, display));
+        return display;
+    }
+
+    private void upsertEntry(TabList tabList, Player target, Component display) {
+        tabList.getEntry(target.getUniqueId()).ifPresentOrElse(entry -> {
             entry.setDisplayName(display);
         }, () -> {
             TabListEntry entry = TabListEntry.builder()
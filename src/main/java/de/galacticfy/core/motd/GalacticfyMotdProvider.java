@@ -3,13 +3,16 @@ package de.galacticfy.core.motd;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyPingEvent;
 import com.velocitypowered.api.proxy.server.ServerPing;
+import de.galacticfy.core.listener.ConnectionRateLimiter;
 import de.galacticfy.core.service.MaintenanceService;
+import de.galacticfy.core.util.ComponentTemplate;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.format.NamedTextColor;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Zentrales MOTD-System für das Galacticfy-Netzwerk.
@@ -17,11 +20,24 @@ import java.util.concurrent.ThreadLocalRandom;
  * - Normale MOTD mit rotierenden Untertiteln
  * - Wartungs-MOTD mit klar sichtbarer Restzeit in Zeile 2
  * - Kein <center>, nur einfache Zeilen
+ * - Templates werden einmal geparst, fertige MOTD wird kurz gemerkt (Ping-Floods)
+ * - Rate-Limit: gedrosselte Pings / Pings unter Angriff bekommen nur eine Minimal-Antwort
  */
 public class GalacticfyMotdProvider {
 
-    private final MiniMessage mm = MiniMessage.miniMessage();
+    // so lange wird eine fertige MOTD für weitere Pings wiederverwendet
+    private static final long MOTD_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Minimal-Antwort für gedrosselte Pings (statisch, kein Parsen)
+    private static final Component LIMITED_DESCRIPTION =
+            Component.text("Galacticfy Netzwerk", NamedTextColor.AQUA);
+
     private final MaintenanceService maintenanceService;
+    private final ConnectionRateLimiter rateLimiter;
+
+    private record CachedMotd(long createdAtNanos, boolean maintenance, int online, int max, Component description) {}
+
+    private volatile CachedMotd cachedMotd;
 
     // Rotierende Subtitel für die normale MOTD (Zeile 2)
     private final List<String> normalSubtitles = List.of(
@@ -39,28 +55,136 @@ public class GalacticfyMotdProvider {
             "<gray><italic>Bitte einen Moment Geduld…</italic></gray>"
     );
 
+    // pro Subtitel ein vorgeparstes Template
+    private final List<ComponentTemplate> normalTemplates;
+    private final List<ComponentTemplate> maintenanceTemplates;
+
     public GalacticfyMotdProvider(MaintenanceService maintenanceService) {
+        this(maintenanceService, null);
+    }
+
+    public GalacticfyMotdProvider(MaintenanceService maintenanceService, ConnectionRateLimiter rateLimiter) {
         this.maintenanceService = maintenanceService;
+        this.rateLimiter = rateLimiter;
+
+        List<ComponentTemplate> normal = new ArrayList<>();
+        for (String subtitle : normalSubtitles) {
+            normal.add(normalTemplate(subtitle));
+        }
+        if (normal.isEmpty()) {
+            normal.add(normalTemplate("<gray><italic>Willkommen im Galacticfy Netzwerk.</italic></gray>"));
+        }
+        this.normalTemplates = List.copyOf(normal);
+
+        List<ComponentTemplate> maintenance = new ArrayList<>();
+        for (String subtitle : maintenanceSubtitles) {
+            maintenance.add(maintenanceTemplate(subtitle));
+        }
+        if (maintenance.isEmpty()) {
+            maintenance.add(maintenanceTemplate("<gray><italic>Wartungsarbeiten laufen…</italic></gray>"));
+        }
+        this.maintenanceTemplates = List.copyOf(maintenance);
+    }
+
+    // WICHTIG (Wartung):
+    // Zeile 1 = Titel
+    // Zeile 2 = Wartung + ZEIT (kurz gehalten, damit alles sichtbar bleibt)
+    // Zeile 3 = optionaler Text
+    // Zeile 4 = betroffene Server (falls Client sie zeigt)
+    private static ComponentTemplate maintenanceTemplate(String subtitle) {
+        return ComponentTemplate.of(
+                "<gradient:#00E5FF:#7A00FF><bold>✦ Galacticfy Netzwerk ✦</bold></gradient>\n" +
+                        "<red><bold>⚠ Wartung</bold></red> <gray>• Online in</gray> <gold><bold><time></bold></gold>\n" +
+                        subtitle + "\n" +
+                        "<gray>🛰 Betroffen:</gray> <aqua><affected></aqua>",
+                "time", "affected"
+        );
+    }
+
+    private static ComponentTemplate normalTemplate(String subtitle) {
+        return ComponentTemplate.of(
+                "<gradient:#00E5FF:#C800FF><bold>✦ Galacticfy Netzwerk ✦</bold></gradient>\n" +
+                        subtitle + "\n" +
+                        "<gray>Online:</gray> <aqua><online></aqua><gray>/</gray><aqua><max></aqua>",
+                "online", "max"
+        );
     }
 
     @Subscribe
     public void onProxyPing(ProxyPingEvent event) {
         ServerPing original = event.getPing();
+
+        if (rateLimiter != null) {
+            boolean allowed = rateLimiter.tryPing(event.getConnection().getRemoteAddress());
+            if (!allowed || rateLimiter.isUnderAttack()) {
+                answerLimited(event, original);
+                return;
+            }
+        }
+
         ServerPing.Builder builder = original.asBuilder();
 
-        if (maintenanceService.isMaintenanceEnabled()) {
-            handleMaintenanceMotd(builder);
+        boolean maintenance = maintenanceService.isMaintenanceEnabled();
+        int online = original.getPlayers().map(p -> p.getOnline()).orElse(0);
+        int max = original.getPlayers().map(p -> p.getMax()).orElse(0);
+
+        builder.description(describe(maintenance, online, max));
+
+        if (maintenance) {
+            // Rechts oben in der Server-Liste
+            builder.version(new ServerPing.Version(
+                    0,
+                    "Wartung ✘"
+            ));
         } else {
-            handleNormalMotd(builder, original);
+            builder.version(new ServerPing.Version(
+                    original.getVersion().getProtocol(),
+                    "Galacticfy • 1.20.x"
+            ));
         }
 
         event.setPing(builder.build());
     }
 
+    private void answerLimited(ProxyPingEvent event, ServerPing original) {
+        if (rateLimiter.getLimitedPingResponse() == ConnectionRateLimiter.LimitedPingResponse.DEFAULT_PING) {
+            // Velocity-Ping unverändert lassen
+            return;
+        }
+        event.setPing(new ServerPing(
+                new ServerPing.Version(original.getVersion().getProtocol(), "Galacticfy"),
+                null,
+                LIMITED_DESCRIPTION,
+                null
+        ));
+    }
+
+    /**
+     * Liefert die gemerkte MOTD, solange sie jünger als die TTL ist und
+     * Modus + Spielerzahlen noch passen.
+     */
+    private Component describe(boolean maintenance, int online, int max) {
+        long now = System.nanoTime();
+        CachedMotd cached = cachedMotd;
+        if (cached != null
+                && now - cached.createdAtNanos() < MOTD_TTL_NANOS
+                && cached.maintenance() == maintenance
+                && (maintenance || (cached.online() == online && cached.max() == max))) {
+            return cached.description();
+        }
+
+        Component description = maintenance
+                ? buildMaintenanceMotd()
+                : buildNormalMotd(online, max);
+
+        cachedMotd = new CachedMotd(now, maintenance, online, max, description);
+        return description;
+    }
+
     // =========================================================
     // WARTUNGS-MOTD – Fokus auf ZEIT in Zeile 2
     // =========================================================
-    private void handleMaintenanceMotd(ServerPing.Builder builder) {
+    private Component buildMaintenanceMotd() {
         // Restzeit, z.B. "2h 31m"
         String time = maintenanceService.getRemainingTimeFormatted();
 
@@ -76,70 +200,21 @@ public class GalacticfyMotdProvider {
         }
 
         // Rotierender Wartungs-Subtitel (Zeile 3, optional sichtbar)
-        String subtitle = pickRandomMaintenanceSubtitle();
-
-        // WICHTIG:
-        // Zeile 1 = Titel
-        // Zeile 2 = Wartung + ZEIT (kurz gehalten, damit alles sichtbar bleibt)
-        // Zeile 3 = optionaler Text
-        // Zeile 4 = betroffene Server (falls Client sie zeigt)
-        Component motd = mm.deserialize(
-                "<gradient:#00E5FF:#7A00FF><bold>✦ Galacticfy Netzwerk ✦</bold></gradient>\n" +
-                        "<red><bold>⚠ Wartung</bold></red> <gray>• Online in</gray> <gold><bold>" + time + "</bold></gold>\n" +
-                        subtitle + "\n" +
-                        "<gray>🛰 Betroffen:</gray> <aqua>" + affectedShort + "</aqua>"
-        );
-
-        builder.description(motd);
-
-        // Rechts oben in der Server-Liste
-        builder.version(new ServerPing.Version(
-                0,
-                "Wartung ✘"
-        ));
+        return pickRandom(maintenanceTemplates).render(time, affectedShort);
     }
 
     // =========================================================
     // NORMALE MOTD
     // =========================================================
-    private void handleNormalMotd(ServerPing.Builder builder, ServerPing original) {
-        String subtitle = pickRandomSubtitle();
-
-        int online = original.getPlayers().map(p -> p.getOnline()).orElse(0);
-        int max = original.getPlayers().map(p -> p.getMax()).orElse(0);
-
-        String playersLine = "<gray>Online:</gray> <aqua>" + online + "</aqua><gray>/</gray><aqua>" + max + "</aqua>";
-
-        Component motd = mm.deserialize(
-                "<gradient:#00E5FF:#C800FF><bold>✦ Galacticfy Netzwerk ✦</bold></gradient>\n" +
-                        subtitle + "\n" +
-                        playersLine
-        );
-
-        builder.description(motd);
-
-        builder.version(new ServerPing.Version(
-                original.getVersion().getProtocol(),
-                "Galacticfy • 1.20.x"
-        ));
+    private Component buildNormalMotd(int online, int max) {
+        return pickRandom(normalTemplates).render(String.valueOf(online), String.valueOf(max));
     }
 
     // =========================================================
     // HILFSMETHODEN
     // =========================================================
-    private String pickRandomSubtitle() {
-        if (normalSubtitles.isEmpty()) {
-            return "<gray><italic>Willkommen im Galacticfy Netzwerk.</italic></gray>";
-        }
-        int idx = ThreadLocalRandom.current().nextInt(normalSubtitles.size());
-        return normalSubtitles.get(idx);
-    }
-
-    private String pickRandomMaintenanceSubtitle() {
-        if (maintenanceSubtitles.isEmpty()) {
-            return "<gray><italic>Wartungsarbeiten laufen…</italic></gray>";
-        }
-        int idx = ThreadLocalRandom.current().nextInt(maintenanceSubtitles.size());
-        return maintenanceSubtitles.get(idx);
+    private static ComponentTemplate pickRandom(List<ComponentTemplate> templates) {
+        int idx = ThreadLocalRandom.current().nextInt(templates.size());
+        return templates.get(idx);
     }
 }
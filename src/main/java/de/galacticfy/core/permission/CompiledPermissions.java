@@ -0,0 +1,184 @@
+package de.galacticfy.core.permission;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Vorkompilierte effektive Permissions einer Rolle (inkl. Vererbung).
+ *
+ * Pro Scope (GLOBAL / PROXY / einzelner Server) ein Zeichen-Trie:
+ *  - exact    → Node endet hier ("foo.bar")
+ *  - wildcard → alles mit diesem Präfix ist erlaubt ("foo.*" → Präfix "foo")
+ *
+ * Ein Check läuft einmal über die Zeichen der Node (case-insensitive)
+ * und erzeugt keine Objekte.
+ */
+final class CompiledPermissions {
+
+    static final CompiledPermissions EMPTY = new Builder().build();
+
+    private final Trie global;
+    private final Trie proxy;
+    private final Map<String, Trie> byServer;
+
+    private CompiledPermissions(Trie global, Trie proxy, Map<String, Trie> byServer) {
+        this.global = global;
+        this.proxy = proxy;
+        this.byServer = byServer;
+    }
+
+    /**
+     * @param node          zu prüfende Permission (beliebige Groß-/Kleinschreibung)
+     * @param serverName    aktueller Server (nie null, "PROXY" für Proxy-Kontext)
+     * @param proxyContext  true, wenn PROXY-Scope gilt
+     */
+    boolean matches(String node, String serverName, boolean proxyContext) {
+        if (global.matches(node)) return true;
+        if (proxyContext && proxy.matches(node)) return true;
+
+        Trie server = byServer.get(serverName);
+        return server != null && server.matches(node);
+    }
+
+    // =====================================================================
+    // BUILDER
+    // =====================================================================
+
+    static final class Builder {
+        private final Trie global = new Trie();
+        private final Trie proxy = new Trie();
+        private final Map<String, Trie> byServer = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        /**
+         * @param permission bereits lowercase
+         * @param scope      GLOBAL / PROXY / Servername
+         */
+        Builder add(String permission, String scope) {
+            if (permission == null || permission.isBlank()) return this;
+
+            Trie target;
+            if (scope == null || scope.isBlank() || scope.equalsIgnoreCase("GLOBAL")) {
+                target = global;
+            } else if (scope.equalsIgnoreCase("PROXY")) {
+                target = proxy;
+            } else {
+                target = byServer.computeIfAbsent(scope, k -> new Trie());
+            }
+            target.add(permission);
+            return this;
+        }
+
+        CompiledPermissions build() {
+            global.freeze();
+            proxy.freeze();
+            for (Trie t : byServer.values()) {
+                t.freeze();
+            }
+            return new CompiledPermissions(global, proxy, byServer);
+        }
+    }
+
+    // =====================================================================
+    // TRIE
+    // =====================================================================
+
+    private static final class Trie {
+        private boolean grantAll;
+        private final Node root = new Node();
+
+        void add(String permission) {
+            if (permission.equals("*")) {
+                grantAll = true;
+                return;
+            }
+
+            // exakter Treffer (auch "foo.*" selbst zählt wie bisher als exakte Node)
+            root.descend(permission, permission.length()).exact = true;
+
+            if (permission.endsWith(".*") && permission.length() > 2) {
+                root.descend(permission, permission.length() - 2).wildcard = true;
+            }
+        }
+
+        void freeze() {
+            root.freeze();
+        }
+
+        boolean matches(String node) {
+            if (grantAll) return true;
+
+            Node current = root;
+            int len = node.length();
+            for (int i = 0; i < len; i++) {
+                current = current.child(Character.toLowerCase(node.charAt(i)));
+                if (current == null) return false;
+                // Präfix erreicht → alles darunter erlaubt (entspricht startsWith)
+                if (current.wildcard) return true;
+            }
+            return current.exact;
+        }
+    }
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // sortiert, damit child() per Binärsuche läuft
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        boolean exact;
+        boolean wildcard;
+
+        Node descend(String s, int length) {
+            Node current = this;
+            for (int i = 0; i < length; i++) {
+                char c = s.charAt(i);
+                Node next = current.child(c);
+                if (next == null) {
+                    next = current.insertChild(c);
+                }
+                current = next;
+            }
+            return current;
+        }
+
+        Node child(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            return idx >= 0 ? children[idx] : null;
+        }
+
+        private Node insertChild(char c) {
+            int idx = -(Arrays.binarySearch(keys, c) + 1);
+
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, idx);
+            System.arraycopy(children, 0, newChildren, 0, idx);
+            System.arraycopy(keys, idx, newKeys, idx + 1, keys.length - idx);
+            System.arraycopy(children, idx, newChildren, idx + 1, children.length - idx);
+
+            Node created = new Node();
+            newKeys[idx] = c;
+            newChildren[idx] = created;
+            keys = newKeys;
+            children = newChildren;
+            return created;
+        }
+
+        /**
+         * Unterhalb einer Wildcard wird nichts mehr gebraucht – abschneiden,
+         * damit der Trie bei großen Rollen klein bleibt.
+         */
+        void freeze() {
+            if (wildcard) {
+                keys = NO_KEYS;
+                children = NO_CHILDREN;
+                return;
+            }
+            for (Node child : children) {
+                child.freeze();
+            }
+        }
+    }
+}
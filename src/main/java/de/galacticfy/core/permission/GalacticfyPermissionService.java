@@ -3,6 +3,7 @@ package de.galacticfy.core.permission;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.Player;
 import de.galacticfy.core.database.DatabaseManager;
+import de.galacticfy.core.sync.InvalidationBus;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
@@ -12,11 +13,20 @@ import java.sql.*;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Eigenes Rollen-/Permission-System:
  *  - MariaDB = Rollen / Branding / Gruppen-Permissions / Inheritance / Expire
  *  - Caching: Rollen, Permissions, User-Rollen
+ *  - Rollen/Permissions/Vererbung als unveränderliches Modell (atomarer Tausch bei Reload)
  *
  * Features:
  *  - Prefix + Suffix
@@ -32,8 +42,17 @@ public class GalacticfyPermissionService {
 
     private final String defaultRoleName = "spieler";
 
-    private final Map<String, GalacticfyRole> roleByName = new ConcurrentHashMap<>();
-    private final Map<Integer, GalacticfyRole> roleById = new ConcurrentHashMap<>();
+    // Rollen + Permissions + Vererbung + kompilierte Tries als ein Stand.
+    // Änderungen bauen einen neuen Stand und tauschen ihn aus (nur unter modelLock).
+    private volatile PermissionModel model = PermissionModel.EMPTY;
+    private final Object modelLock = new Object();
+    // zählt jeden Tausch des Modells (nur unter modelLock) → Reload erkennt parallele Änderungen
+    private long modelVersion = 0L;
+    // so oft versucht der Voll-Reload, ohne Sperre zu laden, bevor er unter modelLock liest
+    private static final int RELOAD_OPTIMISTIC_ATTEMPTS = 3;
+
+    // Spieler-Rollen, die bei /rank reload pro Query neu gelesen werden
+    private static final int USER_ROLE_RELOAD_BATCH = 500;
 
     /**
      * Rollen-Permissions inkl. Server-Scope.
@@ -63,14 +82,174 @@ public class GalacticfyPermissionService {
         }
     }
 
-    // role_id -> Einträge (permission + serverScope)
-    private final Map<Integer, Set<RolePermissionEntry>> permissionsByRoleId = new ConcurrentHashMap<>();
-    private final Map<Integer, Set<Integer>> parentsByRoleId = new ConcurrentHashMap<>();
-    // role_id -> effektive Einträge inkl. Vererbung
-    private final Map<Integer, Set<RolePermissionEntry>> effectivePermissionsCache = new ConcurrentHashMap<>();
+    /**
+     * Unveränderlicher Stand aller Rollen inkl. Permissions, Vererbung und
+     * vorkompilierter Tries (für hasRankPermission). Wird nie verändert:
+     * with…() liefert eine Kopie, die dann als Ganzes getauscht wird.
+     */
+    private static final class PermissionModel {
+
+        static final PermissionModel EMPTY = new PermissionModel(Map.of(), Map.of(), Map.of());
+
+        final Map<Integer, GalacticfyRole> roleById;
+        final Map<String, GalacticfyRole> roleByName;
+        // role_id -> Einträge (permission + serverScope)
+        final Map<Integer, Set<RolePermissionEntry>> permissionsByRoleId;
+        final Map<Integer, Set<Integer>> parentsByRoleId;
+        // role_id -> effektive Permissions inkl. Vererbung, pro Scope als Trie
+        final Map<Integer, CompiledPermissions> compiledByRoleId;
+
+        PermissionModel(Map<Integer, GalacticfyRole> roles,
+                        Map<Integer, Set<RolePermissionEntry>> permissions,
+                        Map<Integer, Set<Integer>> parents) {
+            this(roles, permissions, parents, null);
+        }
+
+        // compiled != null → Tries übernehmen (nur Rollen-Metadaten geändert)
+        private PermissionModel(Map<Integer, GalacticfyRole> roles,
+                                Map<Integer, Set<RolePermissionEntry>> permissions,
+                                Map<Integer, Set<Integer>> parents,
+                                Map<Integer, CompiledPermissions> compiled) {
+            this.roleById = Map.copyOf(roles);
+
+            Map<String, GalacticfyRole> byName = new HashMap<>();
+            for (GalacticfyRole role : roleById.values()) {
+                if (role.name != null) {
+                    byName.put(role.name.toLowerCase(Locale.ROOT), role);
+                }
+            }
+            this.roleByName = Map.copyOf(byName);
+            this.permissionsByRoleId = immutableCopy(permissions);
+            this.parentsByRoleId = immutableCopy(parents);
+            this.compiledByRoleId = compiled != null ? compiled : compileAll();
+        }
+
+        Set<RolePermissionEntry> permissionsOf(int roleId) {
+            return permissionsByRoleId.getOrDefault(roleId, Set.of());
+        }
+
+        Set<Integer> parentsOf(int roleId) {
+            return parentsByRoleId.getOrDefault(roleId, Set.of());
+        }
+
+        CompiledPermissions compiledFor(int roleId) {
+            return compiledByRoleId.getOrDefault(roleId, CompiledPermissions.EMPTY);
+        }
+
+        boolean inheritsFrom(int roleId, int ancestorId) {
+            Deque<Integer> stack = new ArrayDeque<>();
+            Set<Integer> visited = new HashSet<>();
+            stack.push(roleId);
+
+            while (!stack.isEmpty()) {
+                int current = stack.pop();
+                if (current == ancestorId) return true;
+                if (!visited.add(current)) continue;
+
+                for (int parentId : parentsOf(current)) {
+                    stack.push(parentId);
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Rolle hinzufügen/ersetzen, Permissions und Vererbung bleiben.
+         */
+        PermissionModel withRole(GalacticfyRole role) {
+            Map<Integer, GalacticfyRole> roles = new HashMap<>(roleById);
+            GalacticfyRole previous = roles.put(role.id, role);
+            // bekannte Rolle → nur Prefix/Suffix/... neu, die Tries bleiben gültig
+            return new PermissionModel(roles, permissionsByRoleId, parentsByRoleId,
+                    previous != null ? compiledByRoleId : null);
+        }
+
+        /**
+         * Rolle komplett ersetzen (Teil-Reload einer Rolle).
+         */
+        PermissionModel withRole(GalacticfyRole role, Set<RolePermissionEntry> permissions, Set<Integer> parents) {
+            Map<Integer, GalacticfyRole> roles = new HashMap<>(roleById);
+            roles.put(role.id, role);
+            return new PermissionModel(roles,
+                    replaced(permissionsByRoleId, role.id, permissions),
+                    replaced(parentsByRoleId, role.id, parents));
+        }
+
+        PermissionModel withoutRole(int roleId) {
+            Map<Integer, GalacticfyRole> roles = new HashMap<>(roleById);
+            roles.remove(roleId);
+            return new PermissionModel(roles,
+                    replaced(permissionsByRoleId, roleId, null),
+                    replaced(parentsByRoleId, roleId, null));
+        }
+
+        PermissionModel withPermissions(int roleId, Set<RolePermissionEntry> permissions) {
+            return new PermissionModel(roleById, replaced(permissionsByRoleId, roleId, permissions), parentsByRoleId);
+        }
+
+        PermissionModel withParents(int roleId, Set<Integer> parents) {
+            return new PermissionModel(roleById, permissionsByRoleId, replaced(parentsByRoleId, roleId, parents));
+        }
+
+        private Map<Integer, CompiledPermissions> compileAll() {
+            Map<Integer, CompiledPermissions> compiled = new HashMap<>();
+            for (int roleId : roleById.keySet()) {
+                CompiledPermissions.Builder builder = new CompiledPermissions.Builder();
+                for (RolePermissionEntry entry : effectivePermissions(roleId)) {
+                    builder.add(entry.permission, entry.serverScope);
+                }
+                compiled.put(roleId, builder.build());
+            }
+            return Map.copyOf(compiled);
+        }
+
+        private Set<RolePermissionEntry> effectivePermissions(int roleId) {
+            Set<RolePermissionEntry> result = new HashSet<>();
+            Set<Integer> visited = new HashSet<>();
+            Deque<Integer> stack = new ArrayDeque<>();
+            stack.push(roleId);
+
+            while (!stack.isEmpty()) {
+                int current = stack.pop();
+                // Zyklen + Eltern, die es nicht (mehr) gibt, überspringen
+                if (!visited.add(current) || !roleById.containsKey(current)) continue;
+
+                result.addAll(permissionsOf(current));
+                for (int parentId : parentsOf(current)) {
+                    stack.push(parentId);
+                }
+            }
+            return result;
+        }
+
+        private static <T> Map<Integer, Set<T>> replaced(Map<Integer, Set<T>> source, int roleId, Set<T> value) {
+            Map<Integer, Set<T>> copy = new HashMap<>(source);
+            if (value == null || value.isEmpty()) {
+                copy.remove(roleId);
+            } else {
+                copy.put(roleId, value);
+            }
+            return copy;
+        }
+
+        private static <T> Map<Integer, Set<T>> immutableCopy(Map<Integer, Set<T>> source) {
+            Map<Integer, Set<T>> copy = new HashMap<>();
+            source.forEach((roleId, set) -> {
+                if (set != null && !set.isEmpty()) {
+                    copy.put(roleId, Set.copyOf(set));
+                }
+            });
+            return Map.copyOf(copy);
+        }
+    }
 
     private final Map<UUID, CachedUserRole> userRoleCache = new ConcurrentHashMap<>();
 
+    // Online-Spieler → gemerkte hasPermission()-Ergebnisse (PermissionsSetupListener)
+    private final Map<UUID, PlayerPermissionCache> permissionCaches = new ConcurrentHashMap<>();
+    private final LongAdder permissionCacheHits = new LongAdder();
+    private final LongAdder permissionCacheMisses = new LongAdder();
+
     // Cache: User → Rolle + Expire
     private static class CachedUserRole {
         final GalacticfyRole role;
@@ -84,14 +263,68 @@ public class GalacticfyPermissionService {
         }
     }
 
+    // ---------------------------------------------------
+    //  Rank-Expiry: temporäre Ränge nach expires_at sortiert
+    // ---------------------------------------------------
+
+    private static final long RANK_EXPIRY_POLL_MS = 1000L;
+    private static final long RANK_EXPIRY_RESCAN_MINUTES = 10L;
+
+    private static final class RankExpiry implements Delayed {
+        final UUID uuid;
+        final long expiresAtMillis;
+
+        RankExpiry(UUID uuid, long expiresAtMillis) {
+            this.uuid = uuid;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            if (o instanceof RankExpiry other) {
+                return Long.compare(expiresAtMillis, other.expiresAtMillis);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private final DelayQueue<RankExpiry> rankExpiryQueue = new DelayQueue<>();
+    // uuid -> bereits eingeplanter Ablauf (verhindert Duplikate in der Queue)
+    private final Map<UUID, Long> scheduledRankExpiries = new ConcurrentHashMap<>();
+    // uuid -> bereits verarbeiteter Ablauf (getRoleFor plant denselben Ablauf nicht erneut ein)
+    private final Map<UUID, Long> processedRankExpiries = new ConcurrentHashMap<>();
+    private volatile Consumer<Set<UUID>> rankExpiryHook;
+
+    // Multi-Proxy: Änderungen melden / von anderen Proxies übernehmen (null = nur lokal)
+    private volatile InvalidationBus invalidationBus;
+
+    private final ScheduledExecutorService rankExpiryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "GalacticfyCore-RankExpiry");
+        t.setDaemon(true);
+        return t;
+    });
+
     public GalacticfyPermissionService(DatabaseManager db, Logger logger) {
         this.db = db;
         this.logger = logger;
 
         ensureDefaultRole();
-        reloadAllRoles();
-        reloadAllRolePermissions();
-        reloadAllInheritance();
+        PermissionModel loaded = loadModel();
+        if (loaded != null) {
+            this.model = loaded;
+        }
+
+        loadPendingRankExpiries();
+        rankExpiryScheduler.scheduleWithFixedDelay(this::processDueRankExpiriesSafe,
+                RANK_EXPIRY_POLL_MS, RANK_EXPIRY_POLL_MS, TimeUnit.MILLISECONDS);
+        // Rescan fängt Ränge ab, die andere Proxies / direkte DB-Edits gesetzt haben
+        rankExpiryScheduler.scheduleWithFixedDelay(this::loadPendingRankExpiries,
+                RANK_EXPIRY_RESCAN_MINUTES, RANK_EXPIRY_RESCAN_MINUTES, TimeUnit.MINUTES);
     }
 
     // ---------------------------------------------------
@@ -160,27 +393,91 @@ public class GalacticfyPermissionService {
         );
     }
 
+    /**
+     * Ändert das Modell: Kopie bauen, dann tauschen. Leser sehen immer entweder
+     * den alten oder den neuen Stand, nie einen halben.
+     */
+    private PermissionModel updateModel(UnaryOperator<PermissionModel> change) {
+        synchronized (modelLock) {
+            PermissionModel next = change.apply(model);
+            model = next;
+            modelVersion++;
+            return next;
+        }
+    }
+
     private void cacheRole(GalacticfyRole role) {
         if (role == null) return;
-        roleByName.put(role.name.toLowerCase(Locale.ROOT), role);
-        roleById.put(role.id, role);
+        updateModel(m -> m.withRole(role));
+        refreshCachedUserRoles(role);
     }
 
-    public void reloadAllRoles() {
-        roleByName.clear();
-        roleById.clear();
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement("SELECT * FROM gf_roles");
-             ResultSet rs = ps.executeQuery()) {
+    /**
+     * Gecachte Spieler-Rollen auf das neue Rollen-Objekt umstellen (Prefix/Suffix).
+     *
+     * @return betroffene Spieler
+     */
+    private Set<UUID> refreshCachedUserRoles(GalacticfyRole role) {
+        Set<UUID> affected = new HashSet<>();
+        for (Map.Entry<UUID, CachedUserRole> entry : userRoleCache.entrySet()) {
+            CachedUserRole cached = entry.getValue();
+            if (cached.role != null && cached.role.id == role.id && cached.role != role) {
+                userRoleCache.replace(entry.getKey(), cached,
+                        new CachedUserRole(role, cached.name, cached.expiresAtMillis));
+                affected.add(entry.getKey());
+            }
+        }
+        return affected;
+    }
 
-            while (rs.next()) {
-                GalacticfyRole role = mapRole(rs);
-                cacheRole(role);
+    /**
+     * Liest Rollen, Permissions und Vererbung über eine Connection in ein neues
+     * Modell (inkl. kompilierter Tries). Das aktive Modell bleibt dabei unberührt.
+     *
+     * @return null bei DB-Fehler
+     */
+    private PermissionModel loadModel() {
+        Map<Integer, GalacticfyRole> roles = new HashMap<>();
+        Map<Integer, Set<RolePermissionEntry>> permissions = new HashMap<>();
+        Map<Integer, Set<Integer>> parents = new HashMap<>();
+
+        try (Connection con = db.getConnection()) {
+            try (PreparedStatement ps = con.prepareStatement("SELECT * FROM gf_roles");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    GalacticfyRole role = mapRole(rs);
+                    roles.put(role.id, role);
+                }
+            }
+
+            try (PreparedStatement ps = con.prepareStatement(
+                    "SELECT role_id, permission, server_scope FROM gf_role_permissions");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String perm = rs.getString("permission");
+                    if (perm == null || perm.isBlank()) continue;
+
+                    permissions
+                            .computeIfAbsent(rs.getInt("role_id"), k -> new HashSet<>())
+                            .add(new RolePermissionEntry(perm.toLowerCase(Locale.ROOT), rs.getString("server_scope")));
+                }
+            }
+
+            try (PreparedStatement ps = con.prepareStatement(
+                    "SELECT role_id, parent_role_id FROM gf_role_inherits");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    parents
+                            .computeIfAbsent(rs.getInt("role_id"), k -> new HashSet<>())
+                            .add(rs.getInt("parent_role_id"));
+                }
             }
         } catch (SQLException e) {
-            logger.error("Fehler beim Laden aller Rollen", e);
+            logger.error("Fehler beim Laden der Rollen, Permissions und Vererbung", e);
+            return null;
         }
-        effectivePermissionsCache.clear();
+
+        return new PermissionModel(roles, permissions, parents);
     }
 
     public String getDefaultRoleName() {
@@ -191,7 +488,7 @@ public class GalacticfyPermissionService {
         if (roleName == null || roleName.isBlank()) return null;
         String key = roleName.toLowerCase(Locale.ROOT);
 
-        GalacticfyRole cached = roleByName.get(key);
+        GalacticfyRole cached = model.roleByName.get(key);
         if (cached != null) return cached;
 
         try (Connection con = db.getConnection();
@@ -213,7 +510,7 @@ public class GalacticfyPermissionService {
     }
 
     private GalacticfyRole getRoleById(int id) {
-        GalacticfyRole cached = roleById.get(id);
+        GalacticfyRole cached = model.roleById.get(id);
         if (cached != null) return cached;
 
         try (Connection con = db.getConnection();
@@ -262,7 +559,7 @@ public class GalacticfyPermissionService {
                             id, key, displayName, colorHex, prefix, suffix, staff, maintenanceBypass, joinPriority
                     );
                     cacheRole(role);
-                    effectivePermissionsCache.clear();
+                    publishRoleChange(id);
                 }
             }
             return true;
@@ -283,11 +580,9 @@ public class GalacticfyPermissionService {
             ps.setInt(1, role.id);
             boolean ok = ps.executeUpdate() > 0;
             if (ok) {
-                roleByName.remove(role.name.toLowerCase(Locale.ROOT));
-                roleById.remove(role.id);
-                permissionsByRoleId.remove(role.id);
-                parentsByRoleId.remove(role.id);
-                effectivePermissionsCache.clear();
+                updateModel(m -> m.withoutRole(role.id));
+                invalidateAllPermissionCaches();
+                publishRoleChange(role.id);
             }
             return ok;
         } catch (SQLException e) {
@@ -321,6 +616,7 @@ public class GalacticfyPermissionService {
                     role.joinPriority
             );
             cacheRole(updatedRole);
+            publishRoleChange(role.id);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Aktualisieren des Prefix für Rolle {}", roleName, e);
@@ -353,6 +649,7 @@ public class GalacticfyPermissionService {
                     role.joinPriority
             );
             cacheRole(updatedRole);
+            publishRoleChange(role.id);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Aktualisieren des Suffix für Rolle {}", roleName, e);
@@ -386,22 +683,38 @@ public class GalacticfyPermissionService {
         CachedUserRole cached = userRoleCache.get(uuid);
         if (cached != null) {
             if (cached.expiresAtMillis != null && cached.expiresAtMillis <= now) {
-                logger.info("Rang für {} ist abgelaufen, setze auf Default.", uuid);
-                setRoleToDefault(uuid, cached.name != null ? cached.name : "Unknown");
-                userRoleCache.remove(uuid);
-                return getRoleByName(defaultRoleName);
+                // Abgelaufen → Default liefern, Umstellung in der DB macht der Expiry-Scheduler
+                if (!cached.expiresAtMillis.equals(processedRankExpiries.get(uuid))) {
+                    scheduleRankExpiry(uuid, cached.expiresAtMillis);
+                }
+                return getDefaultRole();
             }
             if (cached.role != null) {
                 return cached.role;
             }
         }
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "SELECT u.name, u.role_id, u.expires_at, r.* " +
-                             "FROM gf_user_roles u JOIN gf_roles r ON u.role_id = r.id " +
-                             "WHERE u.uuid = ?"
-             )) {
+        try (Connection con = db.getConnection()) {
+            return loadRoleFor(con, uuid);
+        } catch (SQLException e) {
+            logger.error("Fehler beim Laden der User-Rolle", e);
+        }
+
+        return getDefaultRole();
+    }
+
+    /**
+     * Lädt die Rolle über eine vorhandene Connection in den Cache
+     * (PlayerProfileLoader beim Login). Danach beantwortet getRoleFor() ohne DB.
+     */
+    public GalacticfyRole loadRoleFor(Connection con, UUID uuid) throws SQLException {
+        long now = System.currentTimeMillis();
+
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT u.name, u.role_id, u.expires_at, r.* " +
+                        "FROM gf_user_roles u JOIN gf_roles r ON u.role_id = r.id " +
+                        "WHERE u.uuid = ?"
+        )) {
             ps.setString(1, uuid.toString());
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -409,24 +722,31 @@ public class GalacticfyPermissionService {
                     Timestamp ts = rs.getTimestamp("expires_at");
                     Long expiresAtMillis = ts != null ? ts.toInstant().toEpochMilli() : null;
 
-                    GalacticfyRole role = mapRole(rs);
+                    // Rollen-Objekt aus dem Modell bevorzugen (kein Neu-Bau des Modells pro Login)
+                    GalacticfyRole role = model.roleById.get(rs.getInt("role_id"));
+                    if (role == null) {
+                        role = mapRole(rs);
+                        cacheRole(role);
+                    }
+                    cacheUserRole(uuid, new CachedUserRole(role, name, expiresAtMillis));
 
                     if (expiresAtMillis != null && expiresAtMillis <= now) {
-                        logger.info("Rang {} für {} ist abgelaufen (DB), setze auf Default.", role.name, uuid);
-                        setRoleToDefault(uuid, name != null ? name : "Unknown");
-                        userRoleCache.remove(uuid);
-                        return getRoleByName(defaultRoleName);
+                        return getDefaultRole();
                     }
-
-                    cacheRole(role);
-                    userRoleCache.put(uuid, new CachedUserRole(role, name, expiresAtMillis));
                     return role;
                 }
             }
-        } catch (SQLException e) {
-            logger.error("Fehler beim Laden der User-Rolle", e);
         }
 
+        // kein Eintrag → Default-Rolle merken, sonst fragt jeder Check erneut die DB
+        GalacticfyRole def = getDefaultRole();
+        if (def != null) {
+            cacheUserRole(uuid, new CachedUserRole(def, null, null));
+        }
+        return def;
+    }
+
+    private GalacticfyRole getDefaultRole() {
         GalacticfyRole def = getRoleByName(defaultRoleName);
         if (def == null) {
             ensureDefaultRole();
@@ -493,7 +813,9 @@ public class GalacticfyPermissionService {
                 }
             }
 
-            userRoleCache.put(uuid, new CachedUserRole(role, name, expiresAtMillis));
+            cacheUserRole(uuid, new CachedUserRole(role, name, expiresAtMillis));
+            invalidatePermissionCache(uuid);
+            publish(InvalidationBus.Topic.USER_ROLE, uuid.toString());
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Setzen der Rolle {} für {}", roleName, uuid, e);
@@ -501,6 +823,26 @@ public class GalacticfyPermissionService {
         }
     }
 
+    private void cacheUserRole(UUID uuid, CachedUserRole cached) {
+        userRoleCache.put(uuid, cached);
+
+        PlayerPermissionCache permCache = permissionCaches.get(uuid);
+        if (permCache != null) {
+            permCache.expireAt(cached.expiresAtMillis);
+        }
+        Long processed = processedRankExpiries.get(uuid);
+        if (processed != null && !processed.equals(cached.expiresAtMillis)) {
+            processedRankExpiries.remove(uuid, processed);
+            processed = null;
+        }
+
+        if (cached.expiresAtMillis == null) {
+            scheduledRankExpiries.remove(uuid);
+        } else if (processed == null) {
+            scheduleRankExpiry(uuid, cached.expiresAtMillis);
+        }
+    }
+
     public boolean setRoleToDefault(UUID uuid, String name) {
         return setRoleFor(uuid, name, defaultRoleName, null);
     }
@@ -546,34 +888,6 @@ public class GalacticfyPermissionService {
     //  Gruppen-Permissions (eigenes System) + Cache
     // ---------------------------------------------------
 
-    public void reloadAllRolePermissions() {
-        permissionsByRoleId.clear();
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "SELECT role_id, permission, server_scope FROM gf_role_permissions"
-             );
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                int roleId = rs.getInt("role_id");
-                String perm = rs.getString("permission");
-                String scope = rs.getString("server_scope");
-
-                if (perm == null || perm.isBlank()) continue;
-                String node = perm.toLowerCase(Locale.ROOT);
-
-                RolePermissionEntry entry = new RolePermissionEntry(node, scope);
-
-                permissionsByRoleId
-                        .computeIfAbsent(roleId, k -> ConcurrentHashMap.newKeySet())
-                        .add(entry);
-            }
-        } catch (SQLException e) {
-            logger.error("Fehler beim Laden der Rollen-Permissions", e);
-        }
-        effectivePermissionsCache.clear();
-    }
-
     // Default: GLOBAL-Scope
     public boolean addPermissionToRole(String roleName, String permission) {
         return addPermissionToRole(roleName, permission, "GLOBAL");
@@ -606,11 +920,15 @@ public class GalacticfyPermissionService {
             ps.setString(3, scope);
             ps.executeUpdate();
 
-            permissionsByRoleId
-                    .computeIfAbsent(role.id, k -> ConcurrentHashMap.newKeySet())
-                    .add(new RolePermissionEntry(node, scope));
+            RolePermissionEntry entry = new RolePermissionEntry(node, scope);
+            updateModel(m -> {
+                Set<RolePermissionEntry> perms = new HashSet<>(m.permissionsOf(role.id));
+                perms.add(entry);
+                return m.withPermissions(role.id, perms);
+            });
 
-            effectivePermissionsCache.clear();
+            invalidatePermissionCachesInheriting(role.id);
+            publishRoleChange(role.id);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Hinzufügen der Permission {} ({}) zu Rolle {}", node, scope, roleName, e);
@@ -638,11 +956,13 @@ public class GalacticfyPermissionService {
             boolean ok = ps.executeUpdate() > 0;
 
             if (ok) {
-                Set<RolePermissionEntry> set = permissionsByRoleId.get(role.id);
-                if (set != null) {
-                    set.removeIf(e -> e.permission.equalsIgnoreCase(node));
-                }
-                effectivePermissionsCache.clear();
+                updateModel(m -> {
+                    Set<RolePermissionEntry> perms = new HashSet<>(m.permissionsOf(role.id));
+                    perms.removeIf(e -> e.permission.equalsIgnoreCase(node));
+                    return m.withPermissions(role.id, perms);
+                });
+                invalidatePermissionCachesInheriting(role.id);
+                publishRoleChange(role.id);
             }
 
             return ok;
@@ -675,8 +995,8 @@ public class GalacticfyPermissionService {
         GalacticfyRole role = getRoleByName(roleName);
         if (role == null) return List.of();
 
-        Set<RolePermissionEntry> set = permissionsByRoleId.get(role.id);
-        if (set == null || set.isEmpty()) return List.of();
+        Set<RolePermissionEntry> set = model.permissionsOf(role.id);
+        if (set.isEmpty()) return List.of();
 
         List<String> list = new ArrayList<>();
         for (RolePermissionEntry e : set) {
@@ -691,27 +1011,6 @@ public class GalacticfyPermissionService {
     //  ROLE-INHERIT (Vererbung)
     // ---------------------------------------------------
 
-    public void reloadAllInheritance() {
-        parentsByRoleId.clear();
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "SELECT role_id, parent_role_id FROM gf_role_inherits"
-             );
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                int roleId = rs.getInt("role_id");
-                int parentId = rs.getInt("parent_role_id");
-                parentsByRoleId
-                        .computeIfAbsent(roleId, k -> ConcurrentHashMap.newKeySet())
-                        .add(parentId);
-            }
-        } catch (SQLException e) {
-            logger.error("Fehler beim Laden der Rollen-Vererbung", e);
-        }
-        effectivePermissionsCache.clear();
-    }
-
     public boolean addInheritedRole(String roleName, String parentRoleName) {
         GalacticfyRole role = getRoleByName(roleName);
         GalacticfyRole parent = getRoleByName(parentRoleName);
@@ -728,11 +1027,14 @@ public class GalacticfyPermissionService {
             ps.setInt(2, parent.id);
             ps.executeUpdate();
 
-            parentsByRoleId
-                    .computeIfAbsent(role.id, k -> ConcurrentHashMap.newKeySet())
-                    .add(parent.id);
+            updateModel(m -> {
+                Set<Integer> parents = new HashSet<>(m.parentsOf(role.id));
+                parents.add(parent.id);
+                return m.withParents(role.id, parents);
+            });
 
-            effectivePermissionsCache.clear();
+            invalidatePermissionCachesInheriting(role.id);
+            publishRoleChange(role.id);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Hinzufügen von Inherit {} -> {}", roleName, parentRoleName, e);
@@ -754,11 +1056,13 @@ public class GalacticfyPermissionService {
             boolean ok = ps.executeUpdate() > 0;
 
             if (ok) {
-                Set<Integer> set = parentsByRoleId.get(role.id);
-                if (set != null) {
-                    set.remove(parent.id);
-                }
-                effectivePermissionsCache.clear();
+                updateModel(m -> {
+                    Set<Integer> parents = new HashSet<>(m.parentsOf(role.id));
+                    parents.remove(parent.id);
+                    return m.withParents(role.id, parents);
+                });
+                invalidatePermissionCachesInheriting(role.id);
+                publishRoleChange(role.id);
             }
 
             return ok;
@@ -772,7 +1076,7 @@ public class GalacticfyPermissionService {
         GalacticfyRole role = getRoleByName(roleName);
         if (role == null) return List.of();
 
-        Set<Integer> parentIds = parentsByRoleId.getOrDefault(role.id, Set.of());
+        Set<Integer> parentIds = model.parentsOf(role.id);
         List<String> list = new ArrayList<>();
 
         for (int parentId : parentIds) {
@@ -785,156 +1089,588 @@ public class GalacticfyPermissionService {
         return list;
     }
 
-    private Set<RolePermissionEntry> computeEffectivePermissions(GalacticfyRole role, Set<Integer> visited) {
-        if (role == null) return Set.of();
-
-        if (!visited.add(role.id)) {
-            return Set.of();
+    /**
+     * Core-Methode: permission pro Server prüfen.
+     *
+     * @param uuid             UUID des Spielers (kann null sein für Konsole)
+     * @param permission       zu prüfende Permission
+     * @param currentServer    z.B. "Citybuild-1", "Lobby-1" oder "PROXY"
+     */
+    public boolean hasRankPermission(UUID uuid, String permission, String currentServer) {
+        if (permission == null || permission.isBlank()) return true;
+        if (uuid == null) {
+            // Konsole etc. → PROXY-Kontext, standardmäßig alles erlaubt
+            return true;
         }
 
-        Set<RolePermissionEntry> result = new HashSet<>();
+        GalacticfyRole role = getRoleFor(uuid);
+        if (role == null) return false;
 
-        Set<RolePermissionEntry> own = permissionsByRoleId.get(role.id);
-        if (own != null) {
-            result.addAll(own);
+        String serverName = (currentServer == null || currentServer.isBlank())
+                ? "PROXY"
+                : currentServer;
+        boolean proxyContext = "PROXY".equalsIgnoreCase(serverName);
+
+        // Scope-Match + "*" / exakt / "foo.*" in einem Trie-Durchlauf
+        return model.compiledFor(role.id).matches(permission, serverName, proxyContext);
+    }
+
+    /**
+     * Bequemer Wrapper für Velocity-Player.
+     */
+    public boolean hasRankPermission(Player player, String permission) {
+        if (player == null) return hasRankPermission((UUID) null, permission, "PROXY");
+        String serverName = player.getCurrentServer()
+                .map(conn -> conn.getServerInfo().getName())
+                .orElse("PROXY");
+        return hasRankPermission(player.getUniqueId(), permission, serverName);
+    }
+
+    /**
+     * Lädt Rollen, Permissions, Inheritance und den User-Cache komplett neu.
+     * Wird z.B. von /rank reload aufgerufen.
+     *
+     * Das neue Modell wird vollständig aufgebaut und erst dann getauscht;
+     * bis dahin prüfen alle Checks gegen den alten Stand (kein leerer Cache,
+     * kein DB-Fallback). Bei einem DB-Fehler bleibt der alte Stand aktiv.
+     *
+     * Ändert sich das Modell während des Ladens (z.B. /rank group set auf einem
+     * anderen Thread), wird neu geladen, statt die Änderung zu überschreiben;
+     * nach RELOAD_OPTIMISTIC_ATTEMPTS Versuchen wird unter modelLock gelesen.
+     */
+    public void reloadAllCaches() {
+        logger.info("GalacticfyPermissionService: Starte /rank reload ...");
+        long started = System.nanoTime();
+
+        ensureDefaultRole();
+
+        PermissionModel loaded = null;
+        for (int attempt = 0; attempt < RELOAD_OPTIMISTIC_ATTEMPTS && loaded == null; attempt++) {
+            long version;
+            synchronized (modelLock) {
+                version = modelVersion;
+            }
+
+            PermissionModel candidate = loadModel();
+            if (candidate == null) {
+                logger.warn("GalacticfyPermissionService: Reload fehlgeschlagen, bisheriger Stand bleibt aktiv.");
+                return;
+            }
+
+            synchronized (modelLock) {
+                if (modelVersion == version) {
+                    model = candidate;
+                    modelVersion++;
+                    loaded = candidate;
+                }
+            }
+            if (loaded == null) {
+                logger.debug("GalacticfyPermissionService: Modell während des Reloads geändert, lade erneut.");
+            }
         }
 
-        Set<Integer> parents = parentsByRoleId.get(role.id);
-        if (parents != null) {
-            for (int parentId : parents) {
-                GalacticfyRole parent = getRoleById(parentId);
-                if (parent == null) continue;
-                result.addAll(computeEffectivePermissions(parent, visited));
+        if (loaded == null) {
+            // ständig parallele Änderungen → einmal unter der Sperre lesen
+            synchronized (modelLock) {
+                loaded = loadModel();
+                if (loaded == null) {
+                    logger.warn("GalacticfyPermissionService: Reload fehlgeschlagen, bisheriger Stand bleibt aktiv.");
+                    return;
+                }
+                model = loaded;
+                modelVersion++;
             }
         }
 
-        return result;
+        reloadCachedUserRoles();
+        invalidateAllPermissionCaches();
+
+        logger.info("GalacticfyPermissionService: Reload abgeschlossen ({} Rollen, {} ms).",
+                loaded.roleById.size(), (System.nanoTime() - started) / 1_000_000L);
     }
 
-    private Set<RolePermissionEntry> getEffectivePermissionsForRole(GalacticfyRole role) {
-        if (role == null) return Set.of();
+    /**
+     * Liest die Rollen aller gecachten Spieler gebündelt neu und ersetzt die
+     * Einträge einzeln – der Cache wird nie geleert.
+     */
+    private void reloadCachedUserRoles() {
+        List<UUID> uuids = new ArrayList<>(userRoleCache.keySet());
+        PermissionModel current = model;
 
-        Set<RolePermissionEntry> cached = effectivePermissionsCache.get(role.id);
-        if (cached != null) return cached;
+        for (int from = 0; from < uuids.size(); from += USER_ROLE_RELOAD_BATCH) {
+            List<UUID> batch = uuids.subList(from, Math.min(from + USER_ROLE_RELOAD_BATCH, uuids.size()));
 
-        Set<RolePermissionEntry> perms = computeEffectivePermissions(role, new HashSet<>());
-        Set<RolePermissionEntry> unmodifiable = Collections.unmodifiableSet(perms);
-        effectivePermissionsCache.put(role.id, unmodifiable);
-        return unmodifiable;
-    }
+            StringJoiner in = new StringJoiner(",", "(", ")");
+            for (int i = 0; i < batch.size(); i++) {
+                in.add("?");
+            }
 
-    private boolean scopeMatches(String entryScope, String currentServerName, boolean proxyContext) {
-        String scope = (entryScope == null || entryScope.isBlank())
-                ? "GLOBAL"
-                : entryScope;
+            Map<UUID, CachedUserRole> loaded = new HashMap<>();
+            Set<UUID> unknownRole = new HashSet<>();
 
-        // GLOBAL → überall
-        if (scope.equalsIgnoreCase("GLOBAL")) {
+            try (Connection con = db.getConnection();
+                 PreparedStatement ps = con.prepareStatement(
+                         "SELECT uuid, name, role_id, expires_at FROM gf_user_roles WHERE uuid IN " + in
+                 )) {
+                for (int i = 0; i < batch.size(); i++) {
+                    ps.setString(i + 1, batch.get(i).toString());
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        UUID uuid = UUID.fromString(rs.getString("uuid"));
+                        GalacticfyRole role = current.roleById.get(rs.getInt("role_id"));
+                        if (role == null) {
+                            unknownRole.add(uuid);
+                            continue;
+                        }
+                        Timestamp ts = rs.getTimestamp("expires_at");
+                        loaded.put(uuid, new CachedUserRole(role, rs.getString("name"),
+                                ts != null ? ts.toInstant().toEpochMilli() : null));
+                    }
+                }
+            } catch (SQLException | IllegalArgumentException e) {
+                logger.error("Fehler beim Neuladen der User-Rollen", e);
+                continue; // alte Einträge bleiben stehen
+            }
+
+            GalacticfyRole def = current.roleByName.get(defaultRoleName);
+            for (UUID uuid : batch) {
+                CachedUserRole fresh = loaded.get(uuid);
+                if (fresh != null) {
+                    cacheUserRole(uuid, fresh);
+                } else if (unknownRole.contains(uuid) || def == null) {
+                    // lädt beim nächsten Zugriff einzeln nach
+                    userRoleCache.remove(uuid);
+                } else {
+                    cacheUserRole(uuid, new CachedUserRole(def, null, null));
+                }
+            }
+        }
+    }
+
+    public boolean hasConsoleOrPluginPerm(CommandSource src, String permission) {
+        if (!(src instanceof Player)) {
             return true;
         }
+        return hasPluginPermission(src, permission);
+    }
+
+    // ---------------------------------------------------
+    //  MULTI-PROXY: Invalidierung über InvalidationBus
+    // ---------------------------------------------------
 
-        // PROXY → nur Proxy-Kontext
-        if (scope.equalsIgnoreCase("PROXY")) {
-            return proxyContext;
+    /**
+     * Meldet Rollen-/User-Änderungen an andere Proxies und lädt deren
+     * Änderungen gezielt nach (eine Rolle bzw. ein Spieler statt /rank reload).
+     */
+    public void setInvalidationBus(InvalidationBus bus) {
+        this.invalidationBus = bus;
+        if (bus == null) return;
+
+        bus.subscribe(InvalidationBus.Topic.ROLE, key -> {
+            try {
+                reloadRole(Integer.parseInt(key));
+            } catch (NumberFormatException e) {
+                logger.warn("Ungültige Rollen-ID '{}' im Change-Log", key);
+            }
+        });
+        bus.subscribe(InvalidationBus.Topic.USER_ROLE, key -> {
+            try {
+                reloadUserRole(UUID.fromString(key));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ungültige UUID '{}' im Change-Log", key);
+            }
+        });
+    }
+
+    private void publish(InvalidationBus.Topic topic, String key) {
+        InvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(topic, key);
         }
+    }
 
-        // Server-spezifisch
-        if (currentServerName == null || currentServerName.isBlank()) {
-            return false;
+    private void publishRoleChange(int roleId) {
+        publish(InvalidationBus.Topic.ROLE, String.valueOf(roleId));
+    }
+
+    /**
+     * Lädt eine Rolle inkl. Permissions und Eltern neu (oder entfernt sie,
+     * wenn sie gelöscht wurde) und verwirft nur die betroffenen Spieler-Caches.
+     * Das Modell wird dabei wie beim Voll-Reload als Ganzes getauscht.
+     */
+    public void reloadRole(int roleId) {
+        GalacticfyRole role = null;
+        Set<RolePermissionEntry> perms = new HashSet<>();
+        Set<Integer> parents = new HashSet<>();
+
+        try (Connection con = db.getConnection()) {
+            try (PreparedStatement ps = con.prepareStatement("SELECT * FROM gf_roles WHERE id = ?")) {
+                ps.setInt(1, roleId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        role = mapRole(rs);
+                    }
+                }
+            }
+
+            if (role != null) {
+                try (PreparedStatement ps = con.prepareStatement(
+                        "SELECT permission, server_scope FROM gf_role_permissions WHERE role_id = ?"
+                )) {
+                    ps.setInt(1, roleId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            String perm = rs.getString("permission");
+                            if (perm == null || perm.isBlank()) continue;
+                            perms.add(new RolePermissionEntry(perm.toLowerCase(Locale.ROOT), rs.getString("server_scope")));
+                        }
+                    }
+                }
+
+                try (PreparedStatement ps = con.prepareStatement(
+                        "SELECT parent_role_id FROM gf_role_inherits WHERE role_id = ?"
+                )) {
+                    ps.setInt(1, roleId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            parents.add(rs.getInt("parent_role_id"));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Fehler beim Nachladen der Rolle mit ID {}", roleId, e);
+            return;
+        }
+
+        if (role == null) {
+            // gelöscht
+            updateModel(m -> m.withoutRole(roleId));
+            invalidateAllPermissionCaches();
+            return;
+        }
+
+        GalacticfyRole reloaded = role;
+        updateModel(m -> m.withRole(reloaded, perms, parents));
+
+        // Spieler mit dieser Rolle bekommen das neue Rollen-Objekt (Prefix/Suffix)
+        Set<UUID> affected = refreshCachedUserRoles(role);
+        invalidatePermissionCachesInheriting(roleId);
+
+        Consumer<Set<UUID>> hook = rankExpiryHook;
+        if (hook != null && !affected.isEmpty()) {
+            hook.accept(affected);
         }
-        return scope.equalsIgnoreCase(currentServerName);
+        logger.debug("GalacticfyPermissionService: Rolle {} ({}) nachgeladen.", role.name, roleId);
     }
 
     /**
-     * Core-Methode: permission pro Server prüfen.
-     *
-     * @param uuid             UUID des Spielers (kann null sein für Konsole)
-     * @param permission       zu prüfende Permission
-     * @param currentServer    z.B. "Citybuild-1", "Lobby-1" oder "PROXY"
+     * Lädt die Rolle eines Online-Spielers neu; bei Offline-Spielern wird der
+     * Eintrag nur verworfen (getRoleFor() lädt ihn beim nächsten Zugriff).
      */
-    public boolean hasRankPermission(UUID uuid, String permission, String currentServer) {
-        if (permission == null || permission.isBlank()) return true;
-        if (uuid == null) {
-            // Konsole etc. → PROXY-Kontext, standardmäßig alles erlaubt
-            return true;
+    public void reloadUserRole(UUID uuid) {
+        if (uuid == null) return;
+
+        // offline → nur verwerfen
+        if (!permissionCaches.containsKey(uuid)) {
+            userRoleCache.remove(uuid);
+            scheduledRankExpiries.remove(uuid);
+            processedRankExpiries.remove(uuid);
+            return;
         }
 
-        GalacticfyRole role = getRoleFor(uuid);
-        if (role == null) return false;
+        // online → direkt neu laden und ersetzen (plant auch einen evtl. Ablauf ein),
+        // Checks lesen bis dahin den alten Eintrag statt in die DB zu gehen
+        scheduledRankExpiries.remove(uuid);
+        try (Connection con = db.getConnection()) {
+            loadRoleFor(con, uuid);
+        } catch (SQLException e) {
+            logger.error("Fehler beim Nachladen der Rolle von {}", uuid, e);
+            userRoleCache.remove(uuid);
+        }
+        invalidatePermissionCache(uuid);
 
-        Set<RolePermissionEntry> permsList = getEffectivePermissionsForRole(role);
-        if (permsList.isEmpty()) return false;
+        Consumer<Set<UUID>> hook = rankExpiryHook;
+        if (hook != null) {
+            hook.accept(Set.of(uuid));
+        }
+    }
 
-        String node = permission.toLowerCase(Locale.ROOT);
-        String serverName = (currentServer == null || currentServer.isBlank())
-                ? "PROXY"
-                : currentServer;
-        boolean proxyContext = "PROXY".equalsIgnoreCase(serverName);
+    // ---------------------------------------------------
+    //  RANK-EXPIRY (Scheduler statt Lazy-Check)
+    // ---------------------------------------------------
+
+    /**
+     * Wird nach jeder Expiry-Runde mit den zurückgestuften UUIDs aufgerufen
+     * (z.B. Tablist neu bauen). Läuft auf dem Expiry-Thread.
+     */
+    public void setRankExpiryHook(Consumer<Set<UUID>> hook) {
+        this.rankExpiryHook = hook;
+    }
 
-        for (RolePermissionEntry entry : permsList) {
-            if (entry.permission == null || entry.permission.isBlank()) continue;
+    private void scheduleRankExpiry(UUID uuid, long expiresAtMillis) {
+        Long previous = scheduledRankExpiries.put(uuid, expiresAtMillis);
+        if (previous != null && previous == expiresAtMillis) {
+            return;
+        }
+        rankExpiryQueue.offer(new RankExpiry(uuid, expiresAtMillis));
+    }
 
-            String p = entry.permission.toLowerCase(Locale.ROOT);
+    /**
+     * Plant alle temporären Ränge aus gf_user_roles ein (Start + periodischer Rescan).
+     */
+    private void loadPendingRankExpiries() {
+        int count = 0;
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement(
+                     "SELECT uuid, expires_at FROM gf_user_roles WHERE expires_at IS NOT NULL"
+             );
+             ResultSet rs = ps.executeQuery()) {
 
-            // Scope-Match?
-            if (!scopeMatches(entry.serverScope, serverName, proxyContext)) {
-                continue;
+            while (rs.next()) {
+                Timestamp ts = rs.getTimestamp("expires_at");
+                if (ts == null) continue;
+                try {
+                    scheduleRankExpiry(UUID.fromString(rs.getString("uuid")), ts.toInstant().toEpochMilli());
+                    count++;
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Ungültige UUID '{}' in gf_user_roles (Rank-Expiry)", rs.getString("uuid"));
+                }
             }
+        } catch (SQLException e) {
+            logger.error("Fehler beim Laden der ablaufenden Ränge", e);
+            return;
+        }
+        logger.debug("GalacticfyPermissionService: {} temporäre Ränge eingeplant.", count);
+    }
 
-            // Wildcard / exakte Permission
-            if (p.equals("*")) return true;
+    private void processDueRankExpiriesSafe() {
+        try {
+            processDueRankExpiries();
+        } catch (Exception e) {
+            logger.error("Fehler beim Verarbeiten abgelaufener Ränge", e);
+        }
+    }
+
+    /**
+     * Alle fälligen Einträge einsammeln und in EINER Transaktion auf Default setzen.
+     * Die WHERE-Bedingung auf expires_at schützt vor Rängen, die inzwischen
+     * verlängert oder dauerhaft gesetzt wurden. Solche Einträge (0 Zeilen) und
+     * Caches, die nicht zum verarbeiteten Ablauf passen, werden neu geladen bzw.
+     * verworfen – sonst bleibt der abgelaufene Cache-Eintrag stehen und wird
+     * jede Sekunde erneut eingeplant.
+     */
+    private void processDueRankExpiries() {
+        List<RankExpiry> due = new ArrayList<>();
+        RankExpiry next;
+        while ((next = rankExpiryQueue.poll()) != null) {
+            // veralteter Eintrag (Rang inzwischen geändert) → überspringen
+            if (scheduledRankExpiries.remove(next.uuid, next.expiresAtMillis)) {
+                processedRankExpiries.put(next.uuid, next.expiresAtMillis);
+                due.add(next);
+            }
+        }
+        if (due.isEmpty()) return;
 
-            if (p.equals(node)) return true;
+        GalacticfyRole def = getDefaultRole();
+        if (def == null) return;
 
-            if (p.endsWith(".*")) {
-                String prefix = p.substring(0, p.length() - 2);
-                if (!prefix.isEmpty() && node.startsWith(prefix)) {
-                    return true;
+        Timestamp now = Timestamp.from(Instant.now());
+        Set<UUID> demoted = new HashSet<>();
+        Set<UUID> stale = new HashSet<>();
+
+        try (Connection con = db.getConnection()) {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(
+                    "UPDATE gf_user_roles SET role_id = ?, expires_at = NULL " +
+                            "WHERE uuid = ? AND expires_at IS NOT NULL AND expires_at <= ?"
+            )) {
+                for (RankExpiry expiry : due) {
+                    ps.setInt(1, def.id);
+                    ps.setString(2, expiry.uuid.toString());
+                    ps.setTimestamp(3, now);
+                    ps.addBatch();
                 }
+
+                int[] counts = ps.executeBatch();
+                con.commit();
+
+                for (int i = 0; i < counts.length && i < due.size(); i++) {
+                    if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                        demoted.add(due.get(i).uuid);
+                    } else {
+                        // Zeile schon geändert (anderer Proxy / Admin) → Cache ist veraltet
+                        stale.add(due.get(i).uuid);
+                    }
+                }
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Fehler beim Zurücksetzen abgelaufener Ränge", e);
+            // nächste Runde erneut versuchen
+            for (RankExpiry expiry : due) {
+                processedRankExpiries.remove(expiry.uuid, expiry.expiresAtMillis);
+                scheduleRankExpiry(expiry.uuid, expiry.expiresAtMillis);
+            }
+            return;
+        }
+
+        Map<UUID, Long> processedAt = new HashMap<>();
+        for (RankExpiry expiry : due) {
+            processedAt.put(expiry.uuid, expiry.expiresAtMillis);
+        }
+
+        for (UUID uuid : demoted) {
+            CachedUserRole cached = userRoleCache.get(uuid);
+            if (cached != null) {
+                if (processedAt.get(uuid).equals(cached.expiresAtMillis)) {
+                    cacheUserRole(uuid, new CachedUserRole(def, cached.name, null));
+                } else {
+                    // Cache kennt einen anderen Ablauf als den verarbeiteten → aus der DB holen
+                    stale.add(uuid);
+                }
+            }
+            invalidatePermissionCache(uuid);
+            // andere Proxies stellen ihren Cache sofort um (statt selbst ins 0-Zeilen-UPDATE zu laufen)
+            publish(InvalidationBus.Topic.USER_ROLE, uuid.toString());
+        }
+
+        Set<UUID> changed = new HashSet<>(demoted);
+        if (!stale.isEmpty()) {
+            changed.addAll(refreshStaleUserRoles(stale));
+        }
+
+        if (!demoted.isEmpty()) {
+            logger.info("GalacticfyPermissionService: {} abgelaufene Ränge auf '{}' gesetzt.", demoted.size(), defaultRoleName);
+        }
+        if (changed.isEmpty()) return;
+
+        Consumer<Set<UUID>> hook = rankExpiryHook;
+        if (hook != null) {
+            try {
+                hook.accept(changed);
+            } catch (Exception e) {
+                logger.error("Fehler im Rank-Expiry-Hook", e);
             }
         }
-        return false;
     }
 
     /**
-     * Bequemer Wrapper für Velocity-Player.
+     * Ersetzt veraltete User-Rollen nach einer Expiry-Runde: online → aus der DB
+     * neu laden, offline → verwerfen (getRoleFor() lädt beim nächsten Zugriff).
+     *
+     * @return neu geladene Online-Spieler (für den Rank-Expiry-Hook)
      */
-    public boolean hasRankPermission(Player player, String permission) {
-        if (player == null) return hasRankPermission((UUID) null, permission, "PROXY");
-        String serverName = player.getCurrentServer()
-                .map(conn -> conn.getServerInfo().getName())
-                .orElse("PROXY");
-        return hasRankPermission(player.getUniqueId(), permission, serverName);
+    private Set<UUID> refreshStaleUserRoles(Set<UUID> stale) {
+        Set<UUID> reloaded = new HashSet<>();
+        Set<UUID> online = new HashSet<>();
+        for (UUID uuid : stale) {
+            if (permissionCaches.containsKey(uuid)) {
+                online.add(uuid);
+            } else {
+                userRoleCache.remove(uuid);
+                processedRankExpiries.remove(uuid);
+            }
+        }
+
+        if (!online.isEmpty()) {
+            try (Connection con = db.getConnection()) {
+                for (UUID uuid : online) {
+                    loadRoleFor(con, uuid);
+                    reloaded.add(uuid);
+                }
+            } catch (SQLException e) {
+                logger.error("Fehler beim Nachladen veralteter User-Rollen", e);
+                for (UUID uuid : online) {
+                    if (!reloaded.contains(uuid)) {
+                        userRoleCache.remove(uuid);
+                        processedRankExpiries.remove(uuid);
+                    }
+                }
+            }
+        }
+
+        for (UUID uuid : stale) {
+            invalidatePermissionCache(uuid);
+        }
+        return reloaded;
     }
 
+    public void shutdown() {
+        rankExpiryScheduler.shutdownNow();
+    }
+
+    // ---------------------------------------------------
+    //  Permission-Memo pro Spieler (+ Invalidierung)
+    // ---------------------------------------------------
+
     /**
-     * Lädt Rollen, Permissions, Inheritance und den User-Cache komplett neu.
-     * Wird z.B. von /rank reload aufgerufen.
+     * Legt den Memo-Cache für einen Spieler an (PermissionsSetupEvent).
      */
-    public void reloadAllCaches() {
-        logger.info("GalacticfyPermissionService: Starte /rank reload ...");
+    public PlayerPermissionCache registerPermissionCache(UUID uuid) {
+        PlayerPermissionCache cache = new PlayerPermissionCache(uuid, permissionCacheHits, permissionCacheMisses);
+        permissionCaches.put(uuid, cache);
+        return cache;
+    }
 
-        roleByName.clear();
-        roleById.clear();
-        permissionsByRoleId.clear();
-        parentsByRoleId.clear();
-        effectivePermissionsCache.clear();
-        userRoleCache.clear();
+    public PlayerPermissionCache getPermissionCache(UUID uuid) {
+        return uuid == null ? null : permissionCaches.get(uuid);
+    }
 
-        ensureDefaultRole();
+    public void unregisterPermissionCache(UUID uuid) {
+        if (uuid == null) return;
+        permissionCaches.remove(uuid);
+    }
 
-        reloadAllRoles();
-        reloadAllRolePermissions();
-        reloadAllInheritance();
+    public void invalidatePermissionCache(UUID uuid) {
+        PlayerPermissionCache cache = getPermissionCache(uuid);
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
 
-        logger.info("GalacticfyPermissionService: Reload abgeschlossen.");
+    public void invalidateAllPermissionCaches() {
+        for (PlayerPermissionCache cache : permissionCaches.values()) {
+            cache.invalidate();
+        }
     }
 
-    public boolean hasConsoleOrPluginPerm(CommandSource src, String permission) {
-        if (!(src instanceof Player)) {
-            return true;
+    /**
+     * Verwirft die Caches aller Online-Spieler, deren Rolle roleId ist
+     * oder (direkt/indirekt) von roleId erbt.
+     */
+    private void invalidatePermissionCachesInheriting(int roleId) {
+        PermissionModel current = model;
+        Map<Integer, Boolean> inheritsByRole = new HashMap<>();
+
+        for (PlayerPermissionCache cache : permissionCaches.values()) {
+            CachedUserRole cached = userRoleCache.get(cache.getUuid());
+            if (cached == null || cached.role == null) {
+                // Rolle unbekannt → sicherheitshalber verwerfen
+                cache.invalidate();
+                continue;
+            }
+
+            boolean affected = inheritsByRole.computeIfAbsent(
+                    cached.role.id, id -> current.inheritsFrom(id, roleId)
+            );
+            if (affected) {
+                cache.invalidate();
+            }
         }
-        return hasPluginPermission(src, permission);
+    }
+
+    public long getPermissionCacheHits() {
+        return permissionCacheHits.sum();
+    }
+
+    public long getPermissionCacheMisses() {
+        return permissionCacheMisses.sum();
     }
 
     // ---------------------------------------------------
@@ -0,0 +1,99 @@
+package de.galacticfy.core.permission;
+
+import com.velocitypowered.api.permission.Tristate;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Memo für hasPermission()-Ergebnisse eines Spielers auf seinem aktuellen Server.
+ *
+ * - Wird beim Serverwechsel, bei Rollenwechsel und bei Änderungen an
+ *   (geerbten) Rollen-Permissions vom GalacticfyPermissionService verworfen.
+ * - Begrenzt auf MAX_ENTRIES Nodes; beim Überlauf wird neu angefangen.
+ */
+public final class PlayerPermissionCache {
+
+    static final int MAX_ENTRIES = 1024;
+
+    private final UUID uuid;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    private volatile String serverName = "PROXY";
+    // Ablauf eines temporären Rangs → danach wird neu berechnet
+    private volatile long validUntilMillis = Long.MAX_VALUE;
+    // wird beim Invalidieren komplett ausgetauscht → Berechnungen, die noch
+    // gegen die alte Map laufen, landen nicht im neuen Stand
+    private volatile Map<String, Tristate> values = new ConcurrentHashMap<>();
+
+    PlayerPermissionCache(UUID uuid, LongAdder hits, LongAdder misses) {
+        this.uuid = uuid;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    /**
+     * Liefert das gemerkte Ergebnis oder berechnet es über loader.
+     * loader bekommt den aktuellen Servernamen ("PROXY" vor dem ersten Connect).
+     */
+    public Tristate get(String permission, Function<String, Tristate> loader) {
+        if (validUntilMillis != Long.MAX_VALUE && System.currentTimeMillis() >= validUntilMillis) {
+            validUntilMillis = Long.MAX_VALUE;
+            invalidate();
+        }
+
+        Map<String, Tristate> current = values;
+
+        Tristate cached = current.get(permission);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        Tristate value = loader.apply(serverName);
+        if (value == null) {
+            value = Tristate.UNDEFINED;
+        }
+
+        if (current.size() >= MAX_ENTRIES) {
+            current.clear();
+        }
+        current.put(permission, value);
+        return value;
+    }
+
+    public void switchServer(String newServerName) {
+        this.serverName = (newServerName == null || newServerName.isBlank())
+                ? "PROXY"
+                : newServerName;
+        invalidate();
+    }
+
+    /**
+     * expiresAtMillis == null → Rang läuft nicht ab.
+     */
+    void expireAt(Long expiresAtMillis) {
+        this.validUntilMillis = expiresAtMillis != null ? expiresAtMillis : Long.MAX_VALUE;
+    }
+
+    public void invalidate() {
+        values = new ConcurrentHashMap<>();
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,261 @@
+package de.galacticfy.core.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sortierte Rangliste (Order-Statistic-Treap) für eine Währung.
+ *
+ * Sortierung: Score absteigend, bei Gleichstand UUID aufsteigend.
+ * Einfügen / Entfernen / Rang / k-ter Eintrag jeweils O(log n) erwartet,
+ * eine Seite mit "limit" Einträgen O(limit * log n).
+ */
+public class EconomyLeaderboard {
+
+    public record Entry(UUID uuid, String name, long score) {}
+
+    private static final class Node {
+        final UUID uuid;
+        final long score;
+        final int priority;
+        String name;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(UUID uuid, String name, long score) {
+            this.uuid = uuid;
+            this.name = name;
+            this.score = score;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final Map<UUID, Node> byUuid = new HashMap<>();
+    private Node root;
+
+    // ============================================================
+    // UPDATES
+    // ============================================================
+
+    /**
+     * Setzt den Score eines Accounts (fügt ihn bei Bedarf ein).
+     * name == null → bisherigen Namen behalten.
+     */
+    public synchronized void update(UUID uuid, String name, long score) {
+        if (uuid == null) return;
+
+        Node old = byUuid.get(uuid);
+        String effectiveName = (name != null && !name.isBlank())
+                ? name
+                : (old != null ? old.name : "Unknown");
+
+        if (old != null) {
+            if (old.score == score) {
+                old.name = effectiveName;
+                return;
+            }
+            root = erase(root, old);
+        }
+
+        Node node = new Node(uuid, effectiveName, score);
+        root = insert(root, node);
+        byUuid.put(uuid, node);
+    }
+
+    /**
+     * Verschiebt den Score um delta (Offline-Änderungen, Endstand nicht bekannt).
+     * Ergebnis wird auf [0, Long.MAX_VALUE] begrenzt.
+     */
+    public synchronized void adjust(UUID uuid, long delta) {
+        if (uuid == null || delta == 0) return;
+
+        Node old = byUuid.get(uuid);
+        long current = (old != null) ? old.score : 0L;
+
+        long next;
+        if (delta > 0 && current > Long.MAX_VALUE - delta) {
+            next = Long.MAX_VALUE;
+        } else {
+            next = Math.max(0L, current + delta);
+        }
+        update(uuid, null, next);
+    }
+
+    public synchronized void rename(UUID uuid, String name) {
+        if (uuid == null || name == null || name.isBlank()) return;
+        Node node = byUuid.get(uuid);
+        if (node != null) {
+            node.name = name;
+        }
+    }
+
+    /**
+     * Ersetzt den kompletten Inhalt (Seeding beim Start).
+     */
+    public synchronized void replaceAll(List<Entry> entries) {
+        byUuid.clear();
+        root = null;
+        for (Entry e : entries) {
+            update(e.uuid(), e.name(), e.score());
+        }
+    }
+
+    // ============================================================
+    // ABFRAGEN
+    // ============================================================
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    public synchronized long scoreOf(UUID uuid) {
+        Node node = (uuid == null) ? null : byUuid.get(uuid);
+        return node != null ? node.score : 0L;
+    }
+
+    /**
+     * 1-basierter Rang, -1 wenn der Account nicht in der Rangliste ist.
+     */
+    public synchronized int rankOf(UUID uuid) {
+        Node target = (uuid == null) ? null : byUuid.get(uuid);
+        if (target == null) return -1;
+
+        int rank = 0;
+        Node t = root;
+        while (t != null) {
+            int c = compare(target, t);
+            if (c < 0) {
+                t = t.left;
+            } else {
+                rank += size(t.left) + 1;
+                if (c == 0) return rank;
+                t = t.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Eine Seite der Rangliste (offset 0-basiert).
+     */
+    public synchronized List<Entry> page(int offset, int limit) {
+        List<Entry> out = new ArrayList<>();
+        if (offset < 0) offset = 0;
+        if (limit <= 0) return out;
+
+        int end = Math.min(size(root), offset + limit);
+        for (int i = offset; i < end; i++) {
+            Node n = select(i);
+            if (n == null) break;
+            out.add(new Entry(n.uuid, n.name, n.score));
+        }
+        return out;
+    }
+
+    // ============================================================
+    // TREAP INTERN
+    // ============================================================
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static void recalc(Node n) {
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+
+    private static int compare(Node a, Node b) {
+        int c = Long.compare(b.score, a.score); // absteigend
+        if (c != 0) return c;
+        return a.uuid.compareTo(b.uuid);
+    }
+
+    private Node select(int k) {
+        Node t = root;
+        while (t != null) {
+            int ls = size(t.left);
+            if (k < ls) {
+                t = t.left;
+            } else if (k == ls) {
+                return t;
+            } else {
+                k -= ls + 1;
+                t = t.right;
+            }
+        }
+        return null;
+    }
+
+    private static Node insert(Node t, Node node) {
+        if (t == null) return node;
+
+        if (node.priority > t.priority) {
+            Node[] parts = split(t, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            recalc(node);
+            return node;
+        }
+
+        if (compare(node, t) < 0) {
+            t.left = insert(t.left, node);
+        } else {
+            t.right = insert(t.right, node);
+        }
+        recalc(t);
+        return t;
+    }
+
+    /** [0] = alles vor key, [1] = alles ab key */
+    private static Node[] split(Node t, Node key) {
+        if (t == null) return new Node[]{null, null};
+
+        if (compare(t, key) < 0) {
+            Node[] parts = split(t.right, key);
+            t.right = parts[0];
+            recalc(t);
+            return new Node[]{t, parts[1]};
+        } else {
+            Node[] parts = split(t.left, key);
+            t.left = parts[1];
+            recalc(t);
+            return new Node[]{parts[0], t};
+        }
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            recalc(a);
+            return a;
+        } else {
+            b.left = merge(a, b.left);
+            recalc(b);
+            return b;
+        }
+    }
+
+    private static Node erase(Node t, Node key) {
+        if (t == null) return null;
+
+        int c = compare(key, t);
+        if (c == 0) {
+            return merge(t.left, t.right);
+        }
+        if (c < 0) {
+            t.left = erase(t.left, key);
+        } else {
+            t.right = erase(t.right, key);
+        }
+        recalc(t);
+        return t;
+    }
+}
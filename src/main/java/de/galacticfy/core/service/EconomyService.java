@@ -4,21 +4,563 @@ import de.galacticfy.core.database.DatabaseManager;
 import org.slf4j.Logger;
 
 import java.sql.*;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Economy (Galas + Stardust).
+ *
+ * Online-Spieler liegen im Account-Cache (AtomicLongs), Lesezugriffe gehen nie an die DB.
+ * Änderungen an gecachten Accounts landen als Einträge im Ledger (gf_economy_ledger),
+ * ein Hintergrund-Writer schreibt sie gebündelt und zieht gf_economy nach.
+ * Offline-Accounts werden weiterhin direkt per atomarem SQL geändert; offene
+ * Einträge desselben Spielers werden vorher geschrieben (nur dieser Spieler).
+ *
+ * Baltop läuft über zwei In-Memory-Ranglisten (EconomyLeaderboard), die beim Start
+ * einmal aus gf_economy geladen und bei jeder Änderung inkrementell nachgezogen werden.
+ */
 public class EconomyService {
 
     // Einheitlicher Datentyp für jeden Account
     public record Account(UUID uuid, String name, long balance, long stardust) {}
 
+    public enum Currency {
+        BALANCE,
+        STARDUST
+    }
+
+    /**
+     * Gecachter Account eines Online-Spielers.
+     */
+    private static final class CachedAccount {
+        final UUID uuid;
+        volatile String name;
+        final AtomicLong balance;
+        final AtomicLong stardust;
+
+        CachedAccount(UUID uuid, String name, long balance, long stardust) {
+            this.uuid = uuid;
+            this.name = name;
+            this.balance = new AtomicLong(balance);
+            this.stardust = new AtomicLong(stardust);
+        }
+
+        AtomicLong of(Currency currency) {
+            return currency == Currency.STARDUST ? stardust : balance;
+        }
+
+        Account snapshot() {
+            return new Account(uuid, name, balance.get(), stardust.get());
+        }
+    }
+
+    /**
+     * Ein Ledger-Eintrag. applied = true → gf_economy wurde bereits direkt geändert.
+     * attempts = fehlgeschlagene Schreibversuche.
+     */
+    private record LedgerEntry(UUID uuid,
+                               Currency currency,
+                               long delta,
+                               long amountAfter,
+                               String reason,
+                               Instant createdAt,
+                               boolean applied,
+                               int attempts) {
+
+        LedgerEntry retried() {
+            return new LedgerEntry(uuid, currency, delta, amountAfter, reason, createdAt, applied, attempts + 1);
+        }
+    }
+
+    private static final long LEDGER_FLUSH_INTERVAL_MS = 2000L;
+    private static final int LEDGER_BATCH_SIZE = 500;
+    // danach wird ein Eintrag verworfen (Dead-Letter-Log), damit er den Ledger nicht blockiert
+    private static final int LEDGER_MAX_ATTEMPTS = 5;
+    // so lange wartet ein Join höchstens auf einen laufenden Batch mit demselben Spieler
+    private static final long LEDGER_CLAIM_WAIT_MS = 3000L;
+    private static final long LEADERBOARD_RESEED_MINUTES = 10L;
+
     private final DatabaseManager db;
     private final Logger logger;
 
+    private final Map<UUID, CachedAccount> accountCache = new ConcurrentHashMap<>();
+    // offene Ledger-Einträge pro Spieler (Listen nur in compute()/remove() anfassen)
+    private final Map<UUID, List<LedgerEntry>> pendingLedger = new ConcurrentHashMap<>();
+    // Spieler, deren Einträge gerade geschrieben werden; zugleich Monitor für claim/release
+    private final Set<UUID> ledgerInFlight = new HashSet<>();
+    // beim Laden in der Transaktion des Aufrufers geschriebene Einträge (bis completeLoad)
+    private final Map<UUID, List<LedgerEntry>> loadClaims = new ConcurrentHashMap<>();
+    private final Object ledgerFlushLock = new Object();
+
+    private final EconomyLeaderboard balanceBoard = new EconomyLeaderboard();
+    private final EconomyLeaderboard stardustBoard = new EconomyLeaderboard();
+
+    private final ScheduledExecutorService ledgerWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "GalacticfyCore-EconomyLedger");
+        t.setDaemon(true);
+        return t;
+    });
+
     public EconomyService(DatabaseManager db, Logger logger) {
         this.db = db;
         this.logger = logger;
+
+        seedLeaderboards();
+
+        ledgerWriter.scheduleWithFixedDelay(this::flushLedgerSafe,
+                LEDGER_FLUSH_INTERVAL_MS, LEDGER_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        // Reseed fängt Änderungen anderer Proxies / direkte DB-Edits ab
+        ledgerWriter.scheduleWithFixedDelay(this::seedLeaderboards,
+                LEADERBOARD_RESEED_MINUTES, LEADERBOARD_RESEED_MINUTES, TimeUnit.MINUTES);
+    }
+
+    // ============================================================
+    // ACCOUNT-CACHE (Online-Spieler)
+    // ============================================================
+
+    /**
+     * Lädt den Account in den Cache (Join). Nur die offenen Ledger-Einträge dieses
+     * Spielers werden vorher in derselben Transaktion geschrieben.
+     */
+    public void loadAccount(UUID uuid, String name) {
+        if (uuid == null) return;
+
+        try (Connection con = db.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                loadAccount(con, uuid, name, false);
+                con.commit();
+                completeLoad(uuid, true);
+            } catch (SQLException e) {
+                con.rollback();
+                completeLoad(uuid, false);
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Fehler beim Laden des Accounts {} in den Cache", uuid, e);
+        }
+    }
+
+    /**
+     * Lädt den Account über eine vorhandene Connection in den Cache
+     * (PlayerProfileLoader beim Login). Offene Ledger-Einträge dieses Spielers
+     * werden vorher über dieselbe Connection geschrieben, der SELECT sieht sie also.
+     * Der Aufrufer muss nach commit/rollback {@link #completeLoad(UUID, boolean)} aufrufen.
+     *
+     * @param create fehlenden Account anlegen bzw. geänderten Namen nachziehen
+     *               (ersetzt ensureAccount() – geschrieben wird nur, wenn nötig)
+     * @return geladener Account oder null
+     * @throws SQLException auch, wenn ein laufender Ledger-Batch nicht rechtzeitig fertig
+     *                      wird – der SELECT sähe dessen Deltas nicht, der gecachte Stand
+     *                      wäre falsch. Der Aufrufer rollt zurück, der Account bleibt ungecacht.
+     */
+    public Account loadAccount(Connection con, UUID uuid, String name, boolean create) throws SQLException {
+        List<LedgerEntry> claimed = claimLedger(uuid, true);
+        if (claimed == null) {
+            throw new SQLException("Ledger-Batch für " + uuid + " noch nicht geschrieben, Account nicht geladen");
+        }
+        try {
+            loadClaims.put(uuid, claimed);
+            if (!claimed.isEmpty()) {
+                writeLedgerEntries(con, claimed);
+            }
+        } finally {
+            releaseLedger(Set.of(uuid));
+        }
+
+        Account acc = null;
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT uuid, name, balance, stardust FROM gf_economy WHERE uuid = ?"
+        )) {
+            ps.setString(1, uuid.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    acc = mapAccount(rs);
+                }
+            }
+        }
+
+        boolean hasName = name != null && !name.isBlank();
+        if (create && hasName && (acc == null || !name.equals(acc.name()))) {
+            try (PreparedStatement ps = con.prepareStatement(ENSURE_SQL_ACCOUNT)) {
+                ps.setString(1, uuid.toString());
+                ps.setString(2, name);
+                ps.executeUpdate();
+            }
+            acc = acc == null
+                    ? new Account(uuid, name, 0L, 0L)
+                    : new Account(uuid, name, acc.balance(), acc.stardust());
+        }
+
+        if (acc == null) {
+            return null;
+        }
+
+        String display = hasName ? name : acc.name();
+        accountCache.put(uuid, new CachedAccount(uuid, display, acc.balance(), acc.stardust()));
+
+        balanceBoard.update(uuid, display, acc.balance());
+        stardustBoard.update(uuid, display, acc.stardust());
+        return acc;
+    }
+
+    /**
+     * Abschluss von {@link #loadAccount(Connection, UUID, String, boolean)}.
+     * Nach einem Rollback kommen die mitgeschriebenen Ledger-Einträge zurück in die
+     * Queue und der Account wird wieder aus dem Cache genommen.
+     */
+    public void completeLoad(UUID uuid, boolean committed) {
+        if (uuid == null) return;
+        List<LedgerEntry> claimed = loadClaims.remove(uuid);
+        if (committed) return;
+
+        accountCache.remove(uuid);
+        if (claimed != null && !claimed.isEmpty()) {
+            requeueLedger(claimed, false);
+        }
+    }
+
+    /**
+     * Entfernt den Account aus dem Cache (Disconnect). Offene Einträge dieses Spielers
+     * schreibt der Ledger-Thread gleich danach, der Aufrufer wartet nicht.
+     */
+    public void unloadAccount(UUID uuid) {
+        if (uuid == null) return;
+        if (accountCache.remove(uuid) != null && pendingLedger.containsKey(uuid)) {
+            try {
+                ledgerWriter.execute(() -> flushLedgerFor(uuid));
+            } catch (RejectedExecutionException e) {
+                // Shutdown läuft → shutdown() schreibt alles
+            }
+        }
+    }
+
+    public Optional<Account> getCachedAccount(UUID uuid) {
+        if (uuid == null) return Optional.empty();
+        CachedAccount cached = accountCache.get(uuid);
+        return cached == null ? Optional.empty() : Optional.of(cached.snapshot());
+    }
+
+    private long cachedAdd(CachedAccount acc, Currency currency, long amount, String reason) {
+        AtomicLong value = acc.of(currency);
+        long current;
+        long next;
+        do {
+            current = value.get();
+            next = (current > Long.MAX_VALUE - amount) ? Long.MAX_VALUE : current + amount; // Overflow-Schutz
+        } while (!value.compareAndSet(current, next));
+
+        appendLedger(acc.uuid, currency, next - current, next, reason, false);
+        return next;
+    }
+
+    private boolean cachedSubtract(CachedAccount acc, Currency currency, long amount, String reason) {
+        AtomicLong value = acc.of(currency);
+        long current;
+        do {
+            current = value.get();
+            if (current < amount) return false;
+        } while (!value.compareAndSet(current, current - amount));
+
+        appendLedger(acc.uuid, currency, -amount, current - amount, reason, false);
+        return true;
+    }
+
+    private void cachedSet(CachedAccount acc, Currency currency, long amount, String reason) {
+        long old = acc.of(currency).getAndSet(amount);
+        appendLedger(acc.uuid, currency, amount - old, amount, reason, false);
+    }
+
+    // ============================================================
+    // LEDGER (Write-Behind)
+    // ============================================================
+
+    private void appendLedger(UUID uuid, Currency currency, long delta, long amountAfter,
+                              String reason, boolean applied) {
+        if (delta == 0) return;
+
+        // jede Änderung läuft hier durch → Rangliste gleich mitziehen
+        EconomyLeaderboard board = boardFor(currency);
+        if (amountAfter >= 0) {
+            board.update(uuid, null, amountAfter);
+        } else {
+            board.adjust(uuid, delta);
+        }
+
+        enqueueLedger(new LedgerEntry(uuid, currency, delta, amountAfter, reason, Instant.now(), applied, 0));
+    }
+
+    private void enqueueLedger(LedgerEntry entry) {
+        pendingLedger.compute(entry.uuid(), (k, list) -> {
+            if (list == null) list = new ArrayList<>();
+            list.add(entry);
+            return list;
+        });
+    }
+
+    /**
+     * Übernimmt die offenen Einträge eines Spielers zum Schreiben.
+     *
+     * @param wait auf einen laufenden Batch mit diesem Spieler warten (Join / Offline-Änderung)
+     * @return übernommene Einträge (ggf. leer, danach {@link #releaseLedger} aufrufen)
+     *         oder null, wenn nichts übernommen wurde
+     */
+    private List<LedgerEntry> claimLedger(UUID uuid, boolean wait) {
+        synchronized (ledgerInFlight) {
+            long deadline = System.currentTimeMillis() + LEDGER_CLAIM_WAIT_MS;
+            while (ledgerInFlight.contains(uuid)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (!wait || remaining <= 0) {
+                    if (wait) {
+                        logger.warn("EconomyService: Ledger-Batch für {} läuft noch, Account wird nicht gecacht.", uuid);
+                    }
+                    return null;
+                }
+                try {
+                    ledgerInFlight.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+
+            List<LedgerEntry> list = pendingLedger.remove(uuid);
+            if (list == null && !wait) return null;
+
+            ledgerInFlight.add(uuid);
+            return list != null ? list : List.of();
+        }
+    }
+
+    private void releaseLedger(Collection<UUID> uuids) {
+        synchronized (ledgerInFlight) {
+            ledgerInFlight.removeAll(uuids);
+            ledgerInFlight.notifyAll();
+        }
+    }
+
+    /**
+     * Zurück in die Queue. Einträge, die zu oft fehlgeschlagen sind, werden
+     * verworfen und vollständig geloggt (Dead-Letter), statt den Ledger zu blockieren.
+     */
+    private void requeueLedger(List<LedgerEntry> entries, boolean countAttempt) {
+        for (LedgerEntry e : entries) {
+            LedgerEntry next = countAttempt ? e.retried() : e;
+            if (next.attempts() >= LEDGER_MAX_ATTEMPTS) {
+                logger.error("EconomyService: Ledger-Eintrag nach {} Versuchen verworfen: uuid={}, currency={}, " +
+                                "delta={}, amountAfter={}, reason={}, createdAt={}, applied={}",
+                        next.attempts(), next.uuid(), next.currency(), next.delta(), next.amountAfter(),
+                        next.reason(), next.createdAt(), next.applied());
+                continue;
+            }
+            enqueueLedger(next);
+        }
+    }
+
+    private void flushLedgerSafe() {
+        try {
+            flushLedger();
+        } catch (Exception e) {
+            logger.error("EconomyService: Fehler im Ledger-Writer", e);
+        }
+    }
+
+    /**
+     * Schreibt alle offenen Ledger-Einträge in gf_economy_ledger und wendet die
+     * noch nicht angewendeten Deltas (gecachte Accounts) gesammelt auf gf_economy an.
+     */
+    public void flushLedger() {
+        synchronized (ledgerFlushLock) {
+            while (true) {
+                Map<UUID, List<LedgerEntry>> batch = new LinkedHashMap<>();
+                int size = 0;
+                for (UUID uuid : pendingLedger.keySet()) {
+                    if (size >= LEDGER_BATCH_SIZE) break;
+                    List<LedgerEntry> list = claimLedger(uuid, false);
+                    if (list == null) continue; // gerade von einem Join übernommen
+                    batch.put(uuid, list);
+                    size += list.size();
+                }
+                if (batch.isEmpty()) return;
+
+                if (!writeClaimedLedger(batch) || size < LEDGER_BATCH_SIZE) return;
+            }
+        }
+    }
+
+    /**
+     * Schreibt nur die Einträge eines Spielers (Disconnect / vor Offline-Änderungen).
+     */
+    private void flushLedgerFor(UUID uuid) {
+        List<LedgerEntry> claimed = claimLedger(uuid, true);
+        if (claimed == null) return;
+        if (claimed.isEmpty()) {
+            releaseLedger(Set.of(uuid));
+            return;
+        }
+        writeClaimedLedger(Map.of(uuid, claimed));
+    }
+
+    /**
+     * Schreibt übernommene Einträge und gibt die Spieler wieder frei.
+     * Schlägt der Batch fehl, wird pro Spieler einzeln geschrieben – ein kaputter
+     * Eintrag blockiert so nicht die übrigen.
+     */
+    private boolean writeClaimedLedger(Map<UUID, List<LedgerEntry>> batch) {
+        Connection con;
+        try {
+            con = db.getConnection();
+        } catch (SQLException e) {
+            // DB nicht erreichbar → kein Fehlversuch der Einträge
+            logger.error("EconomyService: Keine Connection für den Ledger-Writer", e);
+            batch.values().forEach(list -> requeueLedger(list, false));
+            releaseLedger(batch.keySet());
+            return false;
+        }
+
+        try (con) {
+            List<LedgerEntry> all = new ArrayList<>();
+            batch.values().forEach(all::addAll);
+            if (writeLedgerTransaction(con, all)) {
+                return true;
+            }
+
+            boolean ok = true;
+            for (List<LedgerEntry> entries : batch.values()) {
+                if (writeLedgerTransaction(con, entries)) continue;
+                ok = false;
+                // Verbindung weg → Ausfall, kein Fehler der Einträge
+                requeueLedger(entries, isAlive(con));
+            }
+            return ok;
+        } catch (SQLException e) {
+            logger.debug("EconomyService: Fehler beim Schließen der Ledger-Connection", e);
+            return true;
+        } finally {
+            releaseLedger(batch.keySet());
+        }
+    }
+
+    private static boolean isAlive(Connection con) {
+        try {
+            return con.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean writeLedgerTransaction(Connection con, List<LedgerEntry> entries) {
+        try {
+            con.setAutoCommit(false);
+            writeLedgerEntries(con, entries);
+            con.commit();
+            return true;
+        } catch (SQLException e) {
+            try {
+                con.rollback();
+            } catch (SQLException ignored) {
+                // Verbindung ohnehin kaputt
+            }
+            logger.error("EconomyService: Fehler beim Schreiben von {} Ledger-Einträgen", entries.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * INSERT in gf_economy_ledger + gesammelte Deltas auf gf_economy, ohne commit.
+     */
+    private void writeLedgerEntries(Connection con, List<LedgerEntry> entries) throws SQLException {
+        // Deltas pro Spieler zusammenfassen → ein UPDATE je Account
+        Map<UUID, long[]> deltas = new HashMap<>();
+        for (LedgerEntry e : entries) {
+            if (e.applied()) continue;
+            long[] d = deltas.computeIfAbsent(e.uuid(), k -> new long[2]);
+            d[e.currency() == Currency.STARDUST ? 1 : 0] += e.delta();
+        }
+
+        try (PreparedStatement ps = con.prepareStatement("""
+                INSERT INTO gf_economy_ledger (uuid, currency, delta, amount_after, reason, created_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """)) {
+            for (LedgerEntry e : entries) {
+                ps.setString(1, e.uuid().toString());
+                ps.setString(2, e.currency().name());
+                ps.setLong(3, e.delta());
+                if (e.amountAfter() >= 0) {
+                    ps.setLong(4, e.amountAfter());
+                } else {
+                    ps.setNull(4, Types.BIGINT); // Offline-Änderung, Endstand unbekannt
+                }
+                ps.setString(5, e.reason());
+                ps.setTimestamp(6, Timestamp.from(e.createdAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        if (!deltas.isEmpty()) {
+            try (PreparedStatement ps = con.prepareStatement("""
+                    UPDATE gf_economy
+                    SET balance = GREATEST(0, balance + ?),
+                        stardust = GREATEST(0, stardust + ?)
+                    WHERE uuid = ?
+                    """)) {
+                for (Map.Entry<UUID, long[]> d : deltas.entrySet()) {
+                    ps.setLong(1, d.getValue()[0]);
+                    ps.setLong(2, d.getValue()[1]);
+                    ps.setString(3, d.getKey().toString());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Offline-Änderungen gehen direkt an gf_economy. Vorher müssen offene Deltas
+     * dieses Spielers drin sein, sonst prüft z.B. ein Abbuchen gegen einen alten Stand.
+     */
+    private void flushLedgerBeforeDirectWrite(UUID uuid) {
+        boolean inFlight;
+        synchronized (ledgerInFlight) {
+            inFlight = ledgerInFlight.contains(uuid);
+        }
+        if (inFlight || pendingLedger.containsKey(uuid)) {
+            flushLedgerFor(uuid);
+        }
+    }
+
+    /**
+     * Beendet den Ledger-Writer und schreibt alle offenen Einträge.
+     * Muss VOR dem Schließen des DB-Pools aufgerufen werden.
+     */
+    public void shutdown() {
+        ledgerWriter.shutdown();
+        try {
+            ledgerWriter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushLedger();
+        accountCache.clear();
+        logger.info("EconomyService: Ledger geschrieben, Account-Cache geleert.");
     }
 
     // ============================================================
@@ -30,16 +572,15 @@ public class EconomyService {
         if (name == null || name.isBlank()) name = "Unknown";
 
         try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement("""
-                     INSERT INTO gf_economy (uuid, name, balance, stardust)
-                     VALUES (?, ?, 0, 0)
-                     ON DUPLICATE KEY UPDATE name = VALUES(name)
-                     """)) {
+             PreparedStatement ps = con.prepareStatement(ENSURE_SQL_ACCOUNT)) {
 
             ps.setString(1, uuid.toString());
             ps.setString(2, name);
             ps.executeUpdate();
 
+            balanceBoard.rename(uuid, name);
+            stardustBoard.rename(uuid, name);
+
         } catch (SQLException e) {
             logger.error("Fehler bei ensureAccount für {} ({})", name, uuid, e);
         }
@@ -52,6 +593,9 @@ public class EconomyService {
     public long getBalance(UUID uuid) {
         if (uuid == null) return 0L;
 
+        CachedAccount cached = accountCache.get(uuid);
+        if (cached != null) return cached.balance.get();
+
         try (Connection con = db.getConnection();
              PreparedStatement ps = con.prepareStatement(
                      "SELECT balance FROM gf_economy WHERE uuid = ?"
@@ -72,6 +616,13 @@ public class EconomyService {
         if (uuid == null) return false;
         if (amount < 0) amount = 0;
 
+        CachedAccount cached = accountCache.get(uuid);
+        if (cached != null) {
+            cachedSet(cached, Currency.BALANCE, amount, "set");
+            return true;
+        }
+
+        flushLedgerBeforeDirectWrite(uuid);
         try (Connection con = db.getConnection()) {
 
             int updated;
@@ -95,6 +646,7 @@ public class EconomyService {
                 }
             }
 
+            balanceBoard.update(uuid, null, amount);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Setzen des Kontostands für {}", uuid, e);
@@ -102,19 +654,20 @@ public class EconomyService {
         }
     }
 
+    /**
+     * Atomar: balance = balance + amount in EINEM Statement (legt den Account bei Bedarf an).
+     */
     public boolean deposit(UUID uuid, long amount) {
         if (uuid == null || amount <= 0) return false;
-        long current = getBalance(uuid);
-        long next = current + amount;
-        if (next < 0) next = Long.MAX_VALUE; // Overflow-Schutz
-        return setBalance(uuid, next);
+        return add(uuid, Currency.BALANCE, amount, "deposit");
     }
 
+    /**
+     * Atomar: zieht nur ab, wenn balance >= amount (kein Lost-Update, kein Minus).
+     */
     public boolean withdraw(UUID uuid, long amount) {
         if (uuid == null || amount <= 0) return false;
-        long current = getBalance(uuid);
-        if (current < amount) return false;
-        return setBalance(uuid, current - amount);
+        return subtract(uuid, Currency.BALANCE, amount, "withdraw");
     }
 
     public boolean transfer(UUID from, UUID to, long amount) {
@@ -122,76 +675,45 @@ public class EconomyService {
         if (amount <= 0) return false;
         if (from.equals(to)) return false;
 
-        try (Connection con = db.getConnection()) {
-            con.setAutoCommit(false);
+        // Mindestens ein Online-Account → über den Cache (Abbuchung ist atomar)
+        if (accountCache.containsKey(from) || accountCache.containsKey(to)) {
+            if (!subtract(from, Currency.BALANCE, amount, "transfer")) return false;
+            if (add(to, Currency.BALANCE, amount, "transfer")) return true;
 
-            long fromBal;
-            try (PreparedStatement ps = con.prepareStatement(
-                    "SELECT balance FROM gf_economy WHERE uuid = ? FOR UPDATE"
-            )) {
-                ps.setString(1, from.toString());
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (!rs.next()) {
-                        con.rollback();
-                        return false;
-                    }
-                    fromBal = rs.getLong("balance");
-                }
+            // Gutschrift fehlgeschlagen → Absender zurückbuchen, sonst ist das Geld weg
+            if (!add(from, Currency.BALANCE, amount, "transfer")) {
+                logger.error("Transfer {} → {}: Rückbuchung von {} Galas fehlgeschlagen!", from, to, amount);
             }
+            return false;
+        }
 
-            if (fromBal < amount) {
-                con.rollback();
-                return false;
-            }
+        flushLedgerBeforeDirectWrite(from);
+        flushLedgerBeforeDirectWrite(to);
 
-            long toBal = 0;
-            boolean toExists;
+        try (Connection con = db.getConnection()) {
+            con.setAutoCommit(false);
 
-            try (PreparedStatement ps = con.prepareStatement(
-                    "SELECT balance FROM gf_economy WHERE uuid = ? FOR UPDATE"
-            )) {
-                ps.setString(1, to.toString());
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        toExists = true;
-                        toBal = rs.getLong("balance");
-                    } else {
-                        toExists = false;
-                    }
+            // Absender: bedingtes Abbuchen (sperrt nur die eine Zeile)
+            try (PreparedStatement ps = con.prepareStatement(SUBTRACT_SQL_BALANCE)) {
+                ps.setLong(1, amount);
+                ps.setString(2, from.toString());
+                ps.setLong(3, amount);
+                if (ps.executeUpdate() == 0) {
+                    con.rollback();
+                    return false;
                 }
             }
 
-            // Absender updaten
-            try (PreparedStatement ps = con.prepareStatement(
-                    "UPDATE gf_economy SET balance = ? WHERE uuid = ?"
-            )) {
-                ps.setLong(1, fromBal - amount);
-                ps.setString(2, from.toString());
+            // Empfänger: gutschreiben / anlegen
+            try (PreparedStatement ps = con.prepareStatement(ADD_SQL_BALANCE)) {
+                ps.setString(1, to.toString());
+                ps.setLong(2, amount);
                 ps.executeUpdate();
             }
 
-            // Empfänger updaten / anlegen
-            if (toExists) {
-                try (PreparedStatement ps = con.prepareStatement(
-                        "UPDATE gf_economy SET balance = ? WHERE uuid = ?"
-                )) {
-                    ps.setLong(1, toBal + amount);
-                    ps.setString(2, to.toString());
-                    ps.executeUpdate();
-                }
-            } else {
-                try (PreparedStatement ps = con.prepareStatement("""
-                        INSERT INTO gf_economy (uuid, name, balance, stardust)
-                        VALUES (?, ?, ?, 0)
-                        """)) {
-                    ps.setString(1, to.toString());
-                    ps.setString(2, "Unknown");
-                    ps.setLong(3, amount);
-                    ps.executeUpdate();
-                }
-            }
-
             con.commit();
+            appendLedger(from, Currency.BALANCE, -amount, -1L, "transfer", true);
+            appendLedger(to, Currency.BALANCE, amount, -1L, "transfer", true);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler bei Transfer {} → {} ({} Galas)", from, to, amount, e);
@@ -201,30 +723,8 @@ public class EconomyService {
 
     // Alte simple Top-Liste (ohne Offset) – optional
     public List<Account> getTopBalances(int limit) {
-        List<Account> list = new ArrayList<>();
         if (limit <= 0) limit = 10;
-
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement("""
-                     SELECT uuid, name, balance, stardust
-                     FROM gf_economy
-                     ORDER BY balance DESC
-                     LIMIT ?
-                     """)) {
-
-            ps.setInt(1, limit);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(mapAccount(rs));
-                }
-            }
-
-        } catch (SQLException e) {
-            logger.error("Fehler beim Laden der Top-Balances", e);
-        }
-
-        return list;
+        return toAccounts(balanceBoard.page(0, limit), Currency.BALANCE);
     }
 
     // ============================================================
@@ -234,6 +734,9 @@ public class EconomyService {
     public long getStardust(UUID uuid) {
         if (uuid == null) return 0L;
 
+        CachedAccount cached = accountCache.get(uuid);
+        if (cached != null) return cached.stardust.get();
+
         try (Connection con = db.getConnection();
              PreparedStatement ps = con.prepareStatement(
                      "SELECT stardust FROM gf_economy WHERE uuid = ?"
@@ -255,6 +758,13 @@ public class EconomyService {
         if (uuid == null) return false;
         if (amount < 0) amount = 0;
 
+        CachedAccount cached = accountCache.get(uuid);
+        if (cached != null) {
+            cachedSet(cached, Currency.STARDUST, amount, "set");
+            return true;
+        }
+
+        flushLedgerBeforeDirectWrite(uuid);
         try (Connection con = db.getConnection()) {
 
             int updated;
@@ -278,6 +788,7 @@ public class EconomyService {
                 }
             }
 
+            stardustBoard.update(uuid, null, amount);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Setzen von Stardust für {}", uuid, e);
@@ -287,44 +798,17 @@ public class EconomyService {
 
     public boolean addStardust(UUID uuid, long amount) {
         if (uuid == null || amount <= 0) return false;
-        long current = getStardust(uuid);
-        long next = current + amount;
-        if (next < 0) next = Long.MAX_VALUE;
-        return setStardust(uuid, next);
+        return add(uuid, Currency.STARDUST, amount, "deposit");
     }
 
     public boolean removeStardust(UUID uuid, long amount) {
         if (uuid == null || amount <= 0) return false;
-        long current = getStardust(uuid);
-        if (current < amount) return false;
-        return setStardust(uuid, current - amount);
+        return subtract(uuid, Currency.STARDUST, amount, "withdraw");
     }
 
     public List<Account> getTopStardust(int limit) {
-        List<Account> list = new ArrayList<>();
         if (limit <= 0) limit = 10;
-
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement("""
-                     SELECT uuid, name, balance, stardust
-                     FROM gf_economy
-                     ORDER BY stardust DESC
-                     LIMIT ?
-                     """)) {
-
-            ps.setInt(1, limit);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(mapAccount(rs));
-                }
-            }
-
-        } catch (SQLException e) {
-            logger.error("Fehler beim Laden der Top-Stardust-Liste", e);
-        }
-
-        return list;
+        return toAccounts(stardustBoard.page(0, limit), Currency.STARDUST);
     }
 
     // ============================================================
@@ -333,62 +817,180 @@ public class EconomyService {
 
     // /baltop → sortiert nach Galas
     public List<Account> getTopAccounts(int limit, int offset) {
-        List<Account> result = new ArrayList<>();
         if (limit <= 0) limit = 10;
         if (offset < 0) offset = 0;
+        return toAccounts(balanceBoard.page(offset, limit), Currency.BALANCE);
+    }
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement("""
-                     SELECT uuid, name, balance, stardust
-                     FROM gf_economy
-                     ORDER BY balance DESC
-                     LIMIT ? OFFSET ?
-                     """)) {
+    // /baltop stardust → sortiert nach Stardust
+    public List<Account> getTopAccountsStardust(int limit, int offset) {
+        if (limit <= 0) limit = 10;
+        if (offset < 0) offset = 0;
+        return toAccounts(stardustBoard.page(offset, limit), Currency.STARDUST);
+    }
 
-            ps.setInt(1, limit);
-            ps.setInt(2, offset);
+    /** 1-basierter Platz in der Galas-Rangliste, -1 wenn unbekannt. */
+    public int getBalanceRank(UUID uuid) {
+        return balanceBoard.rankOf(uuid);
+    }
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    result.add(mapAccount(rs));
-                }
-            }
+    /** 1-basierter Platz in der Stardust-Rangliste, -1 wenn unbekannt. */
+    public int getStardustRank(UUID uuid) {
+        return stardustBoard.rankOf(uuid);
+    }
 
-        } catch (SQLException e) {
-            logger.error("Fehler beim Abrufen von Baltop (Galas)", e);
-        }
+    /** Anzahl Accounts in der Rangliste (für Seitenanzahl). */
+    public int getRankedAccountCount() {
+        return balanceBoard.size();
+    }
 
+    // ============================================================
+    // INTERN: Ranglisten
+    // ============================================================
+
+    private EconomyLeaderboard boardFor(Currency currency) {
+        return currency == Currency.STARDUST ? stardustBoard : balanceBoard;
+    }
+
+    private List<Account> toAccounts(List<EconomyLeaderboard.Entry> entries, Currency sortedBy) {
+        List<Account> result = new ArrayList<>(entries.size());
+        for (EconomyLeaderboard.Entry e : entries) {
+            if (sortedBy == Currency.STARDUST) {
+                result.add(new Account(e.uuid(), e.name(), balanceBoard.scoreOf(e.uuid()), e.score()));
+            } else {
+                result.add(new Account(e.uuid(), e.name(), e.score(), stardustBoard.scoreOf(e.uuid())));
+            }
+        }
         return result;
     }
 
-    // /baltop stardust → sortiert nach Stardust
-    public List<Account> getTopAccountsStardust(int limit, int offset) {
-        List<Account> result = new ArrayList<>();
-        if (limit <= 0) limit = 10;
-        if (offset < 0) offset = 0;
+    /**
+     * Lädt beide Ranglisten komplett aus gf_economy. Online-Accounts werden danach
+     * mit ihrem Cache-Stand überschrieben (der ist ggf. neuer als die DB).
+     */
+    private void seedLeaderboards() {
+        List<EconomyLeaderboard.Entry> balances = new ArrayList<>();
+        List<EconomyLeaderboard.Entry> dust = new ArrayList<>();
 
         try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement("""
-                     SELECT uuid, name, balance, stardust
-                     FROM gf_economy
-                     ORDER BY stardust DESC
-                     LIMIT ? OFFSET ?
-                     """)) {
+             PreparedStatement ps = con.prepareStatement(
+                     "SELECT uuid, name, balance, stardust FROM gf_economy"
+             );
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                Account acc = mapAccount(rs);
+                balances.add(new EconomyLeaderboard.Entry(acc.uuid(), acc.name(), acc.balance()));
+                dust.add(new EconomyLeaderboard.Entry(acc.uuid(), acc.name(), acc.stardust()));
+            }
+        } catch (Exception e) {
+            logger.error("EconomyService: Fehler beim Laden der Baltop-Ranglisten", e);
+            return;
+        }
 
-            ps.setInt(1, limit);
-            ps.setInt(2, offset);
+        balanceBoard.replaceAll(balances);
+        stardustBoard.replaceAll(dust);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    result.add(mapAccount(rs));
-                }
-            }
+        for (CachedAccount acc : accountCache.values()) {
+            balanceBoard.update(acc.uuid, acc.name, acc.balance.get());
+            stardustBoard.update(acc.uuid, acc.name, acc.stardust.get());
+        }
+
+        logger.debug("EconomyService: Baltop-Ranglisten geladen ({} Accounts).", balances.size());
+    }
 
+    // ============================================================
+    // INTERN: Atomare Updates (balance / stardust)
+    // ============================================================
+
+    private static final String ENSURE_SQL_ACCOUNT = """
+            INSERT INTO gf_economy (uuid, name, balance, stardust)
+            VALUES (?, ?, 0, 0)
+            ON DUPLICATE KEY UPDATE name = VALUES(name)
+            """;
+
+    // Overflow-Schutz direkt in SQL: bei Überlauf auf Long.MAX_VALUE deckeln
+    private static final String ADD_SQL_BALANCE = """
+            INSERT INTO gf_economy (uuid, name, balance, stardust)
+            VALUES (?, 'Unknown', ?, 0)
+            ON DUPLICATE KEY UPDATE balance = CASE
+                WHEN balance > 9223372036854775807 - VALUES(balance) THEN 9223372036854775807
+                ELSE balance + VALUES(balance)
+            END
+            """;
+
+    private static final String ADD_SQL_STARDUST = """
+            INSERT INTO gf_economy (uuid, name, balance, stardust)
+            VALUES (?, 'Unknown', 0, ?)
+            ON DUPLICATE KEY UPDATE stardust = CASE
+                WHEN stardust > 9223372036854775807 - VALUES(stardust) THEN 9223372036854775807
+                ELSE stardust + VALUES(stardust)
+            END
+            """;
+
+    private static final String SUBTRACT_SQL_BALANCE =
+            "UPDATE gf_economy SET balance = balance - ? WHERE uuid = ? AND balance >= ?";
+
+    private static final String SUBTRACT_SQL_STARDUST =
+            "UPDATE gf_economy SET stardust = stardust - ? WHERE uuid = ? AND stardust >= ?";
+
+    /**
+     * Gutschrift: gecacht im Speicher, sonst atomar in gf_economy.
+     */
+    private boolean add(UUID uuid, Currency currency, long amount, String reason) {
+        CachedAccount cached = accountCache.get(uuid);
+        if (cached != null) {
+            cachedAdd(cached, currency, amount, reason);
+            return true;
+        }
+        if (!atomicAdd(uuid, currency, amount)) return false;
+        appendLedger(uuid, currency, amount, -1L, reason, true);
+        return true;
+    }
+
+    /**
+     * Abbuchung: nur wenn genug vorhanden ist (gecacht per CAS, sonst bedingtes UPDATE).
+     */
+    private boolean subtract(UUID uuid, Currency currency, long amount, String reason) {
+        CachedAccount cached = accountCache.get(uuid);
+        if (cached != null) {
+            return cachedSubtract(cached, currency, amount, reason);
+        }
+        if (!atomicSubtract(uuid, currency, amount)) return false;
+        appendLedger(uuid, currency, -amount, -1L, reason, true);
+        return true;
+    }
+
+    private boolean atomicAdd(UUID uuid, Currency currency, long amount) {
+        String sql = currency == Currency.STARDUST ? ADD_SQL_STARDUST : ADD_SQL_BALANCE;
+
+        flushLedgerBeforeDirectWrite(uuid);
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, uuid.toString());
+            ps.setLong(2, amount);
+            ps.executeUpdate();
+            return true;
         } catch (SQLException e) {
-            logger.error("Fehler beim Abrufen von Stardust-Baltop", e);
+            logger.error("Fehler beim atomaren Gutschreiben ({}) von {} für {}", currency, amount, uuid, e);
+            return false;
         }
+    }
 
-        return result;
+    private boolean atomicSubtract(UUID uuid, Currency currency, long amount) {
+        String sql = currency == Currency.STARDUST ? SUBTRACT_SQL_STARDUST : SUBTRACT_SQL_BALANCE;
+
+        flushLedgerBeforeDirectWrite(uuid);
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, amount);
+            ps.setString(2, uuid.toString());
+            ps.setLong(3, amount);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            logger.error("Fehler beim atomaren Abbuchen ({}) von {} für {}", currency, amount, uuid, e);
+            return false;
+        }
     }
 
     // ============================================================
@@ -1,6 +1,7 @@
 package de.galacticfy.core.service;
 
 import de.galacticfy.core.database.DatabaseManager;
+import de.galacticfy.core.sync.InvalidationBus;
 import org.slf4j.Logger;
 
 import java.sql.*;
@@ -40,6 +41,9 @@ public class MaintenanceService {
     // Pro-Server-Maintenance: Backend-Name in lowercase (nur in Memory)
     private final Set<String> serverMaintenance = ConcurrentHashMap.newKeySet();
 
+    // Multi-Proxy: Status/Whitelist-Änderungen melden (null = nur lokal)
+    private volatile InvalidationBus invalidationBus;
+
     public MaintenanceService(Logger logger, DatabaseManager db) {
         this.logger = logger;
         this.db = db;
@@ -169,11 +173,64 @@ public class MaintenanceService {
                 }
             }
 
+            publish("config");
+
         } catch (SQLException e) {
             logger.error("Fehler beim Speichern der Maintenance-Config in der Datenbank", e);
         }
     }
 
+    // =====================================================================
+    // MULTI-PROXY (InvalidationBus)
+    // =====================================================================
+
+    /**
+     * Übernimmt Änderungen anderer Proxies: "config" lädt den Status neu,
+     * "player:<name>" / "group:<name>" prüfen nur diesen einen Whitelist-Eintrag.
+     * Pro-Server-Maintenance bleibt lokal.
+     */
+    public void setInvalidationBus(InvalidationBus bus) {
+        this.invalidationBus = bus;
+        if (bus == null) return;
+
+        bus.subscribe(InvalidationBus.Topic.MAINTENANCE, key -> {
+            if ("config".equals(key)) {
+                loadMaintenanceConfig();
+            } else if (key.startsWith("player:")) {
+                reloadWhitelistEntry(whitelistedPlayers,
+                        "SELECT 1 FROM gf_maintenance_whitelist_players WHERE name = ?",
+                        key.substring("player:".length()));
+            } else if (key.startsWith("group:")) {
+                reloadWhitelistEntry(whitelistedGroups,
+                        "SELECT 1 FROM gf_maintenance_whitelist_groups WHERE group_name = ?",
+                        key.substring("group:".length()));
+            }
+        });
+    }
+
+    private void publish(String key) {
+        InvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(InvalidationBus.Topic.MAINTENANCE, key);
+        }
+    }
+
+    private void reloadWhitelistEntry(Set<String> whitelist, String sql, String key) {
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    whitelist.add(key);
+                } else {
+                    whitelist.remove(key);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Fehler beim Nachladen des Whitelist-Eintrags {}", key, e);
+        }
+    }
+
     // =====================================================================
     // GLOBALER MAINTENANCE-STATUS
     // =====================================================================
@@ -322,6 +379,7 @@ public class MaintenanceService {
              )) {
             ps.setString(1, key);
             ps.executeUpdate();
+            publish("player:" + key);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Hinzufügen des Whitelist-Spielers {}", key, e);
@@ -343,6 +401,7 @@ public class MaintenanceService {
              )) {
             ps.setString(1, key);
             ps.executeUpdate();
+            publish("player:" + key);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Entfernen des Whitelist-Spielers {}", key, e);
@@ -376,6 +435,7 @@ public class MaintenanceService {
              )) {
             ps.setString(1, key);
             ps.executeUpdate();
+            publish("group:" + key);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Hinzufügen der Whitelist-Gruppe {}", key, e);
@@ -397,6 +457,7 @@ public class MaintenanceService {
              )) {
             ps.setString(1, key);
             ps.executeUpdate();
+            publish("group:" + key);
             return true;
         } catch (SQLException e) {
             logger.error("Fehler beim Entfernen der Whitelist-Gruppe {}", key, e);
@@ -0,0 +1,241 @@
+package de.galacticfy.core.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Gemeinsamer In-Memory-Index für Tab-Completion von Spielernamen.
+ *
+ * - KNOWN: alle bekannten Namen (IdentityCache + Namen aus gf_punishments),
+ *   zusätzlich mit "zuletzt gesehen" für {@link #completeRecent(String, int)}
+ * - BANNED / MUTED: Namen mit aktivem Ban bzw. Mute, gepflegt vom PunishmentService
+ *
+ * Sortiert nach lower-case Namen → Präfix-Suche in O(log n) per subMap,
+ * Lesen ist lock-frei. Auf dem Completion-Pfad gibt es keine DB-Abfragen.
+ * Der IdentityCache hält selbst keinen eigenen Namens-Index mehr.
+ */
+public class NameCompletionIndex {
+
+    public enum Category {
+        KNOWN,
+        BANNED,
+        MUTED
+    }
+
+    // bis zu so vielen Präfix-Treffern wird direkt nach Aktualität sortiert,
+    // darüber in Aktualitäts-Reihenfolge gesucht (Präfix ist dann häufig)
+    private static final int RANGE_SORT_LIMIT = 4096;
+
+    /**
+     * Bekannter Name; lastSeenMillis = 0 für Namen ohne Zeitstempel (z.B. aus gf_punishments).
+     */
+    private record KnownName(String lower, String name, long lastSeenMillis) {
+    }
+
+    // neueste zuerst, bei Gleichstand alphabetisch
+    private static final Comparator<KnownName> BY_RECENCY =
+            Comparator.comparingLong(KnownName::lastSeenMillis).reversed()
+                    .thenComparing(KnownName::lower);
+
+    // lower(name) -> Name + zuletzt gesehen; knownByRecency enthält dieselben Objekte
+    private final ConcurrentSkipListMap<String, KnownName> known = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<KnownName> knownByRecency = new ConcurrentSkipListSet<>(BY_RECENCY);
+    private final Object knownLock = new Object();
+
+    // lower(name) -> Anzeigename
+    private volatile ConcurrentSkipListMap<String, String> banned = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentSkipListMap<String, String> muted = new ConcurrentSkipListMap<>();
+
+    // =====================================================================
+    // SCHREIBEN
+    // =====================================================================
+
+    public void addKnown(String name) {
+        addKnown(name, 0L);
+    }
+
+    /**
+     * Name mit "zuletzt gesehen"; ein älterer Zeitstempel überschreibt keinen neueren.
+     */
+    public void addKnown(String name, long lastSeenMillis) {
+        String clean = clean(name);
+        if (clean == null) return;
+
+        String key = clean.toLowerCase(Locale.ROOT);
+        synchronized (knownLock) {
+            KnownName old = known.get(key);
+            if (old != null && old.lastSeenMillis() > lastSeenMillis) return;
+            if (old != null && old.lastSeenMillis() == lastSeenMillis && old.name().equals(clean)) return;
+
+            KnownName fresh = new KnownName(key, clean, lastSeenMillis);
+            known.put(key, fresh);
+            if (old != null) knownByRecency.remove(old);
+            knownByRecency.add(fresh);
+        }
+    }
+
+    /**
+     * Entfernt einen bekannten Namen (z.B. alter Name nach Namensänderung).
+     */
+    public void removeKnown(String name) {
+        String clean = clean(name);
+        if (clean == null) return;
+
+        synchronized (knownLock) {
+            KnownName old = known.remove(clean.toLowerCase(Locale.ROOT));
+            if (old != null) knownByRecency.remove(old);
+        }
+    }
+
+    public void addKnown(Collection<String> names) {
+        if (names == null) return;
+        for (String name : names) {
+            addKnown(name);
+        }
+    }
+
+    /**
+     * Setzt/entfernt einen Namen in BANNED oder MUTED (nach Punish/Unpunish).
+     */
+    public void setActive(Category category, String name, boolean active) {
+        String clean = clean(name);
+        if (clean == null) return;
+
+        String key = clean.toLowerCase(Locale.ROOT);
+        if (active) {
+            map(category).put(key, clean);
+        } else {
+            map(category).remove(key);
+        }
+    }
+
+    /**
+     * Ersetzt BANNED oder MUTED komplett (z.B. nach Voll-Reload des Aktiv-Index).
+     */
+    public void replace(Category category, Collection<String> names) {
+        if (category == Category.KNOWN) {
+            throw new IllegalArgumentException("KNOWN wird nur ergänzt, nicht ersetzt");
+        }
+
+        ConcurrentSkipListMap<String, String> fresh = new ConcurrentSkipListMap<>();
+        if (names != null) {
+            for (String name : names) {
+                String clean = clean(name);
+                if (clean != null) {
+                    fresh.put(clean.toLowerCase(Locale.ROOT), clean);
+                }
+            }
+        }
+
+        if (category == Category.BANNED) {
+            banned = fresh;
+        } else {
+            muted = fresh;
+        }
+    }
+
+    // =====================================================================
+    // LESEN
+    // =====================================================================
+
+    /**
+     * Namen mit diesem Präfix (case-insensitive), alphabetisch sortiert.
+     */
+    public List<String> complete(Category category, String prefix, int limit) {
+        int lim = Math.max(1, limit);
+        String p = normalize(prefix);
+
+        List<String> out = new ArrayList<>(Math.min(lim, 32));
+        if (category == Category.KNOWN) {
+            for (KnownName entry : range(known, p).values()) {
+                out.add(entry.name());
+                if (out.size() >= lim) break;
+            }
+            return out;
+        }
+
+        for (String name : range(map(category), p).values()) {
+            out.add(name);
+            if (out.size() >= lim) break;
+        }
+        return out;
+    }
+
+    /**
+     * Bekannte Namen mit diesem Präfix, zuletzt gesehene zuerst – exakt, auch bei
+     * leerem oder sehr kurzem Präfix:
+     *  - wenige Treffer → Präfix-Bereich komplett nach Aktualität sortieren
+     *  - viele Treffer  → Aktualitäts-Index von vorne durchgehen, bis limit Treffer
+     *    (der Präfix ist dann häufig, man findet schnell genug)
+     */
+    public List<String> completeRecent(String prefix, int limit) {
+        int lim = Math.max(1, limit);
+        String p = normalize(prefix);
+
+        if (!p.isEmpty()) {
+            List<KnownName> hits = new ArrayList<>();
+            for (KnownName entry : range(known, p).values()) {
+                hits.add(entry);
+                if (hits.size() > RANGE_SORT_LIMIT) break;
+            }
+            if (hits.size() <= RANGE_SORT_LIMIT) {
+                hits.sort(BY_RECENCY);
+                List<String> out = new ArrayList<>(Math.min(lim, hits.size()));
+                for (int i = 0; i < hits.size() && i < lim; i++) {
+                    out.add(hits.get(i).name());
+                }
+                return out;
+            }
+        }
+
+        List<String> out = new ArrayList<>(Math.min(lim, 32));
+        for (KnownName entry : knownByRecency) {
+            if (!entry.lower().startsWith(p)) continue;
+            if (known.get(entry.lower()) != entry) continue; // wird gerade ersetzt
+            out.add(entry.name());
+            if (out.size() >= lim) break;
+        }
+        return out;
+    }
+
+    public boolean contains(Category category, String name) {
+        String clean = clean(name);
+        if (clean == null) return false;
+
+        String key = clean.toLowerCase(Locale.ROOT);
+        return category == Category.KNOWN ? known.containsKey(key) : map(category).containsKey(key);
+    }
+
+    public int size(Category category) {
+        return category == Category.KNOWN ? known.size() : map(category).size();
+    }
+
+    // =====================================================================
+    // INTERN
+    // =====================================================================
+
+    // nur BANNED / MUTED; KNOWN hat eigene Strukturen
+    private ConcurrentSkipListMap<String, String> map(Category category) {
+        return category == Category.MUTED ? muted : banned;
+    }
+
+    private static <V> NavigableMap<String, V> range(ConcurrentSkipListMap<String, V> source, String p) {
+        return p.isEmpty() ? source : source.subMap(p, true, p + Character.MAX_VALUE, false);
+    }
+
+    private static String normalize(String prefix) {
+        return prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String clean(String name) {
+        if (name == null) return null;
+        String clean = name.trim();
+        return clean.isEmpty() ? null : clean;
+    }
+}
@@ -6,23 +6,70 @@ import org.slf4j.Logger;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PlayerIdentityCacheService {
 
+    private static final int WARMUP_FETCH_SIZE = 1000;
+
+    // Write-Behind: last_seen wird erst neu geschrieben, wenn er älter als das hier ist
+    private static final long LAST_SEEN_STALE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long FLUSH_INTERVAL_SECONDS = 10;
+    private static final int FLUSH_ROWS_PER_STATEMENT = 500;
+
     private final DatabaseManager db;
     private final Logger logger;
 
-    // In-memory Cache (schnell)
-    private final Map<String, UUID> nameToUuid = new ConcurrentHashMap<>(); // lower(name) -> uuid
-    private final Map<UUID, String> uuidToName = new ConcurrentHashMap<>(); // uuid -> lastName
+    /**
+     * Ein bekannter Spieler (letzter Name + zuletzt gesehen).
+     */
+    private record IdentityEntry(UUID uuid, String name, long lastSeenMillis) {
+    }
+
+    // In-memory Cache (schnell), nur exakte Lookups
+    private final Map<String, IdentityEntry> byName = new ConcurrentHashMap<>(); // lower(name) -> entry
+    private final Map<UUID, IdentityEntry> byUuid = new ConcurrentHashMap<>(); // uuid -> entry (letzter Name)
+
+    // Tab-Completion inkl. Sortierung nach last_seen (geteilt mit PunishmentService)
+    private final NameCompletionIndex nameIndex;
+
+    /**
+     * Ausstehender Write für gf_identity_cache (neuester Stand pro UUID).
+     */
+    private record PendingIdentity(String name, long lastSeenMillis) {
+    }
+
+    private final Map<UUID, PendingIdentity> dirty = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final ScheduledExecutorService writer;
 
     public PlayerIdentityCacheService(DatabaseManager db, Logger logger) {
+        this(db, logger, new NameCompletionIndex());
+    }
+
+    public PlayerIdentityCacheService(DatabaseManager db, Logger logger, NameCompletionIndex nameIndex) {
         this.db = db;
         this.logger = logger;
+        this.nameIndex = nameIndex;
         ensureTable();
-        warmupCache(2000); // lädt letzte 2000 Einträge (kein Muss, aber hilfreich)
+        warmupCache(); // komplette Tabelle, gestreamt
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "GalacticfyCore-IdentityWriter");
+            t.setDaemon(true);
+            return t;
+        });
+        this.writer.scheduleWithFixedDelay(this::flushSafe,
+                FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
     }
 
     // ============================================================
@@ -31,32 +78,72 @@ public class PlayerIdentityCacheService {
 
     /**
      * Upsert: Speichere/aktualisiere (uuid, name) bei Join.
+     *
+     * Geschrieben wird nur bei neuem Spieler, Namensänderung oder wenn last_seen
+     * älter als LAST_SEEN_STALE_MILLIS ist – und auch dann gesammelt im Hintergrund.
+     * Der In-Memory-Stand entspricht damit dem, was in die DB geht.
      */
     public void upsert(UUID uuid, String name) {
         if (uuid == null || name == null || name.isBlank()) return;
 
         String clean = name.trim();
-        String key = clean.toLowerCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+
+        IdentityEntry known = byUuid.get(uuid);
+        boolean nameChanged = known == null || !known.name().equals(clean);
+        if (!nameChanged && now - known.lastSeenMillis() < LAST_SEEN_STALE_MILLIS) {
+            return; // gleicher Name, last_seen noch frisch
+        }
 
         // memory
-        nameToUuid.put(key, uuid);
-        uuidToName.put(uuid, clean);
+        remember(uuid, clean, now);
 
-        // db
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "INSERT INTO gf_identity_cache (uuid, name, last_seen) " +
-                             "VALUES (?, ?, CURRENT_TIMESTAMP) " +
-                             "ON DUPLICATE KEY UPDATE name = VALUES(name), last_seen = CURRENT_TIMESTAMP"
-             )) {
-            ps.setString(1, uuid.toString());
-            ps.setString(2, clean);
-            ps.executeUpdate();
-        } catch (Exception e) {
-            if (logger != null) logger.warn("IdentityCache upsert failed for {} / {}: {}", uuid, clean, e.toString());
+        // db (Write-Behind)
+        dirty.merge(uuid, new PendingIdentity(clean, now),
+                (old, fresh) -> fresh.lastSeenMillis() >= old.lastSeenMillis() ? fresh : old);
+
+        // Namensänderungen nicht bis zum nächsten Intervall liegen lassen
+        if (nameChanged) {
+            requestFlush();
         }
     }
 
+    /**
+     * Schreibt alle ausstehenden Einträge als Multi-Row-Upserts.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            flushRequested.set(false);
+            if (dirty.isEmpty()) return;
+
+            List<Map.Entry<UUID, PendingIdentity>> batch = new ArrayList<>(dirty.size());
+            for (UUID uuid : dirty.keySet()) {
+                PendingIdentity pending = dirty.remove(uuid);
+                if (pending != null) {
+                    batch.add(Map.entry(uuid, pending));
+                }
+            }
+
+            for (int from = 0; from < batch.size(); from += FLUSH_ROWS_PER_STATEMENT) {
+                writeRows(batch.subList(from, Math.min(batch.size(), from + FLUSH_ROWS_PER_STATEMENT)));
+            }
+        }
+    }
+
+    /**
+     * Beendet den Writer und schreibt alles Ausstehende.
+     * Muss VOR dem Schließen des DB-Pools aufgerufen werden.
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
     /**
      * Finde UUID anhand Name (case-insensitive).
      */
@@ -64,22 +151,20 @@ public class PlayerIdentityCacheService {
         if (name == null || name.isBlank()) return Optional.empty();
         String key = name.trim().toLowerCase(Locale.ROOT);
 
-        UUID cached = nameToUuid.get(key);
-        if (cached != null) return Optional.of(cached);
+        IdentityEntry cached = byName.get(key);
+        if (cached != null) return Optional.of(cached.uuid());
 
-        // DB fallback
+        // DB fallback (über idx_name_lower)
         try (Connection c = db.getConnection();
              PreparedStatement ps = c.prepareStatement(
-                     "SELECT uuid FROM gf_identity_cache WHERE LOWER(name)=LOWER(?) LIMIT 1"
+                     "SELECT uuid, name, last_seen FROM gf_identity_cache WHERE name_lower = ? " +
+                             "ORDER BY last_seen DESC LIMIT 1"
              )) {
-            ps.setString(1, name.trim());
+            ps.setString(1, key);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    UUID uuid = UUID.fromString(rs.getString("uuid"));
-                    nameToUuid.put(key, uuid);
-                    // optional auch uuid->name nachziehen
-                    uuidToName.putIfAbsent(uuid, name.trim());
-                    return Optional.of(uuid);
+                    IdentityEntry entry = remember(rs);
+                    if (entry != null) return Optional.of(entry.uuid());
                 }
             }
         } catch (Exception e) {
@@ -95,23 +180,19 @@ public class PlayerIdentityCacheService {
     public Optional<String> findNameByUuid(UUID uuid) {
         if (uuid == null) return Optional.empty();
 
-        String cached = uuidToName.get(uuid);
-        if (cached != null && !cached.isBlank()) return Optional.of(cached);
+        IdentityEntry cached = byUuid.get(uuid);
+        if (cached != null) return Optional.of(cached.name());
 
         // DB fallback
         try (Connection c = db.getConnection();
              PreparedStatement ps = c.prepareStatement(
-                     "SELECT name FROM gf_identity_cache WHERE uuid=? LIMIT 1"
+                     "SELECT uuid, name, last_seen FROM gf_identity_cache WHERE uuid=? LIMIT 1"
              )) {
             ps.setString(1, uuid.toString());
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    String name = rs.getString("name");
-                    if (name != null && !name.isBlank()) {
-                        uuidToName.put(uuid, name);
-                        nameToUuid.putIfAbsent(name.toLowerCase(Locale.ROOT), uuid);
-                        return Optional.of(name);
-                    }
+                    IdentityEntry entry = remember(rs);
+                    if (entry != null) return Optional.of(entry.name());
                 }
             }
         } catch (Exception e) {
@@ -122,51 +203,117 @@ public class PlayerIdentityCacheService {
     }
 
     /**
-     * Tabcomplete-Hilfe: gib bekannte Namen zurück, die mit prefix starten.
+     * Tabcomplete-Hilfe: gib bekannte Namen zurück, die mit prefix starten,
+     * zuletzt gesehene zuerst. Läuft über den gemeinsamen NameCompletionIndex,
+     * keine DB-Abfrage.
      */
     public List<String> getKnownNames(String prefix, int limit) {
-        int lim = Math.max(1, Math.min(limit, 100));
-        String pfx = (prefix == null) ? "" : prefix.trim().toLowerCase(Locale.ROOT);
-
-        // 1) erst aus Memory
-        List<String> fromMem = uuidToName.values().stream()
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isBlank())
-                .filter(s -> s.toLowerCase(Locale.ROOT).startsWith(pfx))
-                .distinct()
-                .limit(lim)
-                .toList();
-
-        if (fromMem.size() >= lim) return fromMem;
-
-        // 2) DB ergänzen
-        List<String> out = new ArrayList<>(fromMem);
-        try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "SELECT name FROM gf_identity_cache WHERE LOWER(name) LIKE ? ORDER BY last_seen DESC LIMIT ?"
-             )) {
-            ps.setString(1, pfx + "%");
-            ps.setInt(2, lim * 2); // etwas mehr ziehen und dann distinct/limit
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next() && out.size() < lim) {
-                    String n = rs.getString("name");
-                    if (n == null) continue;
+        return nameIndex.completeRecent(prefix, Math.max(1, Math.min(limit, 100)));
+    }
 
-                    n = n.trim();
-                    if (n.isBlank()) continue;
+    public NameCompletionIndex getNameIndex() {
+        return nameIndex;
+    }
 
-                    final String nameFinal = n; // <- jetzt effektiv final für Lambda
-                    if (out.stream().anyMatch(x -> x.equalsIgnoreCase(nameFinal))) continue;
+    // ============================================================
+    // INTERNAL: INDEX
+    // ============================================================
 
-                    out.add(nameFinal);
-                }
+    /**
+     * Trägt (uuid, name) in die Maps und den Completion-Index ein. Ein alter Name
+     * derselben UUID wird entfernt; bei doppelt vergebenen Namen gewinnt der neuere.
+     */
+    private IdentityEntry remember(UUID uuid, String name, long lastSeenMillis) {
+        IdentityEntry entry = new IdentityEntry(uuid, name, lastSeenMillis);
+
+        IdentityEntry[] replaced = new IdentityEntry[1];
+        IdentityEntry current = byUuid.compute(uuid, (id, old) -> {
+            if (old != null && old.lastSeenMillis() > lastSeenMillis) {
+                return old; // neuerer Stand war schon da
             }
+            replaced[0] = old;
+            return entry;
+        });
+        if (current != entry) {
+            return current;
+        }
+
+        // Namensänderung: alten Namen nicht mehr auf diese UUID zeigen lassen
+        IdentityEntry old = replaced[0];
+        if (old != null && !old.name().equalsIgnoreCase(name)
+                && byName.remove(old.name().toLowerCase(Locale.ROOT), old)) {
+            nameIndex.removeKnown(old.name());
+        }
+
+        byName.merge(name.toLowerCase(Locale.ROOT), entry,
+                (existing, fresh) -> fresh.lastSeenMillis() >= existing.lastSeenMillis() ? fresh : existing);
+
+        nameIndex.addKnown(name, lastSeenMillis);
+        return entry;
+    }
+
+    private IdentityEntry remember(ResultSet rs) throws SQLException {
+        String rawUuid = rs.getString("uuid");
+        String name = rs.getString("name");
+        if (rawUuid == null || name == null || name.isBlank()) return null;
+
+        Timestamp lastSeen = rs.getTimestamp("last_seen");
+        return remember(UUID.fromString(rawUuid), name.trim(), lastSeen != null ? lastSeen.getTime() : 0L);
+    }
+
+    // ============================================================
+    // INTERNAL: WRITE-BEHIND
+    // ============================================================
+
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) return;
+        try {
+            writer.execute(this::flushSafe);
         } catch (Exception e) {
-            if (logger != null) logger.warn("IdentityCache getKnownNames failed: {}", e.toString());
+            // Writer bereits beendet → shutdown() flusht
+            flushRequested.set(false);
         }
+    }
 
-        return out;
+    private void flushSafe() {
+        try {
+            flush();
+        } catch (Exception e) {
+            if (logger != null) logger.warn("IdentityCache flush failed: {}", e.toString());
+        }
+    }
+
+    private void writeRows(List<Map.Entry<UUID, PendingIdentity>> rows) {
+        if (rows.isEmpty()) return;
+
+        StringBuilder sql = new StringBuilder(64 + rows.size() * 10)
+                .append("INSERT INTO gf_identity_cache (uuid, name, last_seen) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        // last_seen nie zurückdrehen (z.B. anderer Proxy war schneller); name nur mit dem
+        // neueren Stand überschreiben – muss vor last_seen stehen, da MySQL der Reihe nach zuweist
+        sql.append(" ON DUPLICATE KEY UPDATE")
+                .append(" name = IF(VALUES(last_seen) >= last_seen, VALUES(name), name),")
+                .append(" last_seen = GREATEST(last_seen, VALUES(last_seen))");
+
+        try (Connection c = db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int idx = 1;
+            for (Map.Entry<UUID, PendingIdentity> row : rows) {
+                ps.setString(idx++, row.getKey().toString());
+                ps.setString(idx++, row.getValue().name());
+                ps.setTimestamp(idx++, new Timestamp(row.getValue().lastSeenMillis()));
+            }
+            ps.executeUpdate();
+        } catch (Exception e) {
+            if (logger != null) logger.warn("IdentityCache upsert failed for {} entries: {}", rows.size(), e.toString());
+
+            // nicht verlieren: zurück in die Queue, neuere Einträge haben Vorrang
+            for (Map.Entry<UUID, PendingIdentity> row : rows) {
+                dirty.putIfAbsent(row.getKey(), row.getValue());
+            }
+        }
     }
 
     // ============================================================
@@ -175,47 +322,59 @@ public class PlayerIdentityCacheService {
 
     private void ensureTable() {
         try (Connection c = db.getConnection();
-             PreparedStatement ps = c.prepareStatement(
-                     "CREATE TABLE IF NOT EXISTS gf_identity_cache (" +
-                             "uuid VARCHAR(36) NOT NULL PRIMARY KEY," +
-                             "name VARCHAR(16) NOT NULL," +
-                             "last_seen TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP," +
-                             "INDEX idx_name (name)," +
-                             "INDEX idx_last_seen (last_seen)" +
-                             ")"
-             )) {
-            ps.execute();
+             Statement st = c.createStatement()) {
+            st.execute(
+                    "CREATE TABLE IF NOT EXISTS gf_identity_cache (" +
+                            "uuid VARCHAR(36) NOT NULL PRIMARY KEY," +
+                            "name VARCHAR(16) NOT NULL," +
+                            "name_lower VARCHAR(16) AS (LOWER(name)) STORED," +
+                            "last_seen TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP," +
+                            "INDEX idx_name (name)," +
+                            "INDEX idx_name_lower (name_lower)," +
+                            "INDEX idx_last_seen (last_seen)" +
+                            ")"
+            );
+
+            // bestehende Tabellen: gespeicherte Lowercase-Spalte + Index nachziehen
+            st.execute("ALTER TABLE gf_identity_cache " +
+                    "ADD COLUMN IF NOT EXISTS name_lower VARCHAR(16) AS (LOWER(name)) STORED");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_name_lower ON gf_identity_cache (name_lower)");
         } catch (Exception e) {
             if (logger != null) logger.warn("IdentityCache ensureTable failed: {}", e.toString());
         }
     }
 
-    private void warmupCache(int maxRows) {
-        int lim = Math.max(0, Math.min(maxRows, 10000));
-        if (lim <= 0) return;
+    /**
+     * Lädt die komplette Tabelle als Stream (fetchSize), ohne alles
+     * vorher im Treiber zu puffern.
+     */
+    private void warmupCache() {
+        long started = System.currentTimeMillis();
 
         try (Connection c = db.getConnection();
              PreparedStatement ps = c.prepareStatement(
-                     "SELECT uuid, name FROM gf_identity_cache ORDER BY last_seen DESC LIMIT ?"
+                     "SELECT uuid, name, last_seen FROM gf_identity_cache",
+                     ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY
              )) {
-            ps.setInt(1, lim);
+            ps.setFetchSize(WARMUP_FETCH_SIZE);
             try (ResultSet rs = ps.executeQuery()) {
                 int loaded = 0;
                 while (rs.next()) {
-                    UUID uuid = UUID.fromString(rs.getString("uuid"));
-                    String name = rs.getString("name");
-                    if (name == null || name.isBlank()) continue;
-
-                    uuidToName.put(uuid, name);
-                    nameToUuid.put(name.toLowerCase(Locale.ROOT), uuid);
-                    loaded++;
+                    try {
+                        if (remember(rs) != null) loaded++;
+                    } catch (IllegalArgumentException ignored) {
+                        // kaputte UUID in der Tabelle
+                    }
                 }
-                if (logger != null) logger.info("IdentityCache warmup: {} entries loaded.", loaded);
+                if (logger != null) logger.info("IdentityCache warmup: {} entries loaded in {} ms.",
+                        loaded, System.currentTimeMillis() - started);
             }
         } catch (Exception e) {
             if (logger != null) logger.warn("IdentityCache warmup failed: {}", e.toString());
         }
     }
+
     public void update(UUID uuid, String name) {
         if (uuid == null || name == null) return;
 
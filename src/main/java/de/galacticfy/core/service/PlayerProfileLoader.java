@@ -0,0 +1,169 @@
+package de.galacticfy.core.service;
+
+import com.velocitypowered.api.event.EventTask;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.LoginEvent;
+import com.velocitypowered.api.proxy.Player;
+import de.galacticfy.core.database.DatabaseManager;
+import de.galacticfy.core.permission.GalacticfyPermissionService;
+import de.galacticfy.core.permission.GalacticfyRole;
+import de.galacticfy.core.service.EconomyService.Account;
+import de.galacticfy.core.service.PunishmentService.Punishment;
+import de.galacticfy.core.service.SessionService.SessionInfo;
+import org.slf4j.Logger;
+
+import java.net.InetSocketAddress;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lädt beim Login alles, was die Services für einen Spieler brauchen,
+ * über EINE Connection in einer Transaktion:
+ *
+ * - Rolle (gf_user_roles)         → GalacticfyPermissionService
+ * - Economy-Account (gf_economy)  → EconomyService (legt ihn bei Bedarf an;
+ *                                   offene Ledger-Einträge nur dieses Spielers
+ *                                   werden in derselben Transaktion geschrieben)
+ * - Session (gf_sessions)         → SessionService
+ * - Quest-Fortschritt + Meta      → QuestService
+ * - Bans/Mutes                    → aus dem In-Memory-Index des PunishmentService
+ *
+ * Die Services legen die Daten in ihren Caches ab; die späteren Join-Listener
+ * (Economy, Session, Quests, Maintenance, Tablist) brauchen dann keine eigene
+ * Connection mehr. Das Ergebnis ist zusätzlich als {@link PlayerProfile} abrufbar.
+ */
+public class PlayerProfileLoader {
+
+    /**
+     * Stand eines Spielers beim Login (Snapshot, wird nicht nachgeführt).
+     */
+    public record PlayerProfile(
+            UUID uuid,
+            String name,
+            GalacticfyRole role,
+            Account account,
+            SessionInfo session,
+            Instant lastQuestLogin,
+            Punishment activeBan,
+            Punishment activeMute,
+            Instant loadedAt
+    ) {}
+
+    private final DatabaseManager db;
+    private final Logger logger;
+    private final GalacticfyPermissionService permissions;
+    private final EconomyService economy;
+    private final SessionService sessions;
+    private final QuestService quests;
+    private final PunishmentService punishments;
+
+    private final Map<UUID, PlayerProfile> profiles = new ConcurrentHashMap<>();
+
+    public PlayerProfileLoader(DatabaseManager db,
+                               Logger logger,
+                               GalacticfyPermissionService permissions,
+                               EconomyService economy,
+                               SessionService sessions,
+                               QuestService quests,
+                               PunishmentService punishments) {
+        this.db = db;
+        this.logger = logger;
+        this.permissions = permissions;
+        this.economy = economy;
+        this.sessions = sessions;
+        this.quests = quests;
+        this.punishments = punishments;
+    }
+
+    /**
+     * EARLY: vor Maintenance-/Punishment-Checks, damit die schon aus dem Cache lesen.
+     * Läuft als async EventTask, der Event-Thread wartet nicht auf die DB.
+     */
+    @Subscribe(order = PostOrder.EARLY)
+    public EventTask onLogin(LoginEvent event) {
+        if (!event.getResult().isAllowed()) {
+            return null;
+        }
+        Player player = event.getPlayer();
+        return EventTask.async(() -> load(player));
+    }
+
+    @Subscribe(order = PostOrder.LAST)
+    public void onDisconnect(DisconnectEvent event) {
+        profiles.remove(event.getPlayer().getUniqueId());
+    }
+
+    public Optional<PlayerProfile> getProfile(UUID uuid) {
+        return uuid == null ? Optional.empty() : Optional.ofNullable(profiles.get(uuid));
+    }
+
+    // ============================================================
+    // LADEN
+    // ============================================================
+
+    private void load(Player player) {
+        UUID uuid = player.getUniqueId();
+        String name = player.getUsername();
+        long started = System.nanoTime();
+
+        // Bans/Mutes: nur aus dem Index, der DB-Fallback bleibt beim PunishmentLoginListener
+        Punishment ban = null;
+        Punishment mute = null;
+        if (punishments != null && punishments.isActiveIndexReady()) {
+            ban = punishments.getActiveBan(uuid, ipOf(player));
+            mute = punishments.getActiveMute(uuid);
+        }
+
+        if (ban != null) {
+            // Login wird gleich abgelehnt → nichts laden
+            profiles.put(uuid, new PlayerProfile(uuid, name, null, null, null, null, ban, mute, Instant.now()));
+            return;
+        }
+
+        GalacticfyRole role = null;
+        Account account = null;
+        SessionInfo session = null;
+        Instant lastQuestLogin = null;
+
+        try (Connection con = db.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                role = permissions.loadRoleFor(con, uuid);
+                account = economy.loadAccount(con, uuid, name, true);
+                session = sessions.preload(con, uuid);
+                lastQuestLogin = quests.preload(con, uuid);
+                con.commit();
+                economy.completeLoad(uuid, true);
+            } catch (SQLException e) {
+                con.rollback();
+                // mitgeschriebene Ledger-Einträge zurück in die Queue, Account aus dem Cache
+                economy.completeLoad(uuid, false);
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            // EconomyListener legt den Account dann wie gewohnt an. Rest lädt beim ersten Zugriff nach.
+            logger.error("Fehler beim Laden des Spielerprofils von {} ({})", name, uuid, e);
+            return;
+        }
+
+        profiles.put(uuid, new PlayerProfile(uuid, name, role, account, session, lastQuestLogin,
+                null, mute, Instant.now()));
+
+        logger.debug("PlayerProfileLoader: Profil von {} in {} ms geladen.",
+                name, (System.nanoTime() - started) / 1_000_000L);
+    }
+
+    private static String ipOf(Player player) {
+        InetSocketAddress addr = player.getRemoteAddress();
+        return addr != null && addr.getAddress() != null ? addr.getAddress().getHostAddress() : null;
+    }
+}
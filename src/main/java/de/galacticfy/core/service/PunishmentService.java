@@ -1,14 +1,23 @@
 package de.galacticfy.core.service;
 
 import de.galacticfy.core.database.DatabaseManager;
+import de.galacticfy.core.sync.InvalidationBus;
 import org.slf4j.Logger;
 
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class PunishmentService {
 
@@ -66,9 +75,53 @@ public class PunishmentService {
     private final DatabaseManager db;
     private final Logger logger;
 
+    // Tab-Completion: bekannte / gebannte / gemutete Namen
+    private final NameCompletionIndex nameIndex;
+
+    // In-Memory-Index aller aktiven BAN / IP_BAN / MUTE (Login & Chat ohne DB-Roundtrip)
+    private final Map<Integer, Punishment> activeById = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Integer>> activeIdsByUuid = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> activeIdsByIp = new ConcurrentHashMap<>();
+    private volatile boolean activeIndexReady = false;
+    // während reloadActiveIndex(): id -> zuletzt indexiert (true) / entfernt (false); nur unter activeById
+    private Map<Integer, Boolean> changedDuringReload = null;
+    // lower(name) -> Anzahl aktiver Einträge (für BANNED/MUTED im NameCompletionIndex); nur unter activeById
+    private final Map<String, Integer> bannedNameRefs = new HashMap<>();
+    private final Map<String, Integer> mutedNameRefs = new HashMap<>();
+
+    // Multi-Proxy: neue/aufgehobene Bans & Mutes melden (null = nur lokal)
+    private volatile InvalidationBus invalidationBus;
+
+    private static final long INDEX_EXPIRY_SWEEP_SECONDS = 30L;
+    private static final long INDEX_FULL_RELOAD_MINUTES = 5L;
+
+    private final ScheduledExecutorService indexScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "GalacticfyCore-PunishmentIndex");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Comparator<Punishment> NEWEST_FIRST =
+            Comparator.comparing((Punishment p) -> p.createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(p -> p.id, Comparator.reverseOrder());
+
     public PunishmentService(DatabaseManager db, Logger logger) {
+        this(db, logger, new NameCompletionIndex());
+    }
+
+    public PunishmentService(DatabaseManager db, Logger logger, NameCompletionIndex nameIndex) {
         this.db = db;
         this.logger = logger;
+        this.nameIndex = nameIndex;
+
+        reloadActiveIndex();
+        nameIndex.addKnown(getAllPunishedNames());
+
+        indexScheduler.scheduleWithFixedDelay(this::sweepExpiredSafe,
+                INDEX_EXPIRY_SWEEP_SECONDS, INDEX_EXPIRY_SWEEP_SECONDS, TimeUnit.SECONDS);
+        // Voll-Reload als Sicherheitsnetz (Änderungen anderer Proxies kommen über den InvalidationBus)
+        indexScheduler.scheduleWithFixedDelay(this::reloadActiveIndex,
+                INDEX_FULL_RELOAD_MINUTES, INDEX_FULL_RELOAD_MINUTES, TimeUnit.MINUTES);
     }
 
     // ============================================================
@@ -87,14 +140,8 @@ public class PunishmentService {
     public boolean unbanPlayer(UUID uuid) {
         if (uuid == null) return false;
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "UPDATE gf_punishments SET active = 0 " +
-                             "WHERE uuid = ? AND type = 'BAN' AND active = 1"
-             )) {
-            ps.setString(1, uuid.toString());
-            int updated = ps.executeUpdate();
-            return updated > 0;
+        try (Connection con = db.getConnection()) {
+            return !deactivateWhere(con, "uuid = ? AND type = 'BAN'", uuid.toString()).isEmpty();
         } catch (SQLException e) {
             logger.error("Fehler beim Unbannen von {}", uuid, e);
             return false;
@@ -106,14 +153,8 @@ public class PunishmentService {
         if (name == null || name.isBlank()) return false;
         String key = name.toLowerCase(Locale.ROOT);
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "UPDATE gf_punishments SET active = 0 " +
-                             "WHERE LOWER(name) = ? AND type = 'BAN' AND active = 1"
-             )) {
-            ps.setString(1, key);
-            int updated = ps.executeUpdate();
-            return updated > 0;
+        try (Connection con = db.getConnection()) {
+            return !deactivateWhere(con, "LOWER(name) = ? AND type = 'BAN'", key).isEmpty();
         } catch (SQLException e) {
             logger.error("Fehler beim Unbannen von Name {}", name, e);
             return false;
@@ -152,13 +193,7 @@ public class PunishmentService {
             }
 
             // 2) Alle aktiven BANs für diesen Namen deaktivieren
-            try (PreparedStatement psUpd = con.prepareStatement(
-                    "UPDATE gf_punishments SET active = 0 " +
-                            "WHERE LOWER(name) = ? AND type = 'BAN' AND active = 1"
-            )) {
-                psUpd.setString(1, key);
-                psUpd.executeUpdate();
-            }
+            deactivateWhere(con, "LOWER(name) = ? AND type = 'BAN'", key);
 
             return lastBan;
 
@@ -198,13 +233,7 @@ public class PunishmentService {
             }
 
             // 2) Alle aktiven IP_BANs auf dieser IP deaktivieren
-            try (PreparedStatement psUpd = con.prepareStatement(
-                    "UPDATE gf_punishments SET active = 0 " +
-                            "WHERE ip = ? AND type = 'IP_BAN' AND active = 1"
-            )) {
-                psUpd.setString(1, ip);
-                psUpd.executeUpdate();
-            }
+            deactivateWhere(con, "ip = ? AND type = 'IP_BAN'", ip);
 
             return last;
 
@@ -247,14 +276,8 @@ public class PunishmentService {
     public boolean unmutePlayer(UUID uuid) {
         if (uuid == null) return false;
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "UPDATE gf_punishments SET active = 0 " +
-                             "WHERE uuid = ? AND type = 'MUTE' AND active = 1"
-             )) {
-            ps.setString(1, uuid.toString());
-            int updated = ps.executeUpdate();
-            return updated > 0;
+        try (Connection con = db.getConnection()) {
+            return !deactivateWhere(con, "uuid = ? AND type = 'MUTE'", uuid.toString()).isEmpty();
         } catch (SQLException e) {
             logger.error("Fehler beim Unmuten von {}", uuid, e);
             return false;
@@ -266,14 +289,8 @@ public class PunishmentService {
         if (name == null || name.isBlank()) return false;
         String key = name.toLowerCase(Locale.ROOT);
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "UPDATE gf_punishments SET active = 0 " +
-                             "WHERE LOWER(name) = ? AND type = 'MUTE' AND active = 1"
-             )) {
-            ps.setString(1, key);
-            int updated = ps.executeUpdate();
-            return updated > 0;
+        try (Connection con = db.getConnection()) {
+            return !deactivateWhere(con, "LOWER(name) = ? AND type = 'MUTE'", key).isEmpty();
         } catch (SQLException e) {
             logger.error("Fehler beim Unmuten von Name {}", name, e);
             return false;
@@ -309,13 +326,7 @@ public class PunishmentService {
                 return null;
             }
 
-            try (PreparedStatement psUpd = con.prepareStatement(
-                    "UPDATE gf_punishments SET active = 0 " +
-                            "WHERE LOWER(name) = ? AND type = 'MUTE' AND active = 1"
-            )) {
-                psUpd.setString(1, key);
-                psUpd.executeUpdate();
-            }
+            deactivateWhere(con, "LOWER(name) = ? AND type = 'MUTE'", key);
 
             return lastMute;
 
@@ -642,7 +653,7 @@ public class PunishmentService {
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
                     int id = rs.getInt(1);
-                    return new Punishment(
+                    Punishment created = new Punishment(
                             id,
                             uuid,
                             name,
@@ -654,6 +665,12 @@ public class PunishmentService {
                             expires != null ? expires.toInstant() : null,
                             true
                     );
+                    index(created);
+                    nameIndex.addKnown(name);
+                    if (isIndexedType(type)) {
+                        publish(id);
+                    }
+                    return created;
                 }
             }
 
@@ -670,6 +687,13 @@ public class PunishmentService {
     // ============================================================
 
     public Punishment getActiveBan(UUID uuid, String ip) {
+        if (activeIndexReady) {
+            Punishment ban = findIndexed(PunishmentType.BAN, uuid, null);
+            if (ban != null) return ban;
+            return findIndexed(PunishmentType.IP_BAN, null, ip);
+        }
+
+        // Fallback (Index nicht geladen): direkt aus der DB
         // 1) normaler Account-Ban
         Punishment ban = getActivePunishment(PunishmentType.BAN, uuid, null);
         if (ban != null) return ban;
@@ -683,9 +707,19 @@ public class PunishmentService {
     }
 
     public Punishment getActiveMute(UUID uuid) {
+        if (activeIndexReady) {
+            return findIndexed(PunishmentType.MUTE, uuid, null);
+        }
         return getActivePunishment(PunishmentType.MUTE, uuid, null);
     }
 
+    /**
+     * true, wenn Bans/Mutes ohne DB-Abfrage aus dem Index beantwortet werden können.
+     */
+    public boolean isActiveIndexReady() {
+        return activeIndexReady;
+    }
+
     // ============================================================
     // ACTIVE BAN/MUTE für /check (UUID + Name + IP)
     // ============================================================
@@ -801,11 +835,336 @@ public class PunishmentService {
              )) {
             ps.setInt(1, id);
             ps.executeUpdate();
+            unindex(id);
         } catch (SQLException e) {
             logger.error("Fehler beim Deaktivieren von Punishment id={}", id, e);
         }
     }
 
+    // ============================================================
+    // AKTIV-INDEX (BAN / IP_BAN / MUTE)
+    // ============================================================
+
+    private static boolean isIndexedType(PunishmentType type) {
+        return type == PunishmentType.BAN
+                || type == PunishmentType.IP_BAN
+                || type == PunishmentType.MUTE;
+    }
+
+    /**
+     * Lädt alle aktiven BAN/IP_BAN/MUTE-Einträge neu und ersetzt den Index.
+     */
+    public void reloadActiveIndex() {
+        List<Punishment> loaded = new ArrayList<>();
+
+        // Änderungen während des SELECT merken, sonst überschreibt der (ältere) Stand sie
+        synchronized (activeById) {
+            changedDuringReload = new HashMap<>();
+        }
+
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement(
+                     "SELECT * FROM gf_punishments " +
+                             "WHERE type IN ('BAN','IP_BAN','MUTE') AND active = 1"
+             );
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                loaded.add(mapPunishment(rs));
+            }
+        } catch (Exception e) {
+            logger.error("PunishmentService: Fehler beim Laden des Aktiv-Index", e);
+            synchronized (activeById) {
+                changedDuringReload = null;
+            }
+            return;
+        }
+
+        synchronized (activeById) {
+            Map<Integer, Boolean> changed = changedDuringReload;
+            changedDuringReload = null;
+
+            // während des Ladens erstellt/nachgeladen → behalten, aufgehoben/abgelaufen → nicht zurückholen
+            List<Punishment> indexedMeanwhile = new ArrayList<>();
+            changed.forEach((id, indexed) -> {
+                Punishment p = activeById.get(id);
+                if (indexed && p != null) {
+                    indexedMeanwhile.add(p);
+                }
+            });
+
+            activeById.clear();
+            activeIdsByUuid.clear();
+            activeIdsByIp.clear();
+            bannedNameRefs.clear();
+            mutedNameRefs.clear();
+            for (Punishment p : loaded) {
+                if (!Boolean.FALSE.equals(changed.get(p.id))) {
+                    index(p);
+                }
+            }
+            indexedMeanwhile.forEach(this::index);
+            activeIndexReady = true;
+
+            nameIndex.replace(NameCompletionIndex.Category.BANNED, activeNames(true));
+            nameIndex.replace(NameCompletionIndex.Category.MUTED, activeNames(false));
+        }
+
+        logger.debug("PunishmentService: Aktiv-Index geladen ({} Einträge).", loaded.size());
+    }
+
+    private void index(Punishment p) {
+        if (p == null || !p.active || !isIndexedType(p.type)) return;
+
+        synchronized (activeById) {
+            if (changedDuringReload != null) {
+                changedDuringReload.put(p.id, true);
+            }
+            Punishment previous = activeById.put(p.id, p);
+            if (previous != null) {
+                releaseName(previous);
+            }
+            if (p.uuid != null) {
+                activeIdsByUuid.computeIfAbsent(p.uuid, k -> ConcurrentHashMap.newKeySet()).add(p.id);
+            }
+            if (p.ip != null && !p.ip.isBlank()) {
+                activeIdsByIp.computeIfAbsent(p.ip, k -> ConcurrentHashMap.newKeySet()).add(p.id);
+            }
+            if (p.name != null) {
+                nameRefs(p.type).merge(p.name.toLowerCase(Locale.ROOT), 1, Integer::sum);
+                nameIndex.setActive(nameCategory(p.type), p.name, true);
+            }
+        }
+    }
+
+    private void unindex(int id) {
+        synchronized (activeById) {
+            if (changedDuringReload != null) {
+                changedDuringReload.put(id, false);
+            }
+            Punishment p = activeById.remove(id);
+            if (p == null) return;
+
+            if (p.uuid != null) {
+                activeIdsByUuid.computeIfPresent(p.uuid, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+            if (p.ip != null) {
+                activeIdsByIp.computeIfPresent(p.ip, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+
+            releaseName(p);
+        }
+    }
+
+    /**
+     * Name erst aus BANNED/MUTED nehmen, wenn kein anderer aktiver Eintrag mehr passt
+     * (Referenzzähler statt Scan über den ganzen Index). Nur unter activeById aufrufen.
+     */
+    private void releaseName(Punishment p) {
+        if (p.name == null) return;
+
+        Integer left = nameRefs(p.type).computeIfPresent(p.name.toLowerCase(Locale.ROOT),
+                (k, count) -> count > 1 ? count - 1 : null);
+        if (left == null) {
+            nameIndex.setActive(nameCategory(p.type), p.name, false);
+        }
+    }
+
+    private Map<String, Integer> nameRefs(PunishmentType type) {
+        return type == PunishmentType.MUTE ? mutedNameRefs : bannedNameRefs;
+    }
+
+    private static NameCompletionIndex.Category nameCategory(PunishmentType type) {
+        return type == PunishmentType.MUTE
+                ? NameCompletionIndex.Category.MUTED
+                : NameCompletionIndex.Category.BANNED;
+    }
+
+    private List<String> activeNames(boolean bans) {
+        NameCompletionIndex.Category wanted = bans
+                ? NameCompletionIndex.Category.BANNED
+                : NameCompletionIndex.Category.MUTED;
+
+        List<String> names = new ArrayList<>();
+        for (Punishment p : activeById.values()) {
+            if (p.name != null && nameCategory(p.type) == wanted) {
+                names.add(p.name);
+            }
+        }
+        return names;
+    }
+
+    public NameCompletionIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    /**
+     * Deaktiviert alle aktiven Einträge, die auf {@code condition} passen, und gibt
+     * die tatsächlich betroffenen IDs zurück. Die IDs werden unter Zeilensperre
+     * gelesen, damit auch Einträge, die dieser Proxy nie im Index hatte
+     * (z.B. von einem anderen Proxy angelegt), veröffentlicht werden.
+     */
+    private List<Integer> deactivateWhere(Connection con, String condition, String value) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+
+        con.setAutoCommit(false);
+        try {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "SELECT id FROM gf_punishments WHERE " + condition + " AND active = 1 FOR UPDATE"
+            )) {
+                ps.setString(1, value);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt("id"));
+                    }
+                }
+            }
+
+            if (!ids.isEmpty()) {
+                try (PreparedStatement ps = con.prepareStatement(
+                        "UPDATE gf_punishments SET active = 0 WHERE " + condition + " AND active = 1"
+                )) {
+                    ps.setString(1, value);
+                    ps.executeUpdate();
+                }
+            }
+            con.commit();
+        } catch (SQLException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(true);
+        }
+
+        for (int id : ids) {
+            unindex(id);
+            publish(id);
+        }
+        return ids;
+    }
+
+    // ============================================================
+    // MULTI-PROXY (InvalidationBus)
+    // ============================================================
+
+    /**
+     * Bans/Mutes anderer Proxies werden per ID nachgeladen, statt auf den
+     * nächsten Voll-Reload zu warten.
+     */
+    public void setInvalidationBus(InvalidationBus bus) {
+        this.invalidationBus = bus;
+        if (bus == null) return;
+
+        bus.subscribe(InvalidationBus.Topic.PUNISHMENT, key -> {
+            try {
+                reloadPunishment(Integer.parseInt(key));
+            } catch (NumberFormatException e) {
+                logger.warn("Ungültige Punishment-ID '{}' im Change-Log", key);
+            }
+        });
+    }
+
+    private void publish(int id) {
+        InvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(InvalidationBus.Topic.PUNISHMENT, String.valueOf(id));
+        }
+    }
+
+    /**
+     * Liest genau einen Eintrag neu und aktualisiert den Aktiv-Index.
+     */
+    public void reloadPunishment(int id) {
+        Punishment p = null;
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT * FROM gf_punishments WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    p = mapPunishment(rs);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Fehler beim Nachladen von Punishment id={}", id, e);
+            return;
+        }
+
+        synchronized (activeById) {
+            unindex(id);
+            if (p != null && !isExpired(p)) {
+                index(p);
+                nameIndex.addKnown(p.name);
+            }
+        }
+    }
+
+    /**
+     * Neuester nicht abgelaufener Eintrag des Typs für UUID bzw. IP (reiner Memory-Lookup).
+     */
+    private Punishment findIndexed(PunishmentType type, UUID uuid, String ip) {
+        Set<Integer> ids = null;
+        if (uuid != null) {
+            ids = activeIdsByUuid.get(uuid);
+        } else if (ip != null && !ip.isBlank()) {
+            ids = activeIdsByIp.get(ip);
+        }
+        if (ids == null || ids.isEmpty()) return null;
+
+        Punishment best = null;
+        for (Integer id : ids) {
+            Punishment p = activeById.get(id);
+            if (p == null || p.type != type || isExpired(p)) continue;
+            if (best == null || p.id > best.id) {
+                best = p;
+            }
+        }
+        return best;
+    }
+
+    private void sweepExpiredSafe() {
+        try {
+            sweepExpired();
+        } catch (Exception e) {
+            logger.error("PunishmentService: Fehler beim Ablauf-Sweep des Aktiv-Index", e);
+        }
+    }
+
+    /**
+     * Entfernt abgelaufene Einträge aus dem Index und deaktiviert sie gebündelt in der DB.
+     */
+    private void sweepExpired() {
+        List<Integer> expired = new ArrayList<>();
+        for (Punishment p : activeById.values()) {
+            if (isExpired(p)) {
+                expired.add(p.id);
+            }
+        }
+        if (expired.isEmpty()) return;
+
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement(
+                     "UPDATE gf_punishments SET active = 0 WHERE id = ?"
+             )) {
+            for (Integer id : expired) {
+                ps.setInt(1, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            logger.error("PunishmentService: Fehler beim Deaktivieren abgelaufener Punishments", e);
+        }
+
+        // auch bei DB-Fehler aus dem Index nehmen – abgelaufen ist abgelaufen
+        expired.forEach(this::unindex);
+        logger.debug("PunishmentService: {} abgelaufene Punishments aus dem Index entfernt.", expired.size());
+    }
+
     private Punishment mapPunishment(ResultSet rs) throws SQLException {
         int id = rs.getInt("id");
         String uuidStr = rs.getString("uuid");
@@ -1019,35 +1378,22 @@ public class PunishmentService {
         return list;
     }
 
+    /**
+     * Tab-Completion: bekannte Namen mit Präfix (nur In-Memory-Index, keine DB).
+     */
     public List<String> findKnownNames(String prefix, int limit) {
-        List<String> list = new ArrayList<>();
         if (limit <= 0) limit = 30;
-        if (prefix == null) prefix = "";
-        String key = prefix.toLowerCase(Locale.ROOT) + "%";
-
-        String sql = "SELECT DISTINCT name FROM gf_punishments " +
-                "WHERE LOWER(name) LIKE ? ORDER BY name ASC LIMIT ?";
-
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setString(1, key);
-            ps.setInt(2, limit);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String name = rs.getString("name");
-                    if (name != null && !name.isBlank()) {
-                        list.add(name);
-                    }
-                }
-            }
+        return nameIndex.complete(NameCompletionIndex.Category.KNOWN, prefix, limit);
+    }
 
-        } catch (SQLException e) {
-            logger.error("Fehler bei findKnownNames(prefix={})", prefix, e);
-        }
+    public List<String> findActiveBannedNames(String prefix, int limit) {
+        if (limit <= 0) limit = 30;
+        return nameIndex.complete(NameCompletionIndex.Category.BANNED, prefix, limit);
+    }
 
-        return list;
+    public List<String> findActiveMutedNames(String prefix, int limit) {
+        if (limit <= 0) limit = 30;
+        return nameIndex.complete(NameCompletionIndex.Category.MUTED, prefix, limit);
     }
 
     public List<String> getActiveBannedNames() {
@@ -1098,6 +1444,21 @@ public class PunishmentService {
         if (ip == null || ip.isBlank()) return list;
         if (limit <= 0) limit = 10;
 
+        if (activeIndexReady) {
+            Set<Integer> ids = activeIdsByIp.get(ip);
+            if (ids == null) return list;
+
+            return ids.stream()
+                    .map(activeById::get)
+                    .filter(p -> p != null
+                            && (p.type == PunishmentType.BAN || p.type == PunishmentType.IP_BAN)
+                            && !isExpired(p)
+                            && (excludeUuid == null || p.uuid == null || !excludeUuid.equals(p.uuid)))
+                    .sorted(NEWEST_FIRST)
+                    .limit(limit)
+                    .toList();
+        }
+
         String sql =
                 "SELECT * FROM gf_punishments " +
                         "WHERE type IN ('BAN','IP_BAN') " +
@@ -1189,5 +1550,12 @@ public class PunishmentService {
 
     public void shutdown() {
         logger.info("PunishmentService: Shutdown aufgerufen.");
+        indexScheduler.shutdownNow();
+        try {
+            // laufenden Sweep/Reload noch mit offenem Pool beenden lassen
+            indexScheduler.awaitTermination(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -1,5 +1,8 @@
 package de.galacticfy.core.service;
 
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PluginMessageEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.ServerConnection;
@@ -9,25 +12,86 @@ import de.galacticfy.core.service.QuestService.QuestDefinition;
 import org.slf4j.Logger;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Schickt die Quest-GUI-Daten an den Spigot-Server.
+ *
+ * - OPEN / UPDATE: komplette Liste inkl. Titel + Beschreibung
+ *   (beim Öffnen, nach Definitionswechsel oder Serverwechsel)
+ * - DELTA: danach nur noch (Index, Fortschritt, fertig) der geänderten Quests –
+ *   aber nur, wenn der Backend-Server für diesen Spieler "HELLO|<version>" mit
+ *   version >= DELTA_PROTOCOL_VERSION geschickt hat; alte Backends bekommen
+ *   weiter volle UPDATEs
+ * - Updates pro Spieler werden innerhalb von debounceWindow zusammengefasst
+ */
 public class QuestGuiMessenger {
 
+    /** Ab dieser GUI-Protokoll-Version (HELLO vom Backend) versteht der Server DELTA. */
+    public static final int DELTA_PROTOCOL_VERSION = 2;
+
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(250);
+
     private final ProxyServer proxy;
     private final ChannelIdentifier channel;
     private final Logger logger;
     private final QuestService questService;
+    private final long debounceMs;
+
+    // was der Spigot-Server pro Spieler zuletzt bekommen hat
+    private final Map<UUID, GuiState> sentState = new ConcurrentHashMap<>();
+    // Spieler mit geplantem Update (Debounce)
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Zuletzt gesendeter Stand, Index = Zeile in der letzten vollen Liste.
+     */
+    private static final class GuiState {
+        // Server, der für diesen Spieler DELTA angekündigt hat (HELLO), sonst null
+        String deltaServerName;
+        String serverName;
+        long definitionVersion;
+        String[] keys;
+        long[] progress;
+        boolean[] completed;
+    }
 
     public QuestGuiMessenger(ProxyServer proxy,
                              ChannelIdentifier channel,
                              Logger logger,
                              QuestService questService) {
+        this(proxy, channel, logger, questService, DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * @param debounceWindow so lange werden Updates eines Spielers gesammelt (0 = sofort senden)
+     */
+    public QuestGuiMessenger(ProxyServer proxy,
+                             ChannelIdentifier channel,
+                             Logger logger,
+                             QuestService questService,
+                             Duration debounceWindow) {
         this.proxy = proxy;
         this.channel = channel;
         this.logger = logger;
         this.questService = questService;
+        this.debounceMs = Math.max(0L, debounceWindow.toMillis());
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "GalacticfyCore-QuestGui");
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     /**
@@ -38,11 +102,6 @@ public class QuestGuiMessenger {
             return;
         }
 
-        UUID uuid = player.getUniqueId();
-        List<PlayerQuestView> questsForPlayer = questService.getQuestsFor(uuid);
-
-        byte[] payload = serialize(questsForPlayer, "OPEN");
-
         Optional<ServerConnection> optConn = player.getCurrentServer();
         if (optConn.isEmpty()) {
             logger.warn("[QuestGuiMessenger] openGui: Spieler {} ist auf KEINEM Server.", player.getUsername());
@@ -51,6 +110,18 @@ public class QuestGuiMessenger {
 
         ServerConnection conn = optConn.get();
         String serverName = conn.getServerInfo().getName();
+
+        UUID uuid = player.getUniqueId();
+        long version = questService.getDefinitionVersion();
+        List<PlayerQuestView> questsForPlayer = questService.getQuestsFor(uuid);
+
+        GuiState state = sentState.computeIfAbsent(uuid, id -> new GuiState());
+        byte[] payload;
+        synchronized (state) {
+            payload = serialize(questsForPlayer, "OPEN");
+            remember(state, serverName, version, questsForPlayer);
+        }
+
         logger.info("[QuestGuiMessenger] Sende OPEN-Payload ({} Bytes) für Spieler {} an Server {} über Channel {}",
                 payload.length, player.getUsername(), serverName, channel.getId());
 
@@ -59,14 +130,86 @@ public class QuestGuiMessenger {
 
     /**
      * Wird vom QuestService beim Fortschritt/Abschluss aufgerufen
-     * (über updateHook).
+     * (über updateHook). Sendet nicht sofort, sondern nach debounceWindow.
      */
     public void pushUpdate(UUID uuid) {
         if (uuid == null) return;
 
+        if (debounceMs == 0L) {
+            sendUpdate(uuid);
+            return;
+        }
+
+        if (!pending.add(uuid)) {
+            return; // Update ist schon geplant und nimmt diese Änderung mit
+        }
+
+        try {
+            scheduler.schedule(() -> {
+                pending.remove(uuid);
+                try {
+                    sendUpdate(uuid);
+                } catch (Exception e) {
+                    logger.error("[QuestGuiMessenger] Fehler beim Senden des Updates für {}", uuid, e);
+                }
+            }, debounceMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Scheduler bereits beendet (Shutdown)
+            pending.remove(uuid);
+        }
+    }
+
+    /**
+     * HELLO vom Backend (galacticfy:quests), z.B. beim Join:
+     *   HELLO|<version>
+     * Gilt für den Spieler, über dessen Verbindung es kam, bis er den Server wechselt.
+     */
+    @Subscribe
+    public void onPluginMessage(PluginMessageEvent event) {
+        if (!event.getIdentifier().equals(channel)) return;
+        if (!(event.getSource() instanceof ServerConnection conn)) return;
+
+        byte[] data = event.getData();
+        if (data == null || data.length < 6) return;
+
+        String msg = new String(data, StandardCharsets.UTF_8);
+        if (!msg.startsWith("HELLO|")) return;
+
+        event.setResult(PluginMessageEvent.ForwardResult.handled());
+
+        int version;
+        try {
+            version = Integer.parseInt(msg.substring(6).trim());
+        } catch (NumberFormatException e) {
+            logger.warn("[QuestGuiMessenger] Ungültiges HELLO von {}: '{}'", conn.getServerInfo().getName(), msg);
+            return;
+        }
+
+        UUID uuid = conn.getPlayer().getUniqueId();
+        String serverName = conn.getServerInfo().getName();
+        GuiState state = sentState.computeIfAbsent(uuid, id -> new GuiState());
+        synchronized (state) {
+            state.deltaServerName = version >= DELTA_PROTOCOL_VERSION ? serverName : null;
+        }
+        logger.debug("[QuestGuiMessenger] {} meldet GUI-Protokoll v{} für {}", serverName, version, uuid);
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        sentState.remove(uuid);
+        pending.remove(uuid);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void sendUpdate(UUID uuid) {
         Player player = proxy.getPlayer(uuid).orElse(null);
         if (player == null) {
             logger.debug("[QuestGuiMessenger] pushUpdate: Spieler {} ist nicht online.", uuid);
+            sentState.remove(uuid);
             return;
         }
 
@@ -76,25 +219,78 @@ public class QuestGuiMessenger {
             return;
         }
 
-        List<PlayerQuestView> list = questService.getQuestsFor(uuid);
-        byte[] payload = serialize(list, "UPDATE");
-
         ServerConnection conn = optConn.get();
         String serverName = conn.getServerInfo().getName();
-        logger.debug("[QuestGuiMessenger] Sende UPDATE-Payload ({} Bytes) für Spieler {} an Server {}",
-                payload.length, player.getUsername(), serverName);
+
+        long version = questService.getDefinitionVersion();
+        List<PlayerQuestView> list = questService.getQuestsFor(uuid);
+
+        GuiState state = sentState.computeIfAbsent(uuid, id -> new GuiState());
+        byte[] payload;
+        String mode;
+        synchronized (state) {
+            if (!serverName.equalsIgnoreCase(state.deltaServerName)
+                    || needsFullUpdate(state, serverName, version, list)) {
+                mode = "UPDATE";
+                payload = serialize(list, mode);
+                remember(state, serverName, version, list);
+            } else {
+                mode = "DELTA";
+                payload = serializeDelta(state, list);
+                if (payload == null) {
+                    return; // nichts geändert
+                }
+            }
+        }
+
+        logger.debug("[QuestGuiMessenger] Sende {}-Payload ({} Bytes) für Spieler {} an Server {}",
+                mode, payload.length, player.getUsername(), serverName);
 
         conn.sendPluginMessage(channel, payload);
     }
 
+    /**
+     * Volle Liste nötig, wenn der Spigot-Server die Indizes nicht kennt:
+     * noch nie gesendet, anderer Server oder andere Quests als beim letzten Mal.
+     */
+    private boolean needsFullUpdate(GuiState state, String serverName, long version, List<PlayerQuestView> list) {
+        if (state.keys == null) return true;
+        if (state.definitionVersion != version) return true;
+        if (!serverName.equalsIgnoreCase(state.serverName)) return true;
+        if (state.keys.length != list.size()) return true;
+
+        for (int i = 0; i < state.keys.length; i++) {
+            if (!state.keys[i].equals(list.get(i).definition().key())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remember(GuiState state, String serverName, long version, List<PlayerQuestView> list) {
+        int size = list.size();
+        state.serverName = serverName;
+        state.definitionVersion = version;
+        state.keys = new String[size];
+        state.progress = new long[size];
+        state.completed = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            PlayerQuestView view = list.get(i);
+            state.keys[i] = view.definition().key();
+            state.progress[i] = view.progress();
+            state.completed[i] = view.completed();
+        }
+    }
+
     /**
      * Payload-Format (UTF-8):
      *
      *   Zeile 0:
      *     MODE
-     *       MODE = "OPEN" oder "UPDATE"
+     *       MODE = "OPEN", "UPDATE" oder "DELTA" (DELTA nur nach HELLO mit Version >= 2)
      *
-     *   ab Zeile 1:
+     *   OPEN / UPDATE, ab Zeile 1:
      *     key|title|desc|type|goal|progress|galas|stardust|completed
      *
      *  - key       → quest_key (z.B. "daily_break_stone_120_daily")
@@ -106,6 +302,11 @@ public class QuestGuiMessenger {
      *  - galas     → reward_galas
      *  - stardust  → reward_stardust
      *  - completed → 1 = fertig, 0 = nicht fertig
+     *
+     *   DELTA, ab Zeile 1 (nur geänderte Quests):
+     *     index|progress|completed
+     *
+     *  - index     → Zeile (0-basiert) in der letzten OPEN/UPDATE-Liste
      */
     private byte[] serialize(List<PlayerQuestView> quests, String mode) {
         StringBuilder sb = new StringBuilder(quests.size() * 128);
@@ -136,6 +337,33 @@ public class QuestGuiMessenger {
         return s.getBytes(StandardCharsets.UTF_8);
     }
 
+    /**
+     * @return DELTA-Payload oder null, wenn sich seit dem letzten Senden nichts geändert hat
+     */
+    private byte[] serializeDelta(GuiState state, List<PlayerQuestView> quests) {
+        StringBuilder sb = null;
+
+        for (int i = 0; i < quests.size(); i++) {
+            PlayerQuestView view = quests.get(i);
+            if (state.progress[i] == view.progress() && state.completed[i] == view.completed()) {
+                continue;
+            }
+
+            state.progress[i] = view.progress();
+            state.completed[i] = view.completed();
+
+            if (sb == null) {
+                sb = new StringBuilder(64).append("DELTA").append('\n');
+            }
+            sb.append(i).append('|')
+                    .append(view.progress()).append('|')
+                    .append(view.completed() ? '1' : '0')
+                    .append('\n');
+        }
+
+        return sb != null ? sb.toString().getBytes(StandardCharsets.UTF_8) : null;
+    }
+
     private String sanitize(String s) {
         if (s == null) return "";
         return s.replace('\n', ' ')
@@ -7,7 +7,15 @@ import org.slf4j.Logger;
 import java.sql.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 
 /**
@@ -22,6 +30,12 @@ import java.util.function.BiConsumer;
  * Zusätzlich:
  * - Täglicher Login mit 24h-Cooldown, in DB gespeichert (gf_quest_meta)
  * - Keine Chat/Actionbar-Nachrichten für Login-Quests/Streaks
+ * - Write-Behind für gf_quest_progress: Änderungen werden pro (uuid, quest_key)
+ *   zusammengefasst und gebündelt per JDBC-Batch geschrieben
+ * - Definitionen liegen in einem unveränderlichen Snapshot (volatile), der
+ *   Tageswechsel läuft geplant um Mitternacht statt lazy im Event-Pfad
+ * - Spieler-Cache ist begrenzt: Eviction beim Disconnect (nach Flush), nach
+ *   Inaktivität und bei zu vielen Einträgen; Vorladen asynchron beim Login
  */
 public class QuestService {
 
@@ -78,6 +92,114 @@ public class QuestService {
         long lastPeriodId; // DAILY: epochDay, WEEKLY: epochDay/7, MONTHLY: year*12+month, LIFETIME: 1
     }
 
+    /**
+     * Unveränderlicher Stand der Quest-Definitionen eines Tages.
+     * Wird bei jeder Generierung komplett neu gebaut und über eine volatile
+     * Referenz veröffentlicht – Leser sehen nie eine halb befüllte Map.
+     */
+    private static final class DefinitionSnapshot {
+        final long version;                            // steigt mit jeder Generierung
+        final LocalDate date;
+        final long dayId;
+        final long weekId;
+        final long monthId;
+
+        final Map<String, QuestDefinition> byKey;      // lower-case Key → Definition (Generierungs-Reihenfolge)
+        final QuestDefinition[] active;                // aktive Quests in Generierungs-Reihenfolge
+        final Map<StatType, QuestDefinition[]> byStat; // StatType → passende aktive Quests
+        final Map<QuestType, QuestDefinition[]> byType; // aktive Quests pro Typ, nach Key sortiert
+        final QuestDefinition[] noDeath;               // aktive No-Death-Quests
+        final QuestDefinition dailyMeta;               // "Erledige 3 Daily-Quests", kann null sein
+
+        DefinitionSnapshot(long version,
+                           LocalDate date,
+                           Map<String, QuestDefinition> byKey,
+                           QuestDefinition[] active,
+                           Map<StatType, QuestDefinition[]> byStat,
+                           Map<QuestType, QuestDefinition[]> byType,
+                           QuestDefinition[] noDeath,
+                           QuestDefinition dailyMeta) {
+            this.version = version;
+            this.date = date;
+            this.dayId = date.toEpochDay();
+            this.weekId = dayId / 7L;
+            this.monthId = (long) date.getYear() * 12L + date.getMonthValue();
+            this.byKey = byKey;
+            this.active = active;
+            this.byStat = byStat;
+            this.byType = byType;
+            this.noDeath = noDeath;
+            this.dailyMeta = dailyMeta;
+        }
+
+        /**
+         * No-Death-Quest dieses Snapshots? Vergleicht per Referenz mit der beim
+         * Laden vorsortierten Liste (wenige Einträge) → keine Allokation pro Stat-Event.
+         */
+        boolean isNoDeath(QuestDefinition def) {
+            for (QuestDefinition d : noDeath) {
+                if (d == def) return true;
+            }
+            return false;
+        }
+
+        long periodId(QuestType type) {
+            return switch (type) {
+                case DAILY, EVENT -> dayId;
+                case WEEKLY -> weekId;
+                case MONTHLY -> monthId;
+                case LIFETIME -> 1L;
+            };
+        }
+
+        QuestDefinition[] ofType(QuestType type) {
+            return byType.getOrDefault(type, NO_QUESTS);
+        }
+
+        QuestDefinition[] forStat(StatType statType) {
+            return byStat.getOrDefault(statType, NO_QUESTS);
+        }
+    }
+
+    /**
+     * Gecachter Zustand eines Spielers: Fortschritt, Login-Cooldown, Anti-AFK.
+     */
+    private static final class PlayerQuestState {
+        final Map<String, QuestProgress> progress;
+        volatile Instant lastLoginCounted;
+        volatile boolean lastLoginLoaded;
+        volatile Instant lastActive;
+        volatile long lastAccessNanos = System.nanoTime();
+        volatile WeeklySelection weekly;
+
+        PlayerQuestState(Map<String, QuestProgress> progress) {
+            this.progress = progress;
+        }
+
+        void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Weekly-Auswahl eines Spielers für einen Definitions-Stand
+     * (hängt nur von uuid + weekId + den Weekly-Definitionen ab).
+     */
+    private record WeeklySelection(long definitionVersion, Set<String> keys) {
+    }
+
+    /**
+     * Schlüssel für ausstehende DB-Writes (ein Eintrag pro Spieler + Quest).
+     */
+    private record ProgressKey(UUID uuid, String questKey) {
+    }
+
+    /**
+     * Snapshot des Fortschritts zum Zeitpunkt der letzten Änderung.
+     */
+    private record PendingProgress(long value, boolean completed) {
+    }
+
     /**
      * Interner Stat-Typ, auf den der QuestEventListener routet.
      */
@@ -156,8 +278,11 @@ public class QuestService {
     private final EconomyService economy;
     private final DatabaseManager db; // optional, kann null sein
 
-    private final Map<String, QuestDefinition> definitions = new LinkedHashMap<>();
-    private final Map<UUID, Map<String, QuestProgress>> progressMap = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerQuestState> playerStates = new ConcurrentHashMap<>();
+
+    // aktueller Definitions-Stand, wird bei jeder Generierung komplett ersetzt
+    private static final QuestDefinition[] NO_QUESTS = new QuestDefinition[0];
+    private volatile DefinitionSnapshot snapshot;
 
     private final List<QuestTemplate> templates = new ArrayList<>();
     private final List<QuestDefinition> lifetimeDefinitions = new ArrayList<>();
@@ -165,19 +290,40 @@ public class QuestService {
     // Hook, damit die GUI live updaten kann
     private java.util.function.Consumer<UUID> updateHook;
 
-    // Rotation / Reroll
-    private LocalDate lastGenerationDate;
+    // Rotation / Reroll (nur unter generationLock ändern)
+    private final Object generationLock = new Object();
     private long rerollOffset = 0L;
+    private long definitionVersion = 0L;
+    private final ScheduledExecutorService rotationScheduler;
 
     // wie viele Weeklies pro Spieler
     private static final int WEEKLY_PER_PLAYER = 5;
 
-    // Login mit 24h-Cooldown
-    private final Map<UUID, Instant> lastLoginCounted = new ConcurrentHashMap<>();
-
-    // No-Death / Playtime-AFK
+    // No-Death: nur Tode von heute, ältere Einträge räumt der Cache-Sweep weg
     private final Map<UUID, LocalDate> lastDeathDate = new ConcurrentHashMap<>();
-    private final Map<UUID, Instant> lastActive = new ConcurrentHashMap<>();
+
+    // Spieler-Cache (nur mit DB, sonst wäre der Fortschritt nach Eviction weg)
+    private static final int PLAYER_CACHE_MAX = 5_000;
+    private static final Duration PLAYER_CACHE_IDLE = Duration.ofMinutes(30);
+    private static final long PLAYER_CACHE_SWEEP_SECONDS = 60L;
+    private final AtomicBoolean sweepRequested = new AtomicBoolean(false);
+    // seit PostLogin online → wird nie aus dem Cache geworfen
+    private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
+
+    // Login-Vorladen: eigener kleiner Pool, damit Login-Wellen den Writer nicht blockieren
+    private static final int LOADER_THREADS = 2;
+    private static final int LOADER_QUEUE = 512;
+    private final ThreadPoolExecutor loader; // null, wenn keine DB
+
+    // Write-Behind (gf_quest_progress)
+    private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(5);
+    private static final int DEFAULT_FLUSH_BATCH_SIZE = 250;
+
+    private final Map<ProgressKey, PendingProgress> dirtyProgress = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final int flushBatchSize;
+    private final ScheduledExecutorService progressWriter; // null, wenn keine DB
 
     // =====================================================
     // CONSTRUCTOR
@@ -188,13 +334,26 @@ public class QuestService {
     }
 
     public QuestService(Logger logger, EconomyService economy, DatabaseManager db) {
+        this(logger, economy, db, DEFAULT_FLUSH_INTERVAL, DEFAULT_FLUSH_BATCH_SIZE);
+    }
+
+    /**
+     * @param flushInterval  wie oft ausstehende Progress-Änderungen geschrieben werden
+     * @param flushBatchSize ab so vielen ausstehenden Einträgen wird sofort geflusht
+     */
+    public QuestService(Logger logger,
+                        EconomyService economy,
+                        DatabaseManager db,
+                        Duration flushInterval,
+                        int flushBatchSize) {
         this.logger = logger;
         this.economy = economy;
         this.db = db;
+        this.flushBatchSize = Math.max(1, flushBatchSize);
 
         registerTemplates();
         registerLifetimeDefinitions();
-        ensureDefinitionsForToday();
+        generateDefinitionsFor(LocalDate.now());
 
         if (db != null) {
             try {
@@ -204,6 +363,43 @@ public class QuestService {
                 logger.error("QuestService: Fehler beim Sync/Setup nach gf_quests/gf_quest_meta", e);
             }
         }
+
+        if (db != null) {
+            long intervalMs = Math.max(250L, flushInterval.toMillis());
+            this.progressWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "GalacticfyCore-QuestProgressWriter");
+                t.setDaemon(true);
+                return t;
+            });
+            this.progressWriter.scheduleWithFixedDelay(this::flushDirtyProgressSafe,
+                    intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            this.progressWriter.scheduleWithFixedDelay(this::sweepPlayerCacheSafe,
+                    PLAYER_CACHE_SWEEP_SECONDS, PLAYER_CACHE_SWEEP_SECONDS, TimeUnit.SECONDS);
+
+            AtomicInteger loaderId = new AtomicInteger();
+            this.loader = new ThreadPoolExecutor(
+                    LOADER_THREADS, LOADER_THREADS,
+                    60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(LOADER_QUEUE),
+                    r -> {
+                        Thread t = new Thread(r, "GalacticfyCore-QuestLoader-" + loaderId.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+            this.loader.allowCoreThreadTimeOut(true);
+        } else {
+            this.progressWriter = null;
+            this.loader = null;
+        }
+
+        this.rotationScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "GalacticfyCore-QuestRotation");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduleDailyRollover();
     }
 
     public void setUpdateHook(java.util.function.Consumer<UUID> hook) {
@@ -232,10 +428,19 @@ public class QuestService {
     private Instant loadLastLoginFromDb(UUID uuid) {
         if (db == null || uuid == null) return null;
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "SELECT last_login_at FROM gf_quest_meta WHERE uuid = ?"
-             )) {
+        try (Connection con = db.getConnection()) {
+            return loadLastLoginFromDb(con, uuid);
+        } catch (SQLException e) {
+            logger.error("QuestService: Fehler beim Laden von last_login_at für {}", uuid, e);
+        }
+
+        return null;
+    }
+
+    private Instant loadLastLoginFromDb(Connection con, UUID uuid) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT last_login_at FROM gf_quest_meta WHERE uuid = ?"
+        )) {
             ps.setString(1, uuid.toString());
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -246,10 +451,7 @@ public class QuestService {
                     }
                 }
             }
-        } catch (SQLException e) {
-            logger.error("QuestService: Fehler beim Laden von last_login_at für {}", uuid, e);
         }
-
         return null;
     }
 
@@ -817,17 +1019,47 @@ public class QuestService {
     // ROTATION & REROLL
     // =====================================================
 
-    private void ensureDefinitionsForToday() {
-        LocalDate today = LocalDate.now();
-        if (lastGenerationDate == null || !lastGenerationDate.equals(today)) {
-            generateDefinitionsFor(today);
+    /**
+     * Plant den nächsten Tageswechsel (kurz nach Mitternacht, Systemzeitzone).
+     * Die Verzögerung wird jedes Mal neu berechnet → Sommer-/Winterzeit passt.
+     */
+    private void scheduleDailyRollover() {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        long delayMs = Duration.between(now, nextMidnight).toMillis() + 1_000L;
+
+        try {
+            rotationScheduler.schedule(this::runDailyRollover, delayMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Scheduler bereits beendet (Shutdown)
+        }
+    }
+
+    private void runDailyRollover() {
+        try {
+            LocalDate today = LocalDate.now();
+            if (!today.equals(snapshot.date)) {
+                synchronized (generationLock) {
+                    rerollOffset = 0L;
+                    generateDefinitionsFor(today);
+                }
+                if (db != null) {
+                    syncDefinitionsToDatabase();
+                }
+            }
+        } catch (Exception e) {
+            logger.error("QuestService: Fehler beim Tageswechsel der Quest-Definitionen", e);
+        } finally {
+            scheduleDailyRollover();
         }
     }
 
     public void reloadDefinitions() {
         logger.info("QuestService: Quest-Definitionen werden neu generiert (Admin-Reload)...");
-        rerollOffset = 0L;
-        generateDefinitionsFor(LocalDate.now());
+        synchronized (generationLock) {
+            rerollOffset = 0L;
+            generateDefinitionsFor(LocalDate.now());
+        }
 
         if (db != null) {
             try {
@@ -841,8 +1073,11 @@ public class QuestService {
 
     public void forceRandomRoll() {
         logger.info("QuestService: Force-Roll wird ausgeführt ...");
-        rerollOffset++;
-        generateDefinitionsFor(LocalDate.now());
+        long offset;
+        synchronized (generationLock) {
+            offset = ++rerollOffset;
+            generateDefinitionsFor(LocalDate.now());
+        }
 
         if (db != null) {
             try {
@@ -852,11 +1087,15 @@ public class QuestService {
             }
         }
 
-        logger.info("QuestService: Force-Roll abgeschlossen — neue Quests wurden generiert (Offset={}).", rerollOffset);
+        logger.info("QuestService: Force-Roll abgeschlossen — neue Quests wurden generiert (Offset={}).", offset);
     }
 
+    /**
+     * Baut die Definitionen für date neu auf und veröffentlicht sie als neuen Snapshot.
+     * Aufrufer halten generationLock (außer im Konstruktor).
+     */
     private void generateDefinitionsFor(LocalDate date) {
-        definitions.clear();
+        Map<String, QuestDefinition> definitions = new LinkedHashMap<>();
 
         // Lifetime immer rein
         for (QuestDefinition def : lifetimeDefinitions) {
@@ -872,20 +1111,21 @@ public class QuestService {
 
         // DAILY
         Random dailyRandom = new Random(dailySeed);
-        generateFromTemplates(QuestType.DAILY, 8, dailyRandom);
+        generateFromTemplates(definitions, QuestType.DAILY, 8, dailyRandom);
 
         // WEEKLY
         Random weeklyRandom = new Random(weeklySeed);
-        generateFromTemplates(QuestType.WEEKLY, 5, weeklyRandom);
+        generateFromTemplates(definitions, QuestType.WEEKLY, 5, weeklyRandom);
 
         // MONTHLY
         Random monthlyRandom = new Random(monthlySeed);
-        generateFromTemplates(QuestType.MONTHLY, 4, monthlyRandom);
+        generateFromTemplates(definitions, QuestType.MONTHLY, 4, monthlyRandom);
 
         // EVENT – pro aktivem Event immer 3 passende Quests
         if (isChristmas(date)) {
             Random eventRandom = new Random(eventSeedBase ^ 0xC01DL);
             generateFromTemplates(
+                    definitions,
                     QuestType.EVENT,
                     3,
                     eventRandom,
@@ -897,6 +1137,7 @@ public class QuestService {
             // FIX: 0xHAL0 war ungültig, jetzt ein normaler Hex-Wert
             Random eventRandom = new Random(eventSeedBase ^ 0xABCD1234L);
             generateFromTemplates(
+                    definitions,
                     QuestType.EVENT,
                     3,
                     eventRandom,
@@ -907,6 +1148,7 @@ public class QuestService {
         if (isEaster(date)) {
             Random eventRandom = new Random(eventSeedBase ^ 0xE45EL);
             generateFromTemplates(
+                    definitions,
                     QuestType.EVENT,
                     3,
                     eventRandom,
@@ -914,17 +1156,61 @@ public class QuestService {
             );
         }
 
-
-        lastGenerationDate = date;
+        this.snapshot = buildSnapshot(date, definitions);
         logger.info("QuestService: {} Quest-Definitionen für {} generiert (inkl. Lifetime, rerollOffset={}).",
                 definitions.size(), date, rerollOffset);
     }
 
-    private void generateFromTemplates(QuestType type, int amount, Random random) {
-        generateFromTemplates(type, amount, random, t -> true);
+    /**
+     * Baut alle Indizes einmal pro Generierung auf, damit ein Stat-Event
+     * nur noch Array-Lookups statt String-Matching über alle Quests macht.
+     */
+    private DefinitionSnapshot buildSnapshot(LocalDate date, Map<String, QuestDefinition> definitions) {
+        List<QuestDefinition> active = new ArrayList<>();
+        for (QuestDefinition def : definitions.values()) {
+            if (def.active()) active.add(def);
+        }
+
+        Map<StatType, QuestDefinition[]> byStat = indexByStat(active);
+
+        Map<QuestType, QuestDefinition[]> byType = new EnumMap<>(QuestType.class);
+        for (QuestType type : QuestType.values()) {
+            QuestDefinition[] ofType = active.stream()
+                    .filter(d -> d.type() == type)
+                    .sorted(Comparator.comparing(QuestDefinition::key))
+                    .toArray(QuestDefinition[]::new);
+            byType.put(type, ofType.length == 0 ? NO_QUESTS : ofType);
+        }
+
+        QuestDefinition[] noDeath = active.stream()
+                .filter(d -> d.key().toLowerCase(Locale.ROOT).contains("nodeath"))
+                .toArray(QuestDefinition[]::new);
+
+        QuestDefinition dailyMeta = active.stream()
+                .filter(d -> d.type() == QuestType.DAILY
+                        && d.key().toLowerCase(Locale.ROOT).startsWith("daily_complete_3_dailies"))
+                .findFirst()
+                .orElse(null);
+
+        return new DefinitionSnapshot(
+                ++definitionVersion,
+                date,
+                Collections.unmodifiableMap(definitions),
+                active.toArray(NO_QUESTS),
+                byStat,
+                byType,
+                noDeath,
+                dailyMeta
+        );
+    }
+
+    private void generateFromTemplates(Map<String, QuestDefinition> definitions,
+                                       QuestType type, int amount, Random random) {
+        generateFromTemplates(definitions, type, amount, random, t -> true);
     }
 
-    private void generateFromTemplates(QuestType type,
+    private void generateFromTemplates(Map<String, QuestDefinition> definitions,
+                                       QuestType type,
                                        int amount,
                                        Random random,
                                        java.util.function.Predicate<QuestTemplate> filter) {
@@ -1028,7 +1314,7 @@ public class QuestService {
                     """;
 
             try (PreparedStatement ps = con.prepareStatement(upsert)) {
-                for (QuestDefinition def : definitions.values()) {
+                for (QuestDefinition def : snapshot.byKey.values()) {
                     ps.setString(1, def.key());
                     ps.setString(2, def.title());
                     ps.setString(3, def.description());
@@ -1049,12 +1335,25 @@ public class QuestService {
     // =====================================================
 
     private Map<String, QuestProgress> loadProgressFor(UUID uuid) {
+        if (db == null) return new ConcurrentHashMap<>();
+
+        try (Connection con = db.getConnection()) {
+            return loadProgressFor(con, uuid);
+        } catch (SQLException e) {
+            logger.error("QuestService: Fehler beim Laden von gf_quest_progress für {}", uuid, e);
+        }
+
+        // DB nicht erreichbar: zumindest die ausstehenden Änderungen behalten
+        Map<String, QuestProgress> map = new ConcurrentHashMap<>();
+        overlayPendingProgress(uuid, map);
+        return map;
+    }
+
+    private Map<String, QuestProgress> loadProgressFor(Connection con, UUID uuid) throws SQLException {
         Map<String, QuestProgress> map = new ConcurrentHashMap<>();
-        if (db == null) return map;
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(
-                     "SELECT quest_key, progress, completed FROM gf_quest_progress WHERE uuid = ?")) {
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT quest_key, progress, completed FROM gf_quest_progress WHERE uuid = ?")) {
             ps.setString(1, uuid.toString());
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -1070,16 +1369,288 @@ public class QuestService {
                     map.put(key, qp);
                 }
             }
-        } catch (SQLException e) {
-            logger.error("QuestService: Fehler beim Laden von gf_quest_progress für {}", uuid, e);
         }
 
+        overlayPendingProgress(uuid, map);
         return map;
     }
 
+    // noch nicht geschriebene Änderungen sind neuer als die DB (z.B. direkt nach Eviction)
+    private void overlayPendingProgress(UUID uuid, Map<String, QuestProgress> map) {
+        for (Map.Entry<ProgressKey, PendingProgress> entry : dirtyProgress.entrySet()) {
+            ProgressKey key = entry.getKey();
+            if (!key.uuid().equals(uuid)) continue;
+
+            QuestProgress qp = map.computeIfAbsent(key.questKey(), k -> new QuestProgress());
+            qp.value = entry.getValue().value();
+            qp.completedForPeriod = entry.getValue().completed();
+            qp.lastPeriodId = computeCurrentPeriodId(getDefinition(key.questKey()));
+        }
+    }
+
+    // =====================================================
+    // SPIELER-CACHE (begrenzt, Eviction + Prefetch)
+    // =====================================================
+
+    private PlayerQuestState stateFor(UUID uuid) {
+        PlayerQuestState state = playerStates.get(uuid);
+        if (state == null) {
+            state = playerStates.computeIfAbsent(uuid, id -> new PlayerQuestState(loadProgressFor(id)));
+            if (playerStates.size() > PLAYER_CACHE_MAX) {
+                requestSweep();
+            }
+        }
+        state.touch();
+        return state;
+    }
+
+    /**
+     * Lädt Fortschritt + Login-Cooldown eines Spielers im Hintergrund vor
+     * (PostLogin), damit der erste Stat nicht synchron auf die DB wartet.
+     * Läuft auf dem Loader-Pool, nicht auf dem Writer – Folgearbeit per thenRun
+     * (handleLogin) ebenso.
+     */
+    public CompletableFuture<Void> prefetch(UUID uuid) {
+        if (uuid == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        onlinePlayers.add(uuid);
+        if (db == null || loader == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        try {
+            return CompletableFuture.runAsync(() -> {
+                PlayerQuestState state = stateFor(uuid);
+                if (!state.lastLoginLoaded) {
+                    state.lastLoginCounted = loadLastLoginFromDb(uuid);
+                    state.lastLoginLoaded = true;
+                }
+            }, loader).exceptionally(ex -> {
+                logger.error("QuestService: Fehler beim Vorladen von {}", uuid, ex);
+                return null;
+            });
+        } catch (Exception e) {
+            // Queue voll oder Shutdown → handleLogin() lädt selbst nach
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Lädt Fortschritt + Login-Cooldown über eine vorhandene Connection
+     * (PlayerProfileLoader beim Login). prefetch()/handleLogin() finden danach
+     * alles im Cache.
+     *
+     * @return zuletzt gezählter Login (gf_quest_meta) oder null
+     */
+    public Instant preload(Connection con, UUID uuid) throws SQLException {
+        if (uuid == null || db == null) return null;
+
+        PlayerQuestState state = playerStates.get(uuid);
+        if (state == null) {
+            PlayerQuestState loaded = new PlayerQuestState(loadProgressFor(con, uuid));
+            state = playerStates.putIfAbsent(uuid, loaded);
+            if (state == null) {
+                state = loaded;
+            }
+        }
+        state.touch();
+
+        if (!state.lastLoginLoaded) {
+            state.lastLoginCounted = loadLastLoginFromDb(con, uuid);
+            state.lastLoginLoaded = true;
+        }
+        return state.lastLoginCounted;
+    }
+
+    /**
+     * Disconnect: ausstehende Writes schreiben, danach Spieler aus dem Cache werfen.
+     */
+    public void unloadPlayer(UUID uuid) {
+        if (uuid == null) return;
+
+        onlinePlayers.remove(uuid);
+        flushProgress(uuid);
+        if (db != null) {
+            playerStates.remove(uuid);
+        }
+    }
+
+    private void requestSweep() {
+        if (progressWriter == null || !sweepRequested.compareAndSet(false, true)) return;
+        try {
+            progressWriter.execute(this::sweepPlayerCacheSafe);
+        } catch (Exception e) {
+            sweepRequested.set(false);
+        }
+    }
+
+    private void sweepPlayerCacheSafe() {
+        try {
+            sweepPlayerCache();
+        } catch (Exception e) {
+            logger.error("QuestService: Fehler beim Aufräumen des Spieler-Caches", e);
+        }
+    }
+
+    /**
+     * Entfernt inaktive Spieler und hält den Cache unter PLAYER_CACHE_MAX.
+     * Online-Spieler bleiben immer drin. Spieler mit ausstehenden Writes auch:
+     * geprüft unter flushLock, damit kein gerade laufender Batch übersehen wird
+     * und ein Nachladen nie einen älteren DB-Stand sieht.
+     */
+    private void sweepPlayerCache() {
+        sweepRequested.set(false);
+
+        long now = System.nanoTime();
+        long idleNanos = PLAYER_CACHE_IDLE.toNanos();
+
+        int evicted = 0;
+        synchronized (flushLock) {
+            Set<UUID> dirtyPlayers = new HashSet<>();
+            for (ProgressKey key : dirtyProgress.keySet()) {
+                dirtyPlayers.add(key.uuid());
+            }
+
+            List<Map.Entry<UUID, PlayerQuestState>> candidates = new ArrayList<>();
+            for (Map.Entry<UUID, PlayerQuestState> entry : playerStates.entrySet()) {
+                UUID uuid = entry.getKey();
+                if (onlinePlayers.contains(uuid) || dirtyPlayers.contains(uuid)) continue;
+
+                if (now - entry.getValue().lastAccessNanos > idleNanos) {
+                    if (playerStates.remove(uuid, entry.getValue())) {
+                        evicted++;
+                    }
+                } else {
+                    candidates.add(entry);
+                }
+            }
+
+            int overflow = playerStates.size() - PLAYER_CACHE_MAX;
+            if (overflow > 0) {
+                candidates.sort(Comparator.comparingLong(e -> e.getValue().lastAccessNanos));
+                for (int i = 0; i < overflow && i < candidates.size(); i++) {
+                    Map.Entry<UUID, PlayerQuestState> entry = candidates.get(i);
+                    if (playerStates.remove(entry.getKey(), entry.getValue())) {
+                        evicted++;
+                    }
+                }
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        lastDeathDate.values().removeIf(date -> !date.equals(today));
+
+        if (evicted > 0) {
+            logger.debug("QuestService: {} Spieler aus dem Quest-Cache entfernt ({} verbleibend).",
+                    evicted, playerStates.size());
+        }
+    }
+
+    /**
+     * Merkt den aktuellen Stand als "dirty" vor. Mehrere Änderungen an derselben
+     * Quest werden bis zum nächsten Flush zu einem einzigen Write zusammengefasst.
+     */
     private void saveProgress(UUID uuid, QuestDefinition def, QuestProgress qp) {
         if (db == null || def == null || uuid == null || qp == null) return;
 
+        dirtyProgress.put(new ProgressKey(uuid, def.key()),
+                new PendingProgress(qp.value, qp.completedForPeriod));
+
+        if (dirtyProgress.size() >= flushBatchSize
+                && progressWriter != null
+                && flushRequested.compareAndSet(false, true)) {
+            try {
+                progressWriter.execute(this::flushDirtyProgressSafe);
+            } catch (Exception e) {
+                // Writer bereits beendet -> beim Shutdown wird synchron geflusht
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Schreibt alle ausstehenden Progress-Änderungen per Batch in die DB.
+     */
+    public void flushDirtyProgress() {
+        if (db == null) return;
+
+        synchronized (flushLock) {
+            flushRequested.set(false);
+            if (dirtyProgress.isEmpty()) return;
+
+            Map<ProgressKey, PendingProgress> batch = new LinkedHashMap<>();
+            for (ProgressKey key : dirtyProgress.keySet()) {
+                PendingProgress pending = dirtyProgress.remove(key);
+                if (pending != null) {
+                    batch.put(key, pending);
+                }
+            }
+            writeProgressBatch(batch);
+        }
+    }
+
+    /**
+     * Schreibt sofort alle ausstehenden Änderungen eines Spielers (z.B. beim Disconnect).
+     */
+    public void flushProgress(UUID uuid) {
+        if (db == null || uuid == null) return;
+
+        synchronized (flushLock) {
+            Map<ProgressKey, PendingProgress> batch = new LinkedHashMap<>();
+            for (ProgressKey key : dirtyProgress.keySet()) {
+                if (!key.uuid().equals(uuid)) continue;
+
+                PendingProgress pending = dirtyProgress.remove(key);
+                if (pending != null) {
+                    batch.put(key, pending);
+                }
+            }
+            writeProgressBatch(batch);
+        }
+    }
+
+    /**
+     * Beendet den Writer und schreibt alle noch offenen Änderungen.
+     * Muss VOR dem Schließen des DB-Pools aufgerufen werden.
+     */
+    public void shutdown() {
+        rotationScheduler.shutdownNow();
+
+        if (loader != null) {
+            loader.shutdown();
+            try {
+                loader.awaitTermination(3, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (progressWriter != null) {
+            progressWriter.shutdown();
+            try {
+                progressWriter.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int pending = dirtyProgress.size();
+        flushDirtyProgress();
+        logger.info("QuestService: Shutdown, {} ausstehende Progress-Einträge geschrieben.", pending);
+    }
+
+    private void flushDirtyProgressSafe() {
+        try {
+            flushDirtyProgress();
+        } catch (Exception e) {
+            logger.error("QuestService: Fehler im Write-Behind-Flush für gf_quest_progress", e);
+        }
+    }
+
+    private void writeProgressBatch(Map<ProgressKey, PendingProgress> batch) {
+        if (batch.isEmpty()) return;
+
         try (Connection con = db.getConnection();
              PreparedStatement ps = con.prepareStatement("""
                  INSERT INTO gf_quest_progress
@@ -1097,16 +1668,33 @@ public class QuestService {
                      last_update = CURRENT_TIMESTAMP
                  """)) {
 
-            ps.setString(1, uuid.toString());
-            ps.setString(2, def.key());
-            ps.setLong(3, qp.value);
-            ps.setBoolean(4, qp.completedForPeriod);
-            ps.setBoolean(5, qp.completedForPeriod);
-            ps.setBoolean(6, qp.completedForPeriod); // == already rewarded, weil Auto-Payout
-            ps.executeUpdate();
+            int inBatch = 0;
+            for (Map.Entry<ProgressKey, PendingProgress> entry : batch.entrySet()) {
+                ProgressKey key = entry.getKey();
+                PendingProgress pending = entry.getValue();
+
+                ps.setString(1, key.uuid().toString());
+                ps.setString(2, key.questKey());
+                ps.setLong(3, pending.value());
+                ps.setBoolean(4, pending.completed());
+                ps.setBoolean(5, pending.completed());
+                ps.setBoolean(6, pending.completed()); // == already rewarded, weil Auto-Payout
+                ps.addBatch();
+
+                if (++inBatch >= flushBatchSize) {
+                    ps.executeBatch();
+                    inBatch = 0;
+                }
+            }
+            if (inBatch > 0) {
+                ps.executeBatch();
+            }
         } catch (SQLException e) {
-            logger.error("QuestService: Fehler beim Speichern von gf_quest_progress ({} / {})",
-                    uuid, def.key(), e);
+            logger.error("QuestService: Fehler beim Batch-Speichern von gf_quest_progress ({} Einträge)",
+                    batch.size(), e);
+
+            // nicht verlieren: zurück in die Queue, neuere Änderungen haben Vorrang
+            batch.forEach(dirtyProgress::putIfAbsent);
         }
     }
 
@@ -1116,33 +1704,44 @@ public class QuestService {
 
     public QuestDefinition getDefinition(String key) {
         if (key == null) return null;
-        ensureDefinitionsForToday();
-        return definitions.get(key.toLowerCase(Locale.ROOT));
+        return snapshot.byKey.get(key.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Ändert sich bei jeder Neugenerierung (Tageswechsel, Reload, Reroll).
+     */
+    public long getDefinitionVersion() {
+        return snapshot.version;
     }
 
     public List<String> getActiveQuestKeys() {
-        ensureDefinitionsForToday();
-        return definitions.values().stream()
-                .filter(QuestDefinition::active)
+        return Arrays.stream(snapshot.active)
                 .map(QuestDefinition::key)
                 .sorted(String::compareToIgnoreCase)
                 .toList();
     }
 
-    private Set<String> getWeeklyKeysForPlayer(UUID uuid) {
-        ensureDefinitionsForToday();
+    /**
+     * Weekly-Auswahl aus dem Spieler-Cache; wird nur nach einer Neugenerierung
+     * der Definitionen (Tageswechsel, Reload, Reroll) neu berechnet.
+     */
+    private Set<String> getWeeklyKeysForPlayer(DefinitionSnapshot defs, UUID uuid, PlayerQuestState state) {
+        WeeklySelection selection = state.weekly;
+        if (selection == null || selection.definitionVersion() != defs.version) {
+            selection = new WeeklySelection(defs.version, computeWeeklyKeysForPlayer(defs, uuid));
+            state.weekly = selection;
+        }
+        return selection.keys();
+    }
 
-        List<QuestDefinition> allWeeklies = definitions.values().stream()
-                .filter(d -> d.active() && d.type() == QuestType.WEEKLY)
-                .sorted(Comparator.comparing(QuestDefinition::key))
-                .toList();
+    private Set<String> computeWeeklyKeysForPlayer(DefinitionSnapshot defs, UUID uuid) {
+        List<QuestDefinition> allWeeklies = Arrays.asList(defs.ofType(QuestType.WEEKLY));
 
         if (allWeeklies.isEmpty()) {
             return Collections.emptySet();
         }
 
-        long today = LocalDate.now().toEpochDay();
-        long weekId = today / 7L;
+        long weekId = defs.weekId;
         long seed = uuid.getMostSignificantBits()
                 ^ uuid.getLeastSignificantBits()
                 ^ (weekId * 31_415_927L);
@@ -1158,22 +1757,20 @@ public class QuestService {
             result.add(pick.key());
         }
 
-        return result;
+        return Set.copyOf(result);
     }
 
     public List<PlayerQuestView> getQuestsFor(UUID uuid) {
         if (uuid == null) return List.of();
-        ensureDefinitionsForToday();
+        DefinitionSnapshot defs = snapshot;
 
-        Map<String, QuestProgress> map = progressMap
-                .computeIfAbsent(uuid, this::loadProgressFor);
+        PlayerQuestState state = stateFor(uuid);
+        Map<String, QuestProgress> map = state.progress;
 
         List<PlayerQuestView> result = new ArrayList<>();
-        Set<String> weeklyForPlayer = getWeeklyKeysForPlayer(uuid);
-
-        for (QuestDefinition def : definitions.values()) {
-            if (!def.active()) continue;
+        Set<String> weeklyForPlayer = getWeeklyKeysForPlayer(defs, uuid, state);
 
+        for (QuestDefinition def : defs.active) {
             if (def.type() == QuestType.WEEKLY && !weeklyForPlayer.contains(def.key())) {
                 continue;
             }
@@ -1182,7 +1779,7 @@ public class QuestService {
 
             // Periodenwechsel
             if (qp != null && def.type() != QuestType.LIFETIME) {
-                long currentPeriod = computeCurrentPeriodId(def);
+                long currentPeriod = defs.periodId(def.type());
                 if (qp.lastPeriodId != currentPeriod) {
                     qp.lastPeriodId = currentPeriod;
                     qp.value = 0;
@@ -1208,20 +1805,23 @@ public class QuestService {
         logger.warn("QuestService: ADMIN-Reset für ALLE Quest-Fortschritte wird ausgeführt ...");
 
         // betroffene Spieler merken, damit wir das GUI refreshen können
-        Set<UUID> affected = new HashSet<>(progressMap.keySet());
+        Set<UUID> affected = new HashSet<>(playerStates.keySet());
 
-        progressMap.clear();
-        lastLoginCounted.clear();
+        playerStates.clear();
         lastDeathDate.clear();
-        lastActive.clear();
 
         if (db != null) {
-            try (Connection con = db.getConnection();
-                 Statement st = con.createStatement()) {
-                st.executeUpdate("DELETE FROM gf_quest_progress");
-                st.executeUpdate("DELETE FROM gf_quest_meta");
-            } catch (SQLException e) {
-                logger.error("QuestService: Fehler beim globalen Reset von gf_quest_progress / gf_quest_meta", e);
+            // ausstehende Writes verwerfen, sonst tauchen gelöschte Zeilen wieder auf
+            synchronized (flushLock) {
+                dirtyProgress.clear();
+
+                try (Connection con = db.getConnection();
+                     Statement st = con.createStatement()) {
+                    st.executeUpdate("DELETE FROM gf_quest_progress");
+                    st.executeUpdate("DELETE FROM gf_quest_meta");
+                } catch (SQLException e) {
+                    logger.error("QuestService: Fehler beim globalen Reset von gf_quest_progress / gf_quest_meta", e);
+                }
             }
         }
 
@@ -1241,27 +1841,29 @@ public class QuestService {
         if (uuid == null) return;
 
         // Cache leeren
-        progressMap.remove(uuid);
-        lastLoginCounted.remove(uuid);
+        playerStates.remove(uuid);
         lastDeathDate.remove(uuid);
-        lastActive.remove(uuid);
 
-        // Datenbank löschen
+        // Datenbank löschen (inkl. ausstehender Writes)
         if (db != null) {
-            try (Connection con = db.getConnection();
-                 PreparedStatement ps1 = con.prepareStatement(
-                         "DELETE FROM gf_quest_progress WHERE uuid = ?"
-                 );
-                 PreparedStatement ps2 = con.prepareStatement(
-                         "DELETE FROM gf_quest_meta WHERE uuid = ?"
-                 )) {
-                ps1.setString(1, uuid.toString());
-                ps1.executeUpdate();
-
-                ps2.setString(1, uuid.toString());
-                ps2.executeUpdate();
-            } catch (SQLException e) {
-                logger.error("[Quests] Konnte Progress/Meta für {} nicht löschen", uuid, e);
+            synchronized (flushLock) {
+                dirtyProgress.keySet().removeIf(key -> key.uuid().equals(uuid));
+
+                try (Connection con = db.getConnection();
+                     PreparedStatement ps1 = con.prepareStatement(
+                             "DELETE FROM gf_quest_progress WHERE uuid = ?"
+                     );
+                     PreparedStatement ps2 = con.prepareStatement(
+                             "DELETE FROM gf_quest_meta WHERE uuid = ?"
+                     )) {
+                    ps1.setString(1, uuid.toString());
+                    ps1.executeUpdate();
+
+                    ps2.setString(1, uuid.toString());
+                    ps2.executeUpdate();
+                } catch (SQLException e) {
+                    logger.error("[Quests] Konnte Progress/Meta für {} nicht löschen", uuid, e);
+                }
             }
         }
 
@@ -1384,7 +1986,8 @@ public class QuestService {
 
         // Anti-AFK: nur zählen, wenn in den letzten 3 Minuten etwas passiert ist
         Instant now = Instant.now();
-        Instant last = lastActive.get(uuid);
+        PlayerQuestState state = playerStates.get(uuid);
+        Instant last = (state != null) ? state.lastActive : null;
 
         if (last == null || Duration.between(last, now).toMinutes() >= 3) {
             // Spieler ist offenbar AFK -> keine Playtime-Quests fortschreiben
@@ -1399,14 +2002,14 @@ public class QuestService {
         if (uuid == null) return;
 
         Instant now = Instant.now();
+        PlayerQuestState state = stateFor(uuid);
 
-        Instant last = lastLoginCounted.get(uuid);
-        if (last == null && db != null) {
-            last = loadLastLoginFromDb(uuid);
-            if (last != null) {
-                lastLoginCounted.put(uuid, last);
-            }
+        // normalerweise schon durch prefetch() geladen
+        if (!state.lastLoginLoaded && db != null) {
+            state.lastLoginCounted = loadLastLoginFromDb(uuid);
+            state.lastLoginLoaded = true;
         }
+        Instant last = state.lastLoginCounted;
 
         if (last != null) {
             Duration diff = Duration.between(last, now);
@@ -1416,7 +2019,7 @@ public class QuestService {
             }
         }
 
-        lastLoginCounted.put(uuid, now);
+        state.lastLoginCounted = now;
         saveLastLoginToDb(uuid, now);
 
         applyStatToMatchingQuests(uuid, name, 1, sender, StatType.LOGIN);
@@ -1509,27 +2112,22 @@ public class QuestService {
         if (uuid == null || amount <= 0) return;
 
         // 1) Zeit des letzten Todes merken (für No-Death-Quests)
-        lastDeathDate.put(uuid, LocalDate.now());
+        lastDeathDate.put(uuid, snapshot.date);
 
         // 2) Normale Death-Quests (falls später nötig)
         applyStatToMatchingQuests(uuid, name, amount, sender, StatType.DEATH);
 
         // 3) No-Death-Quests zurücksetzen
-        Map<String, QuestProgress> playerMap = progressMap.get(uuid);
-        if (playerMap == null) {
+        PlayerQuestState state = playerStates.get(uuid);
+        if (state == null) {
             return;
         }
+        Map<String, QuestProgress> playerMap = state.progress;
 
         boolean changed = false;
 
-        for (QuestDefinition def : definitions.values()) {
-            if (!def.active()) continue;
-
-            String key = def.key().toLowerCase(Locale.ROOT);
-
-            // unsere No-Death-Quests erkennen wir am Key
-            if (!key.contains("nodeath")) continue;
-
+        // No-Death-Quests werden beim Generieren vorsortiert (Key enthält "nodeath")
+        for (QuestDefinition def : snapshot.noDeath) {
             QuestProgress qp = playerMap.get(def.key());
             if (qp == null) continue;
 
@@ -1608,24 +2206,39 @@ public class QuestService {
                                            BiConsumer<UUID, Component> sender,
                                            StatType statType) {
         if (uuid == null || amount <= 0) return;
-        ensureDefinitionsForToday();
+        DefinitionSnapshot defs = snapshot;
 
         // Anti-AFK: jede Aktion außer PLAYTIME gilt als Aktivität
         if (statType != StatType.PLAYTIME) {
-            lastActive.put(uuid, Instant.now());
+            stateFor(uuid).lastActive = Instant.now();
         }
 
         long effective = amount; // keine Boni mehr, 1:1 zählen
 
-        for (QuestDefinition def : definitions.values()) {
-            if (!def.active()) continue;
-            if (!matchesStat(def, statType)) continue;
+        for (QuestDefinition def : defs.forStat(statType)) {
+            increment(defs, uuid, name, def, effective, statType, sender);
+        }
+    }
 
-            increment(uuid, name, def.key(), def.type(), effective, statType, sender);
+    /**
+     * StatType → passende aktive Quests (paketintern, damit der Dispatch-Benchmark
+     * denselben Index misst wie buildSnapshot).
+     */
+    static Map<StatType, QuestDefinition[]> indexByStat(List<QuestDefinition> active) {
+        Map<StatType, QuestDefinition[]> byStat = new EnumMap<>(StatType.class);
+        for (StatType statType : StatType.values()) {
+            List<QuestDefinition> matching = new ArrayList<>();
+            for (QuestDefinition def : active) {
+                if (matchesStat(def, statType)) {
+                    matching.add(def);
+                }
+            }
+            byStat.put(statType, matching.isEmpty() ? NO_QUESTS : matching.toArray(NO_QUESTS));
         }
+        return byStat;
     }
 
-    private boolean matchesStat(QuestDefinition def, StatType statType) {
+    static boolean matchesStat(QuestDefinition def, StatType statType) {
         String k = def.key().toLowerCase(Locale.ROOT);
         boolean isLifetime = (def.type() == QuestType.LIFETIME);
 
@@ -1725,47 +2338,38 @@ public class QuestService {
 
     private long computeCurrentPeriodId(QuestDefinition def) {
         if (def == null) return 1L;
-        LocalDate today = LocalDate.now();
-        long todayEpoch = today.toEpochDay();
-
-        return switch (def.type()) {
-            case DAILY, EVENT -> todayEpoch;
-            case WEEKLY -> todayEpoch / 7L;
-            case MONTHLY -> (long) today.getYear() * 12L + today.getMonthValue();
-            case LIFETIME -> 1L;
-        };
+        return snapshot.periodId(def.type());
     }
 
-    private void increment(UUID uuid,
+    private void increment(DefinitionSnapshot defs,
+                           UUID uuid,
                            String name,
-                           String questKey,
-                           QuestType typeHint,
+                           QuestDefinition def,
                            long delta,
                            StatType statType,
                            BiConsumer<UUID, Component> sender) {
 
         if (uuid == null || delta <= 0) return;
-        ensureDefinitionsForToday();
-
-        QuestDefinition def = getDefinition(questKey);
-        if (def == null) return;
-        if (!def.active()) return;
+        if (def == null || !def.active()) return;
 
         // No-Death-Quest: nur zählen, wenn heute noch kein Tod registriert
-        String defKeyLower = def.key().toLowerCase(Locale.ROOT);
-        if (defKeyLower.contains("nodeath")) {
-            LocalDate today = LocalDate.now();
+        if (defs.isNoDeath(def)) {
             LocalDate lastDeath = lastDeathDate.get(uuid);
-            if (lastDeath != null && lastDeath.equals(today)) {
+            if (lastDeath != null && lastDeath.equals(defs.date)) {
                 return;
             }
         }
 
         QuestType type = def.type();
-        long periodId = computeCurrentPeriodId(def);
+        PlayerQuestState state = stateFor(uuid);
+
+        // Weeklies, die dem Spieler diese Woche nicht zugeteilt sind, gar nicht erst zählen
+        if (type == QuestType.WEEKLY && !getWeeklyKeysForPlayer(defs, uuid, state).contains(def.key())) {
+            return;
+        }
 
-        Map<String, QuestProgress> playerMap = progressMap
-                .computeIfAbsent(uuid, this::loadProgressFor);
+        long periodId = defs.periodId(type);
+        Map<String, QuestProgress> playerMap = state.progress;
 
         QuestProgress qp = playerMap.computeIfAbsent(def.key(), k -> new QuestProgress());
 
@@ -1814,7 +2418,7 @@ public class QuestService {
             }
 
             // Abschluss-Nachricht NICHT für Login-Quests/Streaks
-            boolean isLoginQuest = defKeyLower.contains("login");
+            boolean isLoginQuest = def.key().toLowerCase(Locale.ROOT).contains("login");
 
             if (sender != null && !isLoginQuest) {
                 String reward = "";
@@ -1831,16 +2435,10 @@ public class QuestService {
                     def.key(), name, uuid);
 
             // Meta-Quest: "Erledige 3 Daily-Quests"
-            if (def.type() == QuestType.DAILY && !isLoginQuest) {
-                definitions.values().stream()
-                        .filter(q -> q.active()
-                                && q.type() == QuestType.DAILY
-                                && q.key().toLowerCase(Locale.ROOT).startsWith("daily_complete_3_dailies"))
-                        .filter(q -> !q.key().equals(def.key()))
-                        .findFirst()
-                        .ifPresent(meta ->
-                                increment(uuid, name, meta.key(), meta.type(), 1, StatType.LOGIN, sender)
-                        );
+            QuestDefinition meta = defs.dailyMeta;
+            if (def.type() == QuestType.DAILY && !isLoginQuest
+                    && meta != null && !meta.key().equals(def.key())) {
+                increment(defs, uuid, name, meta, 1, StatType.LOGIN, sender);
             }
         }
 
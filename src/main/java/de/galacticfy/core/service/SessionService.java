@@ -6,8 +6,24 @@ import org.slf4j.Logger;
 import java.sql.*;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Sessions (gf_sessions).
+ *
+ * - Laufende Sessions liegen im Speicher (Login-Zeitpunkt, aktueller Server),
+ *   die Sessiondauer wird lokal berechnet
+ * - Login/Logout/Serverwechsel landen als ausstehender Eintrag pro Spieler in
+ *   dirtySessions und werden vom Writer per Batch-Upsert geschrieben
+ * - Der Listener macht dadurch keine DB-Roundtrips mehr
+ */
 public class SessionService {
 
     public record SessionInfo(
@@ -20,67 +36,148 @@ public class SessionService {
             String lastServer
     ) {}
 
+    // Write-Behind (gf_sessions)
+    private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(5);
+    private static final int DEFAULT_FLUSH_BATCH_SIZE = 250;
+    // danach wird ein Eintrag verworfen (Dead-Letter-Log), damit er den Writer nicht blockiert
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
     private final DatabaseManager db;
     private final Logger logger;
 
+    /**
+     * Eine laufende Session (Spieler ist online).
+     */
+    private static final class LiveSession {
+        final Instant loginAt;
+        volatile String name;
+        volatile String currentServer;
+        // Stand aus gf_sessions beim Login, null = noch nicht geladen
+        volatile StoredSession stored;
+
+        LiveSession(Instant loginAt, String name, String currentServer) {
+            this.loginAt = loginAt;
+            this.name = name;
+            this.currentServer = currentServer;
+        }
+    }
+
+    private record StoredSession(Instant firstLogin, Instant lastLogout, long totalPlaySeconds) {
+    }
+
+    /**
+     * Noch nicht geschriebene Änderung an einer Zeile.
+     * Felder = null → Wert in der DB bleibt, addSeconds wird aufaddiert.
+     * attempts = fehlgeschlagene Schreibversuche.
+     */
+    private record PendingSession(String name,
+                                  Instant lastLogin,
+                                  Instant lastLogout,
+                                  long addSeconds,
+                                  String lastServer,
+                                  int attempts) {
+
+        PendingSession(String name, Instant lastLogin, Instant lastLogout, long addSeconds, String lastServer) {
+            this(name, lastLogin, lastLogout, addSeconds, lastServer, 0);
+        }
+
+        /**
+         * Fasst diesen (älteren) Eintrag mit einem neueren zusammen.
+         */
+        PendingSession then(PendingSession next) {
+            return new PendingSession(
+                    next.name != null ? next.name : name,
+                    next.lastLogin != null ? next.lastLogin : lastLogin,
+                    next.lastLogout != null ? next.lastLogout : lastLogout,
+                    addSeconds + next.addSeconds,
+                    next.lastServer != null ? next.lastServer : lastServer,
+                    Math.max(attempts, next.attempts)
+            );
+        }
+
+        PendingSession retried() {
+            return new PendingSession(name, lastLogin, lastLogout, addSeconds, lastServer, attempts + 1);
+        }
+    }
+
+    private final Map<UUID, LiveSession> liveSessions = new ConcurrentHashMap<>();
+    // vom PlayerProfileLoader vorgeladen (LoginEvent), wird von onLogin() übernommen
+    private final Map<UUID, StoredSession> primedSessions = new ConcurrentHashMap<>();
+    private final Map<UUID, PendingSession> dirtySessions = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final int flushBatchSize;
+    private final ScheduledExecutorService writer;
+
     public SessionService(DatabaseManager db, Logger logger) {
+        this(db, logger, DEFAULT_FLUSH_INTERVAL, DEFAULT_FLUSH_BATCH_SIZE);
+    }
+
+    /**
+     * @param flushInterval  wie oft ausstehende Session-Änderungen geschrieben werden
+     * @param flushBatchSize so viele Zeilen pro executeBatch()
+     */
+    public SessionService(DatabaseManager db, Logger logger, Duration flushInterval, int flushBatchSize) {
         this.db = db;
         this.logger = logger;
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+
+        long intervalMs = Math.max(250L, flushInterval.toMillis());
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "GalacticfyCore-SessionWriter");
+            t.setDaemon(true);
+            return t;
+        });
+        this.writer.scheduleWithFixedDelay(this::flushSafe, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
     }
 
+    // ============================================================
+    // LOGIN / LOGOUT
+    // ============================================================
+
+    /**
+     * Startet die Session im Speicher. Der Upsert (name, last_login, last_server)
+     * läuft über den Writer, der gespeicherte Stand wird asynchron nachgeladen.
+     */
     public void onLogin(UUID uuid, String name, String serverName) {
-        String select = """
-                SELECT id, first_login, last_login, last_logout, total_play_seconds, last_server
-                FROM gf_sessions
-                WHERE uuid = ?
-                """;
+        if (uuid == null) return;
 
-        String insert = """
-                INSERT INTO gf_sessions
-                (uuid, name, first_login, last_login, last_server, total_play_seconds)
-                VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, ?, 0)
-                """;
+        Instant now = Instant.now();
+        LiveSession session = new LiveSession(now, name, serverName);
+        liveSessions.put(uuid, session);
 
-        String update = """
-                UPDATE gf_sessions
-                SET name = ?,
-                    last_login = CURRENT_TIMESTAMP,
-                    last_server = ?
-                WHERE uuid = ?
-                """;
+        enqueue(uuid, new PendingSession(name, now, null, 0L, serverName));
 
-        try (Connection con = db.getConnection()) {
-            try (PreparedStatement ps = con.prepareStatement(select)) {
-                ps.setString(1, uuid.toString());
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (!rs.next()) {
-                        // neuer Spieler
-                        try (PreparedStatement ins = con.prepareStatement(insert)) {
-                            ins.setString(1, uuid.toString());
-                            ins.setString(2, name);
-                            ins.setString(3, serverName);
-                            ins.executeUpdate();
-                        }
-                    } else {
-                        // bestehenden updaten
-                        try (PreparedStatement upd = con.prepareStatement(update)) {
-                            upd.setString(1, name);
-                            upd.setString(2, serverName);
-                            upd.setString(3, uuid.toString());
-                            upd.executeUpdate();
-                        }
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            logger.error("Fehler beim Session-Login-Update für {}", name, e);
+        StoredSession primed = primedSessions.remove(uuid);
+        if (primed != null) {
+            session.stored = withPending(uuid, primed);
+            return;
+        }
+
+        try {
+            writer.execute(() -> loadStored(uuid, session));
+        } catch (Exception e) {
+            // Writer bereits beendet (Shutdown) → getSession() fällt auf die DB zurück
+            logger.debug("SessionService: Stand für {} konnte nicht vorgeladen werden.", uuid, e);
         }
     }
 
+    /**
+     * Serverwechsel eines Online-Spielers.
+     */
+    public void onServerSwitch(UUID uuid, String serverName) {
+        if (uuid == null || serverName == null) return;
+
+        LiveSession session = liveSessions.get(uuid);
+        if (session == null) return;
+
+        session.currentServer = serverName;
+        enqueue(uuid, new PendingSession(null, null, null, 0L, serverName));
+    }
+
     /**
      * Wird beim Logout aufgerufen.
      *
-     * Aktualisiert:
+     * Beendet die Session im Speicher und merkt vor:
      *  - last_logout
      *  - total_play_seconds += Sessiondauer
      *
@@ -89,61 +186,355 @@ public class SessionService {
     public long onLogout(UUID uuid) {
         if (uuid == null) return 0L;
 
-        String select = """
-                SELECT TIMESTAMPDIFF(SECOND, last_login, CURRENT_TIMESTAMP) AS session_seconds
-                FROM gf_sessions
-                WHERE uuid = ?
-                """;
+        primedSessions.remove(uuid);
+        LiveSession session = liveSessions.remove(uuid);
+        if (session == null) {
+            return 0L;
+        }
 
-        String update = """
-                UPDATE gf_sessions
-                SET last_logout = CURRENT_TIMESTAMP,
-                    total_play_seconds = total_play_seconds + ?
-                WHERE uuid = ?
+        long sessionSeconds = closeSession(uuid, session, Instant.now());
+
+        long minutes = sessionSeconds / 60L;
+        logger.debug("SessionService: Logout {} – SessionSekunden={}, Minuten={}",
+                uuid, sessionSeconds, minutes);
+        return minutes;
+    }
+
+    // ============================================================
+    // LESEN
+    // ============================================================
+
+    /**
+     * Online-Spieler: direkt aus dem Speicher (sobald der gespeicherte Stand
+     * geladen ist). Sonst DB, überlagert mit noch nicht geschriebenen Änderungen.
+     */
+    public SessionInfo getSession(UUID uuid) {
+        if (uuid == null) return null;
+
+        LiveSession live = liveSessions.get(uuid);
+        if (live != null && live.stored != null) {
+            StoredSession stored = live.stored;
+            return new SessionInfo(
+                    uuid,
+                    live.name,
+                    stored.firstLogin() != null ? stored.firstLogin() : live.loginAt,
+                    live.loginAt,
+                    stored.lastLogout(),
+                    stored.totalPlaySeconds(),
+                    live.currentServer
+            );
+        }
+
+        SessionInfo info = loadSession(uuid);
+        PendingSession pending = dirtySessions.get(uuid);
+        if (pending == null) {
+            return info;
+        }
+
+        if (info == null) {
+            // Zeile noch nicht geschrieben (ganz neuer Spieler)
+            return new SessionInfo(uuid, pending.name(), pending.lastLogin(), pending.lastLogin(),
+                    pending.lastLogout(), pending.addSeconds(), pending.lastServer());
+        }
+        return new SessionInfo(
+                info.uuid(),
+                pending.name() != null ? pending.name() : info.name(),
+                info.firstLogin(),
+                pending.lastLogin() != null ? pending.lastLogin() : info.lastLogin(),
+                pending.lastLogout() != null ? pending.lastLogout() : info.lastLogout(),
+                info.totalPlaySeconds() + pending.addSeconds(),
+                pending.lastServer() != null ? pending.lastServer() : info.lastServer()
+        );
+    }
+
+    public boolean isOnline(UUID uuid) {
+        return uuid != null && liveSessions.containsKey(uuid);
+    }
+
+    public Optional<String> getCurrentServer(UUID uuid) {
+        LiveSession live = uuid != null ? liveSessions.get(uuid) : null;
+        return live != null ? Optional.ofNullable(live.currentServer) : Optional.empty();
+    }
+
+    /**
+     * @return Sekunden seit Login der laufenden Session, 0 wenn offline
+     */
+    public long getCurrentSessionSeconds(UUID uuid) {
+        LiveSession live = uuid != null ? liveSessions.get(uuid) : null;
+        return live != null ? sessionSeconds(live, Instant.now()) : 0L;
+    }
+
+    public int getOnlineCount() {
+        return liveSessions.size();
+    }
+
+    // ============================================================
+    // WRITE-BEHIND
+    // ============================================================
+
+    /**
+     * Schreibt alle ausstehenden Session-Änderungen per Batch-Upsert.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            if (dirtySessions.isEmpty()) return;
+
+            Map<UUID, PendingSession> batch = new LinkedHashMap<>();
+            for (UUID uuid : dirtySessions.keySet()) {
+                PendingSession pending = dirtySessions.remove(uuid);
+                if (pending != null) {
+                    batch.put(uuid, pending);
+                }
+            }
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Schließt alle noch offenen Sessions (Logout = jetzt) und schreibt
+     * alles in einem Batch. Muss VOR dem Schließen des DB-Pools aufgerufen werden.
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Instant now = Instant.now();
+        int open = 0;
+        for (UUID uuid : liveSessions.keySet()) {
+            LiveSession session = liveSessions.remove(uuid);
+            if (session != null) {
+                closeSession(uuid, session, now);
+                open++;
+            }
+        }
+
+        int pending = dirtySessions.size();
+        flush();
+        logger.info("SessionService: Shutdown, {} offene Sessions geschlossen, {} Einträge geschrieben.",
+                open, pending);
+    }
+
+    private long closeSession(UUID uuid, LiveSession session, Instant logoutAt) {
+        long seconds = sessionSeconds(session, logoutAt);
+        enqueue(uuid, new PendingSession(session.name, session.loginAt, logoutAt, seconds, null));
+        return seconds;
+    }
+
+    private static long sessionSeconds(LiveSession session, Instant until) {
+        // Sicherheitsnetz falls die Uhr zurückspringt
+        return Math.max(0L, Duration.between(session.loginAt, until).getSeconds());
+    }
+
+    private void enqueue(UUID uuid, PendingSession pending) {
+        dirtySessions.merge(uuid, pending, PendingSession::then);
+    }
+
+    private void flushSafe() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("SessionService: Fehler im Write-Behind-Flush für gf_sessions", e);
+        }
+    }
+
+    /**
+     * Schreibt den Batch in einer Transaktion. Schlägt er fehl, wird pro Spieler
+     * einzeln geschrieben – eine kaputte Zeile blockiert so nicht die übrigen.
+     */
+    private void writeBatch(Map<UUID, PendingSession> batch) {
+        if (batch.isEmpty()) return;
+
+        Connection con;
+        try {
+            con = db.getConnection();
+        } catch (SQLException e) {
+            // DB nicht erreichbar → kein Fehlversuch der Einträge
+            logger.error("SessionService: Keine Connection für den Write-Behind von gf_sessions", e);
+            requeue(batch, false);
+            return;
+        }
+
+        try (con) {
+            if (writeTransaction(con, batch)) {
+                return;
+            }
+            if (batch.size() == 1) {
+                requeue(batch, isAlive(con));
+                return;
+            }
+            for (Map.Entry<UUID, PendingSession> entry : batch.entrySet()) {
+                Map<UUID, PendingSession> single = Map.of(entry.getKey(), entry.getValue());
+                if (!writeTransaction(con, single)) {
+                    // Verbindung weg → Ausfall, kein Fehler der Zeile
+                    requeue(single, isAlive(con));
+                }
+            }
+        } catch (SQLException e) {
+            logger.debug("SessionService: Fehler beim Schließen der Connection", e);
+        }
+    }
+
+    private boolean writeTransaction(Connection con, Map<UUID, PendingSession> batch) {
+        // first_login nur beim Insert, sonst bleibt der alte Wert;
+        // last_login ist NOT NULL → nur übernehmen, wenn der Eintrag einen Login enthält
+        String upsert = """
+                INSERT INTO gf_sessions
+                (uuid, name, first_login, last_login, last_logout, total_play_seconds, last_server)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE
+                    name = COALESCE(NULLIF(VALUES(name), ''), name),
+                    last_login = IF(?, VALUES(last_login), last_login),
+                    last_logout = COALESCE(VALUES(last_logout), last_logout),
+                    total_play_seconds = total_play_seconds + VALUES(total_play_seconds),
+                    last_server = COALESCE(VALUES(last_server), last_server)
                 """;
 
-        long sessionSeconds = 0L;
+        // Transaktion: sonst würden bereits geschriebene Teil-Batches beim Retry doppelt aufaddiert
+        try {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(upsert)) {
+                Timestamp now = Timestamp.from(Instant.now());
+                int inBatch = 0;
+                for (Map.Entry<UUID, PendingSession> entry : batch.entrySet()) {
+                    UUID uuid = entry.getKey();
+                    PendingSession pending = entry.getValue();
 
-        try (Connection con = db.getConnection()) {
+                    // nur Serverwechsel → Login der laufenden Session (bzw. jetzt für den Insert)
+                    Instant loginAt = pending.lastLogin();
+                    if (loginAt == null) {
+                        LiveSession live = liveSessions.get(uuid);
+                        loginAt = live != null ? live.loginAt : null;
+                    }
+                    Timestamp login = loginAt != null ? Timestamp.from(loginAt) : now;
+
+                    ps.setString(1, uuid.toString());
+                    // name ist NOT NULL – leerer Name = alten Wert behalten
+                    ps.setString(2, pending.name() != null ? pending.name() : "");
+                    ps.setTimestamp(3, login);
+                    ps.setTimestamp(4, login);
+                    ps.setTimestamp(5, pending.lastLogout() != null ? Timestamp.from(pending.lastLogout()) : null);
+                    ps.setLong(6, pending.addSeconds());
+                    ps.setString(7, pending.lastServer());
+                    ps.setBoolean(8, loginAt != null);
+                    ps.addBatch();
 
-            // Sessiondauer ausrechnen
-            try (PreparedStatement ps = con.prepareStatement(select)) {
-                ps.setString(1, uuid.toString());
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        sessionSeconds = rs.getLong("session_seconds");
-                        if (sessionSeconds < 0) {
-                            // Sicherheitsnetz falls last_login in Zukunft liegt
-                            sessionSeconds = 0L;
-                        }
+                    if (++inBatch >= flushBatchSize) {
+                        ps.executeBatch();
+                        inBatch = 0;
                     }
                 }
+                if (inBatch > 0) {
+                    ps.executeBatch();
+                }
             }
-
-            // Wenn wir keine Daten haben, einfach nichts updaten
-            if (sessionSeconds <= 0) {
-                return 0L;
+            con.commit();
+            return true;
+        } catch (SQLException e) {
+            try {
+                con.rollback();
+            } catch (SQLException ignored) {
+                // Verbindung ohnehin kaputt
             }
+            logger.error("SessionService: Fehler beim Batch-Speichern von gf_sessions ({} Einträge)",
+                    batch.size(), e);
+            return false;
+        }
+    }
 
-            // total_play_seconds erhöhen + last_logout setzen
-            try (PreparedStatement ps = con.prepareStatement(update)) {
-                ps.setLong(1, sessionSeconds);
-                ps.setString(2, uuid.toString());
-                ps.executeUpdate();
+    /**
+     * Zurück in die Queue (Sekunden aufaddieren, neuere Felder haben Vorrang).
+     * Einträge, die zu oft fehlgeschlagen sind, werden verworfen und vollständig
+     * geloggt (Dead-Letter), statt bei jedem Flush erneut den Batch zu sprengen.
+     */
+    private void requeue(Map<UUID, PendingSession> batch, boolean countAttempt) {
+        batch.forEach((uuid, failed) -> {
+            PendingSession next = countAttempt ? failed.retried() : failed;
+            if (next.attempts() >= MAX_WRITE_ATTEMPTS) {
+                logger.error("SessionService: Session-Eintrag nach {} Versuchen verworfen: uuid={}, name={}, " +
+                                "lastLogin={}, lastLogout={}, addSeconds={}, lastServer={}",
+                        next.attempts(), uuid, next.name(), next.lastLogin(), next.lastLogout(),
+                        next.addSeconds(), next.lastServer());
+                return;
             }
+            dirtySessions.merge(uuid, next, (newer, old) -> old.then(newer));
+        });
+    }
 
+    private static boolean isAlive(Connection con) {
+        try {
+            return con.isValid(2);
         } catch (SQLException e) {
-            logger.error("Fehler beim Session-Logout-Update für {}", uuid, e);
-            return 0L;
+            return false;
         }
+    }
 
-        long minutes = sessionSeconds / 60L;
-        logger.debug("SessionService: Logout {} – SessionSekunden={}, Minuten={}",
-                uuid, sessionSeconds, minutes);
-        return minutes;
+    // ============================================================
+    // INTERNAL: DB
+    // ============================================================
+
+    /**
+     * Läuft auf dem Writer: gespeicherten Stand laden und mit den noch
+     * ausstehenden Änderungen (z.B. Logout einer vorherigen Session) überlagern.
+     */
+    private void loadStored(UUID uuid, LiveSession session) {
+        if (liveSessions.get(uuid) != session) {
+            return; // schon wieder offline
+        }
+
+        // läuft auf dem Writer → kein Flush zwischen SELECT und Overlay
+        session.stored = withPending(uuid, toStored(loadSession(uuid)));
     }
 
-    public SessionInfo getSession(UUID uuid) {
+    /**
+     * Lädt die gespeicherte Session über eine vorhandene Connection
+     * (PlayerProfileLoader beim Login) und merkt sie für onLogin() vor.
+     *
+     * @return gespeicherte Zeile oder null (neuer Spieler)
+     */
+    public SessionInfo preload(Connection con, UUID uuid) throws SQLException {
+        SessionInfo info = loadSession(con, uuid);
+        primedSessions.put(uuid, toStored(info));
+        return info;
+    }
+
+    // keine Zeile = neuer Spieler, first_login ist dann der aktuelle Login
+    private static StoredSession toStored(SessionInfo info) {
+        if (info == null) {
+            return new StoredSession(null, null, 0L);
+        }
+        return new StoredSession(info.firstLogin(), info.lastLogout(), info.totalPlaySeconds());
+    }
+
+    /**
+     * Überlagert den DB-Stand mit noch nicht geschriebenen Änderungen
+     * (z.B. Logout einer vorherigen Session).
+     */
+    private StoredSession withPending(UUID uuid, StoredSession stored) {
+        PendingSession pending = dirtySessions.get(uuid);
+        if (pending == null) {
+            return stored;
+        }
+        return new StoredSession(
+                stored.firstLogin(),
+                pending.lastLogout() != null ? pending.lastLogout() : stored.lastLogout(),
+                stored.totalPlaySeconds() + pending.addSeconds()
+        );
+    }
+
+    private SessionInfo loadSession(UUID uuid) {
+        try (Connection con = db.getConnection()) {
+            return loadSession(con, uuid);
+        } catch (SQLException e) {
+            logger.error("Fehler beim Laden der Session für {}", uuid, e);
+            return null;
+        }
+    }
+
+    private SessionInfo loadSession(Connection con, UUID uuid) throws SQLException {
         String sql = """
                 SELECT uuid, name, first_login, last_login, last_logout,
                        total_play_seconds, last_server
@@ -151,9 +542,7 @@ public class SessionService {
                 WHERE uuid = ?
                 """;
 
-        try (Connection con = db.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
             ps.setString(1, uuid.toString());
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -173,10 +562,6 @@ public class SessionService {
                         rs.getString("last_server")
                 );
             }
-
-        } catch (SQLException e) {
-            logger.error("Fehler beim Laden der Session für {}", uuid, e);
-            return null;
         }
     }
 
@@ -0,0 +1,247 @@
+package de.galacticfy.core.sync;
+
+import de.galacticfy.core.database.DatabaseManager;
+import org.slf4j.Logger;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link InvalidationBus} über die Tabelle gf_change_log (DatabaseMigrationService).
+ *
+ * - publish(): eine Zeile (topic, change_key, origin) anhängen
+ * - alle POLL_INTERVAL_MS: neue Zeilen mit id > lastId lesen und an die Handler geben
+ * - AUTO_INCREMENT-IDs werden nicht zwingend in ID-Reihenfolge sichtbar
+ *   (parallele Transaktionen) → übersprungene IDs werden kurz nachgeprüft
+ * - alte Zeilen werden regelmäßig gelöscht
+ */
+public class ChangeLogInvalidationBus implements InvalidationBus {
+
+    private static final long POLL_INTERVAL_MS = 500L;
+    private static final int POLL_BATCH_SIZE = 500;
+    // so lange wird auf eine übersprungene ID gewartet (danach: Rollback o.ä.)
+    private static final long GAP_TIMEOUT_MS = 5_000L;
+    private static final int MAX_TRACKED_GAPS = 1_000;
+    private static final long CLEANUP_INTERVAL_MINUTES = 10L;
+    private static final int RETENTION_HOURS = 1;
+
+    private final DatabaseManager db;
+    private final Logger logger;
+    // Kennung dieses Proxies (eigene Zeilen ignorieren)
+    private final String origin = UUID.randomUUID().toString();
+
+    private final Map<Topic, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    // nur auf dem Scheduler-Thread verwendet
+    private long lastId;
+    private final Map<Long, Long> gaps = new ConcurrentHashMap<>(); // id -> erstmals vermisst (Millis)
+
+    public ChangeLogInvalidationBus(DatabaseManager db, Logger logger) {
+        this.db = db;
+        this.logger = logger;
+
+        this.lastId = loadMaxId();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "GalacticfyCore-ChangeLog");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollSafe, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::cleanupSafe,
+                CLEANUP_INTERVAL_MINUTES, CLEANUP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+
+        logger.info("ChangeLogInvalidationBus gestartet (origin={}, ab id={}).", origin, lastId);
+    }
+
+    // ============================================================
+    // InvalidationBus
+    // ============================================================
+
+    @Override
+    public void publish(Topic topic, String key) {
+        if (topic == null || key == null) return;
+
+        // asynchron, damit der Aufrufer (Command/Listener) nicht wartet
+        try {
+            scheduler.execute(() -> insert(topic, key));
+        } catch (Exception e) {
+            // Shutdown läuft → direkt schreiben
+            insert(topic, key);
+        }
+    }
+
+    @Override
+    public void subscribe(Topic topic, Consumer<String> handler) {
+        handlers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    @Override
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(3, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ============================================================
+    // SCHREIBEN
+    // ============================================================
+
+    private void insert(Topic topic, String key) {
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement(
+                     "INSERT INTO gf_change_log (topic, change_key, origin) VALUES (?, ?, ?)"
+             )) {
+            ps.setString(1, topic.name());
+            ps.setString(2, key);
+            ps.setString(3, origin);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.error("Fehler beim Schreiben in gf_change_log ({} {})", topic, key, e);
+        }
+    }
+
+    // ============================================================
+    // POLLEN
+    // ============================================================
+
+    private void pollSafe() {
+        try {
+            poll();
+        } catch (Exception e) {
+            logger.error("Fehler beim Pollen von gf_change_log", e);
+        }
+    }
+
+    private void poll() throws SQLException {
+        try (Connection con = db.getConnection()) {
+            if (!gaps.isEmpty()) {
+                recheckGaps(con);
+            }
+
+            boolean more = true;
+            while (more) {
+                int rows = 0;
+                try (PreparedStatement ps = con.prepareStatement(
+                        "SELECT id, topic, change_key, origin FROM gf_change_log " +
+                                "WHERE id > ? ORDER BY id LIMIT " + POLL_BATCH_SIZE
+                )) {
+                    ps.setLong(1, lastId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            long id = rs.getLong("id");
+                            trackGaps(id);
+                            lastId = id;
+                            rows++;
+                            dispatch(rs);
+                        }
+                    }
+                }
+                more = rows == POLL_BATCH_SIZE;
+            }
+        }
+    }
+
+    /**
+     * Zwischen lastId und id fehlende IDs merken – die zugehörige Transaktion
+     * kann noch offen sein.
+     */
+    private void trackGaps(long id) {
+        long now = System.currentTimeMillis();
+        for (long missing = lastId + 1; missing < id && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+            gaps.put(missing, now);
+        }
+    }
+
+    private void recheckGaps(Connection con) throws SQLException {
+        long now = System.currentTimeMillis();
+        gaps.values().removeIf(since -> now - since > GAP_TIMEOUT_MS);
+        if (gaps.isEmpty()) return;
+
+        StringJoiner in = new StringJoiner(",", "(", ")");
+        List<Long> ids = new ArrayList<>(gaps.keySet());
+        for (int i = 0; i < ids.size(); i++) {
+            in.add("?");
+        }
+
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT id, topic, change_key, origin FROM gf_change_log WHERE id IN " + in + " ORDER BY id"
+        )) {
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setLong(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    gaps.remove(rs.getLong("id"));
+                    dispatch(rs);
+                }
+            }
+        }
+    }
+
+    private void dispatch(ResultSet rs) throws SQLException {
+        if (origin.equals(rs.getString("origin"))) return;
+
+        Topic topic;
+        try {
+            topic = Topic.valueOf(rs.getString("topic"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return; // Topic einer neueren Version
+        }
+
+        List<Consumer<String>> list = handlers.get(topic);
+        if (list == null) return;
+
+        String key = rs.getString("change_key");
+        for (Consumer<String> handler : list) {
+            try {
+                handler.accept(key);
+            } catch (Exception e) {
+                logger.error("Fehler beim Verarbeiten der Invalidierung {} {}", topic, key, e);
+            }
+        }
+    }
+
+    // ============================================================
+    // INTERN
+    // ============================================================
+
+    private long loadMaxId() {
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM gf_change_log");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        } catch (SQLException e) {
+            logger.error("Fehler beim Lesen der höchsten gf_change_log-ID", e);
+            return 0L;
+        }
+    }
+
+    private void cleanupSafe() {
+        try (Connection con = db.getConnection();
+             PreparedStatement ps = con.prepareStatement(
+                     "DELETE FROM gf_change_log WHERE created_at < NOW() - INTERVAL " + RETENTION_HOURS + " HOUR"
+             )) {
+            int deleted = ps.executeUpdate();
+            if (deleted > 0) {
+                logger.debug("gf_change_log: {} alte Einträge gelöscht.", deleted);
+            }
+        } catch (Exception e) {
+            logger.error("Fehler beim Aufräumen von gf_change_log", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.galacticfy.core.sync;
+
+import java.util.function.Consumer;
+
+/**
+ * Verteilt Cache-Invalidierungen zwischen mehreren Proxies.
+ *
+ * Ein Service meldet nach einer Änderung nur, WELCHER Schlüssel betroffen ist
+ * (z.B. Rollen-ID, UUID, Punishment-ID). Die anderen Proxies laden genau diesen
+ * Eintrag neu – kein Voll-Reload. Eigene Meldungen werden nicht zurückgeliefert.
+ */
+public interface InvalidationBus {
+
+    enum Topic {
+        /** Rolle (gf_roles / gf_role_permissions / gf_role_inherits), Key = Rollen-ID */
+        ROLE,
+        /** Rolle eines Spielers (gf_user_roles), Key = UUID */
+        USER_ROLE,
+        /** Ban / IP-Ban / Mute (gf_punishments), Key = Punishment-ID */
+        PUNISHMENT,
+        /** Wartung: "config", "player:<name>" oder "group:<name>" */
+        MAINTENANCE
+    }
+
+    /**
+     * Meldet eine Änderung an alle anderen Proxies.
+     */
+    void publish(Topic topic, String key);
+
+    /**
+     * Handler für Änderungen anderer Proxies. Läuft auf dem Thread des Busses
+     * und darf blockieren (JDBC).
+     */
+    void subscribe(Topic topic, Consumer<String> handler);
+
+    void shutdown();
+}
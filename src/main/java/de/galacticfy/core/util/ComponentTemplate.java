@@ -0,0 +1,78 @@
+package de.galacticfy.core.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+/**
+ * Einmal geparstes MiniMessage-Template.
+ *
+ * Platzhalter wie {@code <time>} werden beim Parsen durch Marker ersetzt
+ * und bei render() nur noch als Text eingesetzt – der statische Teil
+ * (Gradients, Farben, Deko) wird nie erneut geparst.
+ *
+ * Werte werden als reiner Text eingesetzt (keine Tags).
+ */
+public final class ComponentTemplate {
+
+    private static final MiniMessage MM = MiniMessage.miniMessage();
+
+    // Private-Use-Zeichen, kommen in normalen Texten nicht vor
+    private static final char MARKER_START = '\uE000';
+    private static final char MARKER_END = '\uE001';
+
+    private final Component parsed;
+    private final String[] markers;
+
+    private ComponentTemplate(Component parsed, String[] markers) {
+        this.parsed = parsed;
+        this.markers = markers;
+    }
+
+    /**
+     * @param miniMessage  Template, z.B. "<gold><time></gold>"
+     * @param placeholders Namen der Platzhalter in Reihenfolge von render(...)
+     */
+    public static ComponentTemplate of(String miniMessage, String... placeholders) {
+        String[] markers = new String[placeholders.length];
+        TagResolver[] resolvers = new TagResolver[placeholders.length];
+
+        for (int i = 0; i < placeholders.length; i++) {
+            markers[i] = MARKER_START + placeholders[i] + MARKER_END;
+            resolvers[i] = Placeholder.unparsed(placeholders[i], markers[i]);
+        }
+
+        Component parsed = MM.deserialize(miniMessage, TagResolver.resolver(resolvers));
+        return new ComponentTemplate(parsed, markers);
+    }
+
+    /**
+     * Template ohne Platzhalter → immer dieselbe Component.
+     */
+    public static ComponentTemplate constant(String miniMessage) {
+        return of(miniMessage);
+    }
+
+    /**
+     * @param values Werte in derselben Reihenfolge wie die Platzhalter bei of(...)
+     */
+    public Component render(String... values) {
+        if (markers.length == 0) return parsed;
+        if (values.length != markers.length) {
+            throw new IllegalArgumentException(
+                    "Template erwartet " + markers.length + " Werte, bekommen: " + values.length);
+        }
+
+        Component out = parsed;
+        for (int i = 0; i < markers.length; i++) {
+            String value = values[i] != null ? values[i] : "";
+            out = out.replaceText(TextReplacementConfig.builder()
+                    .matchLiteral(markers[i])
+                    .replacement(value)
+                    .build());
+        }
+        return out;
+    }
+}
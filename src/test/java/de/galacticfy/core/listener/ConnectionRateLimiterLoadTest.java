@@ -0,0 +1,320 @@
+package de.galacticfy.core.listener;
+
+import com.velocitypowered.api.event.proxy.ProxyPingEvent;
+import com.velocitypowered.api.proxy.InboundConnection;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import de.galacticfy.core.listener.ConnectionRateLimiter.LimitedPingResponse;
+import de.galacticfy.core.listener.ConnectionRateLimiter.Settings;
+import de.galacticfy.core.motd.GalacticfyMotdProvider;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lokaler Lastgenerator für das Rate-Limit (user-013): Ping-/Login-Flood aus
+ * vielen Threads mit Millionen zufälliger IPv4-/IPv6-Quellen.
+ *
+ * Geprüft werden die Limits pro IP und pro /24 (IPv6: /48), die feste
+ * Tabellengröße, die Angriffserkennung und die konfigurierte Antwort auf
+ * limitierte Pings im MOTD-Provider.
+ */
+class ConnectionRateLimiterLoadTest {
+
+    private static final int THREADS = 8;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // =====================================================================
+    // LIMITS
+    // =====================================================================
+
+    @Test
+    void perIpPingLimitHoldsUnderContention() throws Exception {
+        Settings settings = Settings.defaults();
+        ConnectionRateLimiter limiter = new ConnectionRateLimiter(NOPLogger.NOP_LOGGER, settings);
+        InetSocketAddress source = address(203, 0, 113, 7);
+
+        long started = System.nanoTime();
+        long allowed = flood(100_000, i -> limiter.tryPing(source));
+
+        assertTrue(allowed >= settings.pingBurstPerIp());
+        assertTrue(allowed <= maxAllowed(settings.pingBurstPerIp(), settings.pingsPerMinutePerIp(), started),
+                "Pings pro IP über Burst + Nachfüllrate: " + allowed);
+    }
+
+    @Test
+    void perSubnetPingLimitCoversWholeSlash24() throws Exception {
+        Settings settings = Settings.defaults();
+        ConnectionRateLimiter limiter = new ConnectionRateLimiter(NOPLogger.NOP_LOGGER, settings);
+
+        // 256 Hosts in 198.51.100.0/24, jeder für sich unter dem IP-Limit
+        InetSocketAddress[] hosts = new InetSocketAddress[256];
+        for (int i = 0; i < hosts.length; i++) {
+            hosts[i] = address(198, 51, 100, i);
+        }
+
+        long started = System.nanoTime();
+        long allowed = flood(256 * 20, i -> limiter.tryPing(hosts[i % hosts.length]));
+
+        assertTrue(allowed >= settings.pingBurstPerSubnet());
+        assertTrue(allowed <= maxAllowed(settings.pingBurstPerSubnet(), settings.pingsPerMinutePerSubnet(), started),
+                "Pings pro /24 über Burst + Nachfüllrate: " + allowed);
+
+        // anderes Netz ist davon nicht betroffen
+        assertTrue(limiter.tryPing(address(192, 0, 2, 1)));
+    }
+
+    @Test
+    void perSubnetPingLimitCoversWholeSlash48() throws Exception {
+        Settings settings = Settings.defaults();
+        ConnectionRateLimiter limiter = new ConnectionRateLimiter(NOPLogger.NOP_LOGGER, settings);
+
+        // 256 Hosts in 2001:db8:1234::/48 (Rest zufällig)
+        InetSocketAddress[] hosts = new InetSocketAddress[256];
+        for (int i = 0; i < hosts.length; i++) {
+            byte[] raw = new byte[16];
+            ThreadLocalRandom.current().nextBytes(raw);
+            raw[0] = 0x20;
+            raw[1] = 0x01;
+            raw[2] = 0x0d;
+            raw[3] = (byte) 0xb8;
+            raw[4] = 0x12;
+            raw[5] = 0x34;
+            hosts[i] = address(raw);
+        }
+
+        long started = System.nanoTime();
+        long allowed = flood(256 * 20, i -> limiter.tryPing(hosts[i % hosts.length]));
+
+        assertTrue(allowed >= settings.pingBurstPerSubnet());
+        assertTrue(allowed <= maxAllowed(settings.pingBurstPerSubnet(), settings.pingsPerMinutePerSubnet(), started),
+                "Pings pro /48 über Burst + Nachfüllrate: " + allowed);
+    }
+
+    @Test
+    void loginLimitsPerIpAndSubnet() throws Exception {
+        Settings settings = Settings.defaults();
+        ConnectionRateLimiter limiter = new ConnectionRateLimiter(NOPLogger.NOP_LOGGER, settings);
+
+        InetSocketAddress single = address(203, 0, 113, 50);
+        long started = System.nanoTime();
+        long allowedIp = flood(50_000, i -> limiter.tryLogin(single));
+        assertTrue(allowedIp >= settings.loginBurstPerIp());
+        assertTrue(allowedIp <= maxAllowed(settings.loginBurstPerIp(), settings.loginsPerMinutePerIp(), started),
+                "Logins pro IP über Burst + Nachfüllrate: " + allowedIp);
+
+        started = System.nanoTime();
+        long allowedSubnet = flood(256 * 5, i -> limiter.tryLogin(address(198, 51, 100, i % 256)));
+        assertTrue(allowedSubnet <= maxAllowed(settings.loginBurstPerSubnet(), settings.loginsPerMinutePerSubnet(), started),
+                "Logins pro /24 über Burst + Nachfüllrate: " + allowedSubnet);
+
+        assertEquals(allowedIp + allowedSubnet, limiter.getLoginsAllowed());
+        assertEquals(50_000L + 256 * 5 - allowedIp - allowedSubnet, limiter.getLoginsLimited());
+    }
+
+    // =====================================================================
+    // FLOOD AUS MILLIONEN QUELLEN
+    // =====================================================================
+
+    @Test
+    void randomSourceFloodStaysInFixedTables() throws Exception {
+        Settings d = Settings.defaults();
+        Settings settings = new Settings(
+                d.pingsPerMinutePerIp(), d.pingBurstPerIp(),
+                d.pingsPerMinutePerSubnet(), d.pingBurstPerSubnet(),
+                d.loginsPerMinutePerIp(), d.loginBurstPerIp(),
+                d.loginsPerMinutePerSubnet(), d.loginBurstPerSubnet(),
+                d.attackThresholdPerSecond(), d.attackHoldSeconds(),
+                LimitedPingResponse.MINIMAL,
+                1024
+        );
+        ConnectionRateLimiter limiter = new ConnectionRateLimiter(NOPLogger.NOP_LOGGER, settings);
+        assertFalse(limiter.isUnderAttack());
+
+        int pings = 2_000_000;
+        int logins = 1_000_000;
+        long started = System.nanoTime();
+        long allowedPings = flood(pings, i -> limiter.tryPing(randomSource()));
+        long allowedLogins = flood(logins, i -> limiter.tryLogin(randomSource()));
+
+        // Tabellen wachsen nicht mit der Zahl der Quellen ...
+        assertEquals(1024, limiter.slotsPerTable());
+        // ... und begrenzen damit auch den Durchsatz: jeder erlaubte Ping kostet
+        // ein Token aus einem der 1024 Subnetz-Slots
+        long perSlot = maxAllowed(settings.pingBurstPerSubnet(), settings.pingsPerMinutePerSubnet(), started);
+        assertTrue(allowedPings <= 1024L * perSlot, "mehr Pings erlaubt als die Tabelle hergibt: " + allowedPings);
+        long perLoginSlot = maxAllowed(settings.loginBurstPerSubnet(), settings.loginsPerMinutePerSubnet(), started);
+        assertTrue(allowedLogins <= 1024L * perLoginSlot, "mehr Logins erlaubt als die Tabelle hergibt: " + allowedLogins);
+
+        // nichts geht verloren
+        assertEquals(allowedPings, limiter.getPingsAllowed());
+        assertEquals(pings - allowedPings, limiter.getPingsLimited());
+        assertEquals(allowedLogins, limiter.getLoginsAllowed());
+
+        // Flood erkannt
+        assertTrue(limiter.isUnderAttack());
+        assertEquals(1L, limiter.getAttacksDetected());
+        assertTrue(limiter.formatMetrics().contains("[ANGRIFF]"));
+    }
+
+    // =====================================================================
+    // ANTWORT AUF LIMITIERTE PINGS
+    // =====================================================================
+
+    @Test
+    void minimalResponseReplacesPingDuringAttack() throws Exception {
+        ConnectionRateLimiter limiter = attackedLimiter(LimitedPingResponse.MINIMAL);
+        assertEquals(LimitedPingResponse.MINIMAL, limiter.getLimitedPingResponse());
+
+        ServerPing original = originalPing();
+        ProxyPingEvent event = pingFrom(randomSource(), original);
+        new GalacticfyMotdProvider(null, limiter).onProxyPing(event);
+
+        ServerPing answered = event.getPing();
+        assertFalse(answered == original);
+        assertEquals("Galacticfy", answered.getVersion().getName());
+        assertFalse(answered.getPlayers().isPresent());
+    }
+
+    @Test
+    void defaultPingResponseKeepsVelocityPingDuringAttack() throws Exception {
+        ConnectionRateLimiter limiter = attackedLimiter(LimitedPingResponse.DEFAULT_PING);
+        assertEquals(LimitedPingResponse.DEFAULT_PING, limiter.getLimitedPingResponse());
+
+        ServerPing original = originalPing();
+        ProxyPingEvent event = pingFrom(randomSource(), original);
+        new GalacticfyMotdProvider(null, limiter).onProxyPing(event);
+
+        assertTrue(event.getPing() == original);
+    }
+
+    // =====================================================================
+    // HELFER
+    // =====================================================================
+
+    /**
+     * Limiter, der gerade eine Ping-Flood gesehen hat (eine IP, weit über dem Schwellwert).
+     */
+    private ConnectionRateLimiter attackedLimiter(LimitedPingResponse response) throws Exception {
+        Settings d = Settings.defaults();
+        Settings settings = new Settings(
+                d.pingsPerMinutePerIp(), d.pingBurstPerIp(),
+                d.pingsPerMinutePerSubnet(), d.pingBurstPerSubnet(),
+                d.loginsPerMinutePerIp(), d.loginBurstPerIp(),
+                d.loginsPerMinutePerSubnet(), d.loginBurstPerSubnet(),
+                d.attackThresholdPerSecond(), d.attackHoldSeconds(),
+                response,
+                d.slotsPerTable()
+        );
+        ConnectionRateLimiter limiter = new ConnectionRateLimiter(NOPLogger.NOP_LOGGER, settings);
+        InetSocketAddress attacker = address(203, 0, 113, 99);
+        flood(20 * settings.attackThresholdPerSecond(), i -> limiter.tryPing(attacker));
+        assertTrue(limiter.isUnderAttack());
+        return limiter;
+    }
+
+    /**
+     * Ruft action iterations-mal aus allen Threads gleichzeitig auf.
+     *
+     * @return Anzahl der Aufrufe, die true geliefert haben
+     */
+    private long flood(int iterations, IntPredicate action) throws Exception {
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicLong allowed = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        int perThread = iterations / THREADS;
+
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * perThread;
+            int count = t == THREADS - 1 ? iterations - offset : perThread;
+            futures.add(pool.submit(() -> {
+                startGate.await();
+                long local = 0;
+                for (int i = 0; i < count; i++) {
+                    if (action.test(offset + i)) local++;
+                }
+                allowed.addAndGet(local);
+                return null;
+            }));
+        }
+
+        startGate.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        return allowed.get();
+    }
+
+    /**
+     * Obergrenze für einen Bucket: voller Burst + was seit started nachgefüllt wurde.
+     */
+    private static long maxAllowed(int burst, int perMinute, long startedNanos) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos) + 1;
+        return burst + (elapsedMs * perMinute) / 60_000L + 1;
+    }
+
+    /** Zufällige Quelle, je zur Hälfte IPv4 und IPv6. */
+    private static InetSocketAddress randomSource() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[] raw = new byte[random.nextBoolean() ? 4 : 16];
+        random.nextBytes(raw);
+        return address(raw);
+    }
+
+    private static InetSocketAddress address(int a, int b, int c, int d) {
+        return address(new byte[]{(byte) a, (byte) b, (byte) c, (byte) d});
+    }
+
+    private static InetSocketAddress address(byte[] raw) {
+        try {
+            // getByAddress löst nichts auf → keine DNS-Anfragen im Test
+            return new InetSocketAddress(InetAddress.getByAddress(raw), 25565);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static ServerPing originalPing() {
+        return new ServerPing(
+                new ServerPing.Version(765, "Velocity"),
+                new ServerPing.Players(12, 500, List.of()),
+                Component.text("Velocity"),
+                null
+        );
+    }
+
+    private static ProxyPingEvent pingFrom(InetSocketAddress source, ServerPing ping) {
+        InboundConnection connection = (InboundConnection) Proxy.newProxyInstance(
+                InboundConnection.class.getClassLoader(),
+                new Class<?>[]{InboundConnection.class},
+                (proxy, method, args) -> method.getName().equals("getRemoteAddress") ? source : null
+        );
+        return new ProxyPingEvent(connection, ping);
+    }
+}
@@ -0,0 +1,149 @@
+package de.galacticfy.core.permission;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission-Check einer großen Rolle (user-008): alter Weg (alle effektiven
+ * Einträge durchlaufen, pro Eintrag lowercase + Scope + equals/startsWith)
+ * gegen den vorkompilierten Trie aus {@link CompiledPermissions}.
+ *
+ * Ausführen: mvn -Pbenchmark test -Djmh.args=PermissionCheck
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    private static final String SERVER = "Lobby-1";
+
+    @Param({"500", "2000"})
+    public int nodes;
+
+    private record Entry(String permission, String serverScope) {
+    }
+
+    private List<Entry> entries;
+    private CompiledPermissions compiled;
+
+    // gemischte Anfragen: exakter Treffer, Wildcard-Treffer, Fehlschlag
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        entries = new ArrayList<>();
+        CompiledPermissions.Builder builder = new CompiledPermissions.Builder();
+
+        for (int i = 0; i < nodes; i++) {
+            String plugin = "plugin" + (i % 40);
+            String permission = (i % 25 == 0)
+                    ? plugin + ".module" + i + ".*"
+                    : plugin + ".module" + (i / 40) + ".action" + i;
+
+            int r = random.nextInt(10);
+            String scope = r < 8 ? "GLOBAL" : (r == 8 ? "PROXY" : SERVER);
+
+            entries.add(new Entry(permission, scope));
+            builder.add(permission.toLowerCase(Locale.ROOT), scope);
+        }
+        compiled = builder.build();
+
+        List<String> q = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Entry e = entries.get(random.nextInt(entries.size()));
+            String p = e.permission();
+            q.add(p.endsWith(".*")
+                    ? p.substring(0, p.length() - 1) + "sub.Node"  // unter einer Wildcard
+                    : p.toUpperCase(Locale.ROOT));                  // exakt, andere Schreibweise
+            q.add("plugin" + random.nextInt(40) + ".unknown.node" + i); // kein Treffer
+        }
+        queries = q.toArray(new String[0]);
+    }
+
+    /**
+     * Vorher: linearer Scan über alle effektiven Einträge der Rolle.
+     */
+    @Benchmark
+    public boolean linearScan() {
+        return linearMatches(nextQuery(), SERVER, false);
+    }
+
+    /**
+     * Nachher: ein Durchlauf über die Zeichen der Node im Trie.
+     */
+    @Benchmark
+    public boolean compiledTrie() {
+        return compiled.matches(nextQuery(), SERVER, false);
+    }
+
+    private String nextQuery() {
+        String query = queries[next];
+        next = (next + 1) % queries.length;
+        return query;
+    }
+
+    // =====================================================================
+    // ALTER CHECK (1:1 aus GalacticfyPermissionService vor dem Trie)
+    // =====================================================================
+
+    private boolean linearMatches(String permission, String serverName, boolean proxyContext) {
+        String node = permission.toLowerCase(Locale.ROOT);
+        for (Entry entry : entries) {
+            if (entry.permission() == null || entry.permission().isBlank()) continue;
+
+            String p = entry.permission().toLowerCase(Locale.ROOT);
+
+            if (!scopeMatches(entry.serverScope(), serverName, proxyContext)) {
+                continue;
+            }
+
+            if (p.equals("*")) return true;
+
+            if (p.equals(node)) return true;
+
+            if (p.endsWith(".*")) {
+                String prefix = p.substring(0, p.length() - 2);
+                if (!prefix.isEmpty() && node.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean scopeMatches(String entryScope, String currentServerName, boolean proxyContext) {
+        String scope = (entryScope == null || entryScope.isBlank())
+                ? "GLOBAL"
+                : entryScope;
+        if (scope.equalsIgnoreCase("GLOBAL")) {
+            return true;
+        }
+        if (scope.equalsIgnoreCase("PROXY")) {
+            return proxyContext;
+        }
+        if (currentServerName == null || currentServerName.isBlank()) {
+            return false;
+        }
+        return scope.equalsIgnoreCase(currentServerName);
+    }
+}
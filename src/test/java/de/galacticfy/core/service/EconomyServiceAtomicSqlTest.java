@@ -0,0 +1,441 @@
+package de.galacticfy.core.service;
+
+import de.galacticfy.core.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Atomare SQL-Updates für nicht gecachte Accounts (user-005):
+ *  - Gutschrift per INSERT ... ON DUPLICATE KEY UPDATE col = col + ?
+ *  - Abbuchung per UPDATE ... WHERE col >= ?, Ergebnis = betroffene Zeilen
+ *  - Transfer (beide Accounts offline) in einer Transaktion
+ *
+ * Die DB ist eine kleine In-Memory-gf_economy hinter Fake-JDBC, die jede
+ * Anweisung samt Binds protokolliert und wie MariaDB zeilenatomar ausführt.
+ */
+class EconomyServiceAtomicSqlTest {
+
+    private static final int THREADS = 8;
+
+    private FakeEconomyDatabase db;
+    private EconomyService economy;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        db = new FakeEconomyDatabase();
+        economy = new EconomyService(db, NOPLogger.NOP_LOGGER);
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        economy.shutdown();
+    }
+
+    // =====================================================================
+    // EINZELNE ANWEISUNGEN
+    // =====================================================================
+
+    @Test
+    void depositUpsertsWithIncrement() {
+        UUID uuid = UUID.randomUUID();
+
+        assertTrue(economy.deposit(uuid, 250L));
+        assertTrue(economy.addStardust(uuid, 7L));
+
+        Executed balance = db.single("INSERT INTO gf_economy", "balance + VALUES(balance)");
+        assertTrue(balance.sql().contains("ON DUPLICATE KEY UPDATE balance"));
+        assertEquals(List.of(uuid.toString(), 250L), balance.binds());
+        assertEquals(1, balance.result());
+
+        Executed stardust = db.single("INSERT INTO gf_economy", "stardust + VALUES(stardust)");
+        assertEquals(List.of(uuid.toString(), 7L), stardust.binds());
+
+        assertEquals(250L, db.balance(uuid));
+        assertEquals(7L, db.stardust(uuid));
+    }
+
+    @Test
+    void withdrawIsConditionalUpdate() {
+        UUID uuid = UUID.randomUUID();
+        db.put(uuid, 100L, 0L);
+
+        assertTrue(economy.withdraw(uuid, 60L));
+
+        Executed update = db.single("UPDATE gf_economy SET balance = balance - ?");
+        assertTrue(update.sql().contains("WHERE uuid = ? AND balance >= ?"));
+        assertEquals(List.of(60L, uuid.toString(), 60L), update.binds());
+        assertEquals(1, update.result());
+        assertEquals(40L, db.balance(uuid));
+    }
+
+    @Test
+    void zeroRowUpdateMeansNotEnough() {
+        UUID uuid = UUID.randomUUID();
+        db.put(uuid, 100L, 5L);
+
+        assertFalse(economy.withdraw(uuid, 150L));
+        assertFalse(economy.removeStardust(uuid, 6L));
+
+        Executed balance = db.single("UPDATE gf_economy SET balance = balance - ?");
+        assertEquals(List.of(150L, uuid.toString(), 150L), balance.binds());
+        assertEquals(0, balance.result());
+
+        Executed stardust = db.single("UPDATE gf_economy SET stardust = stardust - ?");
+        assertTrue(stardust.sql().contains("WHERE uuid = ? AND stardust >= ?"));
+        assertEquals(List.of(6L, uuid.toString(), 6L), stardust.binds());
+        assertEquals(0, stardust.result());
+
+        assertEquals(100L, db.balance(uuid));
+        assertEquals(5L, db.stardust(uuid));
+    }
+
+    @Test
+    void transferRunsInOneTransaction() {
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+        db.put(from, 500L, 0L);
+        db.put(to, 10L, 0L);
+
+        assertTrue(economy.transfer(from, to, 200L));
+
+        Executed debit = db.single("UPDATE gf_economy SET balance = balance - ?");
+        Executed credit = db.single("INSERT INTO gf_economy", "balance + VALUES(balance)");
+        assertEquals(List.of(200L, from.toString(), 200L), debit.binds());
+        assertEquals(List.of(to.toString(), 200L), credit.binds());
+        assertFalse(debit.autoCommit());
+        assertEquals(debit.connection(), credit.connection());
+        assertEquals(1, db.commits.get());
+
+        assertEquals(300L, db.balance(from));
+        assertEquals(210L, db.balance(to));
+    }
+
+    @Test
+    void failedDebitRollsBackTransfer() {
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+        db.put(from, 50L, 0L);
+        db.put(to, 10L, 0L);
+
+        assertFalse(economy.transfer(from, to, 200L));
+
+        assertEquals(0, db.single("UPDATE gf_economy SET balance = balance - ?").result());
+        assertEquals(0, db.count("INSERT INTO gf_economy", "balance + VALUES(balance)"));
+        assertEquals(0, db.commits.get());
+        assertEquals(1, db.rollbacks.get());
+
+        assertEquals(50L, db.balance(from));
+        assertEquals(10L, db.balance(to));
+    }
+
+    // =====================================================================
+    // NEBENLÄUFIG
+    // =====================================================================
+
+    @Test
+    void concurrentWithdrawsOnlySucceedWhileCovered() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        long start = 2_000L;
+        db.put(uuid, start, 0L);
+
+        AtomicLong succeeded = new AtomicLong();
+        runConcurrently(2 * (int) start, () -> {
+            if (economy.withdraw(uuid, 1L)) {
+                succeeded.incrementAndGet();
+            }
+        });
+
+        assertEquals(start, succeeded.get());
+        assertEquals(0L, db.balance(uuid));
+    }
+
+    @Test
+    void concurrentDepositsAndWithdrawsLoseNothing() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        long start = 1_000L;
+        db.put(uuid, start, 0L);
+
+        AtomicLong deposited = new AtomicLong();
+        AtomicLong withdrawn = new AtomicLong();
+        runConcurrently(8_000, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long amount = 1 + random.nextInt(50);
+            if (random.nextBoolean()) {
+                assertTrue(economy.deposit(uuid, amount));
+                deposited.addAndGet(amount);
+            } else if (economy.withdraw(uuid, amount)) {
+                withdrawn.addAndGet(amount);
+            }
+        });
+
+        assertEquals(start + deposited.get() - withdrawn.get(), db.balance(uuid));
+    }
+
+    @Test
+    void concurrentTransfersConserveTotal() throws Exception {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        db.put(a, 300L, 0L);
+        db.put(b, 700L, 0L);
+
+        runConcurrently(8_000, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long amount = 1 + random.nextInt(100);
+            if (random.nextBoolean()) {
+                economy.transfer(a, b, amount);
+            } else {
+                economy.transfer(b, a, amount);
+            }
+        });
+
+        assertTrue(db.balance(a) >= 0 && db.balance(b) >= 0);
+        assertEquals(1_000L, db.balance(a) + db.balance(b));
+    }
+
+    private void runConcurrently(int iterations, Runnable task) throws Exception {
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        int perThread = iterations / THREADS;
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                startGate.await();
+                for (int i = 0; i < perThread; i++) {
+                    task.run();
+                }
+                return null;
+            }));
+        }
+
+        startGate.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    // =====================================================================
+    // FAKE-DB
+    // =====================================================================
+
+    private record Executed(String sql, List<Object> binds, int result, int connection, boolean autoCommit) {
+    }
+
+    /**
+     * gf_economy im Speicher. Jede Anweisung läuft unter einem Lock (wie die
+     * Zeilensperre in MariaDB); Transaktionen werden per Undo-Log zurückgerollt.
+     */
+    private static final class FakeEconomyDatabase extends DatabaseManager {
+        private final Map<UUID, long[]> rows = new HashMap<>();
+        private final List<Executed> executed = new ArrayList<>();
+        private final AtomicLong connections = new AtomicLong();
+        final AtomicLong commits = new AtomicLong();
+        final AtomicLong rollbacks = new AtomicLong();
+
+        FakeEconomyDatabase() {
+            super(NOPLogger.NOP_LOGGER);
+        }
+
+        synchronized void put(UUID uuid, long balance, long stardust) {
+            rows.put(uuid, new long[]{balance, stardust});
+        }
+
+        synchronized long balance(UUID uuid) {
+            long[] row = rows.get(uuid);
+            return row == null ? 0L : row[0];
+        }
+
+        synchronized long stardust(UUID uuid) {
+            long[] row = rows.get(uuid);
+            return row == null ? 0L : row[1];
+        }
+
+        synchronized int count(String... fragments) {
+            return matching(fragments).size();
+        }
+
+        synchronized Executed single(String... fragments) {
+            List<Executed> found = matching(fragments);
+            assertEquals(1, found.size());
+            return found.get(0);
+        }
+
+        private List<Executed> matching(String... fragments) {
+            List<Executed> found = new ArrayList<>();
+            for (Executed e : executed) {
+                boolean all = true;
+                for (String f : fragments) {
+                    all &= e.sql().contains(f);
+                }
+                if (all) found.add(e);
+            }
+            return found;
+        }
+
+        /**
+         * Zustand einer Connection. Commits/Rollbacks zählen nur, wenn sie
+         * gf_economy angefasst hat (nicht der Ledger-Writer im Hintergrund).
+         */
+        private static final class Tx {
+            final int id;
+            boolean autoCommit = true;
+            boolean touchedAccounts;
+            final List<Runnable> undo = new ArrayList<>();
+
+            Tx(int id) {
+                this.id = id;
+            }
+        }
+
+        @Override
+        public Connection getConnection() {
+            Tx tx = new Tx((int) connections.incrementAndGet());
+
+            return fake(Connection.class, (method, args) -> switch (method) {
+                case "prepareStatement" -> statement((String) args[0], tx);
+                case "setAutoCommit" -> {
+                    tx.autoCommit = (Boolean) args[0];
+                    yield null;
+                }
+                case "getAutoCommit" -> tx.autoCommit;
+                case "commit" -> {
+                    tx.undo.clear();
+                    if (tx.touchedAccounts) commits.incrementAndGet();
+                    yield null;
+                }
+                case "rollback" -> {
+                    synchronized (this) {
+                        for (int i = tx.undo.size() - 1; i >= 0; i--) {
+                            tx.undo.get(i).run();
+                        }
+                    }
+                    tx.undo.clear();
+                    if (tx.touchedAccounts) rollbacks.incrementAndGet();
+                    yield null;
+                }
+                case "isValid" -> true;
+                default -> null;
+            });
+        }
+
+        private PreparedStatement statement(String sql, Tx tx) {
+            Map<Integer, Object> binds = new HashMap<>();
+            List<Map<Integer, Object>> batch = new ArrayList<>();
+
+            return fake(PreparedStatement.class, (method, args) -> switch (method) {
+                case "setString", "setLong", "setInt", "setTimestamp" -> {
+                    binds.put((Integer) args[0], args[1]);
+                    yield null;
+                }
+                case "setNull" -> {
+                    binds.put((Integer) args[0], null);
+                    yield null;
+                }
+                case "addBatch" -> {
+                    batch.add(new HashMap<>(binds));
+                    yield null;
+                }
+                case "executeUpdate" -> run(sql, binds, tx);
+                case "executeBatch" -> {
+                    int[] counts = new int[batch.size()];
+                    for (int i = 0; i < counts.length; i++) {
+                        counts[i] = run(sql, batch.get(i), tx);
+                    }
+                    batch.clear();
+                    yield counts;
+                }
+                // nur der Baltop-Seed liest die ganze Tabelle → leer
+                case "executeQuery" -> fake(ResultSet.class, (m, a) -> null);
+                default -> null;
+            });
+        }
+
+        private synchronized int run(String sql, Map<Integer, Object> binds, Tx tx) {
+            if (!sql.contains("gf_economy_ledger")) {
+                tx.touchedAccounts = true;
+            }
+            int result = apply(sql, binds, tx.autoCommit ? null : tx.undo);
+
+            List<Object> ordered = new ArrayList<>();
+            for (int i = 1; i <= binds.size(); i++) {
+                ordered.add(binds.get(i));
+            }
+            executed.add(new Executed(sql, ordered, result, tx.id, tx.autoCommit));
+            return result;
+        }
+
+        private int apply(String sql, Map<Integer, Object> binds, List<Runnable> undo) {
+            if (sql.contains("INSERT INTO gf_economy_ledger")) {
+                return 1;
+            }
+            if (sql.contains("INSERT INTO gf_economy")) {
+                int col = sql.contains("stardust + VALUES(stardust)") ? 1 : 0;
+                return change(UUID.fromString((String) binds.get(1)), col, (Long) binds.get(2), undo);
+            }
+            if (sql.startsWith("UPDATE gf_economy SET balance = balance - ?")
+                    || sql.startsWith("UPDATE gf_economy SET stardust = stardust - ?")) {
+                int col = sql.startsWith("UPDATE gf_economy SET stardust") ? 1 : 0;
+                long amount = (Long) binds.get(1);
+                long[] row = rows.get(UUID.fromString((String) binds.get(2)));
+                if (row == null || row[col] < (Long) binds.get(3)) {
+                    return 0;
+                }
+                return change(UUID.fromString((String) binds.get(2)), col, -amount, undo);
+            }
+            throw new AssertionError("Unerwartete Anweisung: " + sql);
+        }
+
+        private int change(UUID uuid, int col, long delta, List<Runnable> undo) {
+            long[] row = rows.computeIfAbsent(uuid, k -> new long[2]);
+            row[col] += delta;
+            if (undo != null) {
+                undo.add(() -> row[col] -= delta);
+            }
+            return 1;
+        }
+    }
+
+    private interface FakeHandler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, FakeHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = handler.handle(method.getName(), args);
+            if (result != null) return result;
+
+            Class<?> rt = method.getReturnType();
+            if (rt == boolean.class) return false;
+            if (rt == int.class) return 0;
+            if (rt == long.class) return 0L;
+            return null;
+        });
+    }
+}
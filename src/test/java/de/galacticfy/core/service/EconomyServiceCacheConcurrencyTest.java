@@ -0,0 +1,216 @@
+package de.galacticfy.core.service;
+
+import de.galacticfy.core.database.DatabaseManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stresstest für den gecachten Pfad: deposit / withdraw / transfer laufen per
+ * CAS auf dem Account-Cache, ohne Lost-Updates und ohne Minus.
+ *
+ * Die DB ist offline: Accounts kommen über eine Fake-Connection in den Cache,
+ * der Ledger-Writer bekommt keine Connection und legt die Einträge zurück in die Queue.
+ */
+class EconomyServiceCacheConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private EconomyService economy;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        economy = new EconomyService(new OfflineDatabaseManager(), NOPLogger.NOP_LOGGER);
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        economy.shutdown();
+    }
+
+    // =====================================================================
+    // TESTS
+    // =====================================================================
+
+    @Test
+    void concurrentDepositsAndWithdrawsLoseNothing() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        long start = 10_000L;
+        load(uuid, "Alice", start);
+
+        AtomicLong deposited = new AtomicLong();
+        AtomicLong withdrawn = new AtomicLong();
+
+        runConcurrently(20_000, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long amount = 1 + random.nextInt(50);
+            if (random.nextBoolean()) {
+                assertTrue(economy.deposit(uuid, amount));
+                deposited.addAndGet(amount);
+            } else if (economy.withdraw(uuid, amount)) {
+                withdrawn.addAndGet(amount);
+            }
+            assertTrue(economy.getBalance(uuid) >= 0, "Kontostand darf nie negativ werden");
+        });
+
+        assertEquals(start + deposited.get() - withdrawn.get(), economy.getBalance(uuid));
+    }
+
+    @Test
+    void onlyCoveredWithdrawsSucceed() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        long start = 5_000L;
+        load(uuid, "Bob", start);
+
+        AtomicLong succeeded = new AtomicLong();
+
+        // doppelt so viele Versuche wie Guthaben → genau "start" dürfen durchgehen
+        runConcurrently(2 * (int) start, () -> {
+            if (economy.withdraw(uuid, 1L)) {
+                succeeded.incrementAndGet();
+            }
+        });
+
+        assertEquals(start, succeeded.get());
+        assertEquals(0L, economy.getBalance(uuid));
+    }
+
+    @Test
+    void concurrentTransfersConserveTotal() throws Exception {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        load(a, "Alice", 3_000L);
+        load(b, "Bob", 7_000L);
+
+        runConcurrently(20_000, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long amount = 1 + random.nextInt(200);
+            if (random.nextBoolean()) {
+                economy.transfer(a, b, amount);
+            } else {
+                economy.transfer(b, a, amount);
+            }
+        });
+
+        long balanceA = economy.getBalance(a);
+        long balanceB = economy.getBalance(b);
+        assertTrue(balanceA >= 0 && balanceB >= 0);
+        assertEquals(10_000L, balanceA + balanceB);
+    }
+
+    // =====================================================================
+    // HELFER
+    // =====================================================================
+
+    /**
+     * Führt task insgesamt iterations-mal auf allen Threads gleichzeitig aus
+     * (gemeinsamer Start, damit sich die CAS-Schleifen wirklich überschneiden).
+     */
+    private void runConcurrently(int iterations, Runnable task) throws Exception {
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        int perThread = iterations / THREADS;
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                startGate.await();
+                for (int i = 0; i < perThread; i++) {
+                    task.run();
+                }
+                return null;
+            }));
+        }
+
+        startGate.countDown();
+        for (Future<?> f : futures) {
+            f.get(30, TimeUnit.SECONDS); // Assertion-Fehler aus den Threads nach oben reichen
+        }
+    }
+
+    private void load(UUID uuid, String name, long balance) throws SQLException {
+        try (Connection con = accountConnection(uuid, name, balance)) {
+            economy.loadAccount(con, uuid, name, false);
+        }
+        economy.completeLoad(uuid, true);
+        assertEquals(balance, economy.getBalance(uuid));
+    }
+
+    /**
+     * Connection, die auf jeden SELECT genau eine gf_economy-Zeile liefert.
+     */
+    private static Connection accountConnection(UUID uuid, String name, long balance) {
+        boolean[] consumed = {false};
+        ResultSet rs = fake(ResultSet.class, (method, args) -> switch (method) {
+            case "next" -> {
+                boolean hasRow = !consumed[0];
+                consumed[0] = true;
+                yield hasRow;
+            }
+            case "getString" -> "uuid".equals(args[0]) ? uuid.toString() : name;
+            case "getLong" -> "balance".equals(args[0]) ? balance : 0L;
+            default -> null;
+        });
+        PreparedStatement ps = fake(PreparedStatement.class,
+                (method, args) -> "executeQuery".equals(method) ? rs : null);
+        return fake(Connection.class,
+                (method, args) -> "prepareStatement".equals(method) ? ps : null);
+    }
+
+    private interface FakeHandler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, FakeHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = handler.handle(method.getName(), args);
+            if (result != null) return result;
+
+            // Default für alles andere (close, setString, ...)
+            Class<?> rt = method.getReturnType();
+            if (rt == boolean.class) return false;
+            if (rt == int.class) return 0;
+            if (rt == long.class) return 0L;
+            return null;
+        });
+    }
+
+    /**
+     * Kein Pool: der Ledger-Writer bekommt nie eine Connection und
+     * requeued seine Einträge ohne Versuchszähler.
+     */
+    private static final class OfflineDatabaseManager extends DatabaseManager {
+        OfflineDatabaseManager() {
+            super(NOPLogger.NOP_LOGGER);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            throw new SQLException("offline (Test)");
+        }
+    }
+}
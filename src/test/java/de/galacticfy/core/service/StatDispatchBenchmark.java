@@ -0,0 +1,114 @@
+package de.galacticfy.core.service;
+
+import de.galacticfy.core.service.QuestService.QuestDefinition;
+import de.galacticfy.core.service.QuestService.QuestType;
+import de.galacticfy.core.service.QuestService.StatType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stat-Event-Dispatch (user-002): alter Weg (alle Definitionen durchlaufen,
+ * matchesStat mit toLowerCase + contains pro Quest) gegen den vorberechneten
+ * StatType-Index aus buildSnapshot.
+ *
+ * Ausführen: mvn -Pbenchmark test -Djmh.args=StatDispatch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatDispatchBenchmark {
+
+    // Alle Template-Keys + Lifetime → obere Grenze der aktiven Definitionen
+    private static final String[] KEYS = {
+            "daily_break_stone", "daily_break_ores", "daily_break_gravel", "daily_break_dirt",
+            "daily_break_sand", "daily_break_wood", "daily_break_crops", "daily_break_sugarcane",
+            "daily_break_nether", "daily_kill_mobs", "daily_kill_zombies", "daily_kill_creepers",
+            "daily_fish", "daily_trades", "daily_walk", "daily_play_minutes", "daily_login",
+            "daily_craft_torches", "daily_craft_bread", "daily_craft_tools", "daily_smelt_ores",
+            "daily_smelt_food",
+            "weekly_break_stone", "weekly_break_wood", "weekly_kill_mobs", "weekly_trades",
+            "weekly_fish", "weekly_walk", "weekly_play_minutes", "weekly_login",
+            "weekly_craft_blocks", "weekly_smelt_ores",
+            "monthly_break_stone", "monthly_kill_mobs", "monthly_trades", "monthly_walk",
+            "monthly_play_minutes", "monthly_login", "monthly_craft_gear", "monthly_smelt_materials",
+            "event_xmas_snowballs", "event_xmas_snowmen", "event_halloween_pumpkins", "event_easter_eggs"
+    };
+
+    private static final String[] LIFETIME_KEYS = {
+            "lifetime_mine_100k_stone", "lifetime_kill_50k_mobs", "lifetime_trades_500",
+            "lifetime_walk_2m_blocks", "lifetime_login_streak_7", "lifetime_login_streak_14",
+            "lifetime_login_streak_30"
+    };
+
+    private static final StatType[] STATS = StatType.values();
+
+    private List<QuestDefinition> definitions;
+    private Map<StatType, QuestDefinition[]> byStat;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        definitions = new ArrayList<>();
+        for (String key : KEYS) {
+            definitions.add(new QuestDefinition(key, key, "", typeOf(key), 100, 10, 0, true));
+        }
+        for (String key : LIFETIME_KEYS) {
+            definitions.add(new QuestDefinition(key, key, "", QuestType.LIFETIME, 100_000, 1000, 10, true));
+        }
+        byStat = QuestService.indexByStat(definitions);
+    }
+
+    /**
+     * Vorher: pro Event alle Definitionen prüfen.
+     */
+    @Benchmark
+    public void linearScan(Blackhole bh) {
+        StatType statType = nextStat();
+        for (QuestDefinition def : definitions) {
+            if (!def.active()) continue;
+            if (!QuestService.matchesStat(def, statType)) continue;
+            bh.consume(def);
+        }
+    }
+
+    /**
+     * Nachher: ein EnumMap-Lookup, danach nur noch passende Quests.
+     */
+    @Benchmark
+    public void indexedLookup(Blackhole bh) {
+        StatType statType = nextStat();
+        for (QuestDefinition def : byStat.get(statType)) {
+            bh.consume(def);
+        }
+    }
+
+    private StatType nextStat() {
+        StatType statType = STATS[next];
+        next = (next + 1) % STATS.length;
+        return statType;
+    }
+
+    private static QuestType typeOf(String key) {
+        if (key.startsWith("weekly_")) return QuestType.WEEKLY;
+        if (key.startsWith("monthly_")) return QuestType.MONTHLY;
+        if (key.startsWith("event_")) return QuestType.EVENT;
+        return QuestType.DAILY;
+    }
+}